@@ -0,0 +1,202 @@
+package org.example;
+
+import java.util.*;
+
+/**
+ * Allocation per traversed edge, measured with the thread allocation counter
+ * (the figure JMH -prof gc reports as gc.alloc.rate.norm).
+ * Part 1 runs Kahn, SCC and path sweeps written with the boxed JDK collections
+ * and with the primitive ones on the same graph. Part 2 runs every engine on
+ * graphs with the same vertex count and growing edge counts: the allocated
+ * bytes must not grow with m, i.e. zero allocation per edge.
+ * Usage: AllocationBenchmark [vertices edges] (default 200,000 x 1,000,000)
+ */
+public class AllocationBenchmark {
+
+    // --- Kahn: LinkedList queue + HashMap<Integer, Integer> in-degrees vs IntRingQueue + IntIntOpenHashMap ---
+
+    static long kahnBoxed(Graph g) {
+        Map<Integer, Integer> inDegree = new HashMap<>();
+        for (int u = 0; u < g.vertexCount(); u++) inDegree.put(u, 0);
+        for (int u = 0; u < g.vertexCount(); u++) {
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                inDegree.compute(g.target(e), (k, v) -> v == null ? 1 : v + 1);
+            }
+        }
+        Queue<Integer> queue = new LinkedList<>();
+        for (int u = 0; u < g.vertexCount(); u++) if (inDegree.get(u) == 0) queue.offer(u);
+        long popped = 0;
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            popped++;
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                int v = g.target(e);
+                if (inDegree.compute(v, (k, d) -> d - 1) == 0) queue.offer(v);
+            }
+        }
+        return popped;
+    }
+
+    static long kahnPrimitive(Graph g) {
+        IntIntOpenHashMap inDegree = new IntIntOpenHashMap(g.vertexCount(), 0);
+        for (int u = 0; u < g.vertexCount(); u++) {
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) inDegree.addTo(g.target(e), 1);
+        }
+        IntRingQueue queue = new IntRingQueue(g.vertexCount());
+        for (int u = 0; u < g.vertexCount(); u++) if (inDegree.get(u) == 0) queue.offer(u);
+        long popped = 0;
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            popped++;
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                if (inDegree.addTo(g.target(e), -1) == 0) queue.offer(g.target(e));
+            }
+        }
+        return popped;
+    }
+
+    // --- DFS finish order: Stack<Integer> vs IntArrayStack (edge cursors in a long[]) ---
+
+    static long dfsBoxed(Graph g) {
+        boolean[] visited = new boolean[g.vertexCount()];
+        long[] cursor = new long[g.vertexCount()];
+        List<Integer> order = new ArrayList<>();
+        Stack<Integer> stack = new Stack<>();
+        for (int s = 0; s < g.vertexCount(); s++) {
+            if (visited[s]) continue;
+            visited[s] = true;
+            cursor[s] = g.edgeStart(s);
+            stack.push(s);
+            while (!stack.isEmpty()) {
+                int u = stack.peek();
+                if (cursor[u] < g.edgeEnd(u)) {
+                    int v = g.target(cursor[u]++);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        cursor[v] = g.edgeStart(v);
+                        stack.push(v);
+                    }
+                } else {
+                    order.add(stack.pop());
+                }
+            }
+        }
+        return order.size();
+    }
+
+    static long dfsPrimitive(Graph g) {
+        boolean[] visited = new boolean[g.vertexCount()];
+        long[] cursor = new long[g.vertexCount()];
+        IntList order = new IntList(g.vertexCount());
+        IntArrayStack stack = new IntArrayStack();
+        for (int s = 0; s < g.vertexCount(); s++) {
+            if (visited[s]) continue;
+            visited[s] = true;
+            cursor[s] = g.edgeStart(s);
+            stack.push(s);
+            while (!stack.isEmpty()) {
+                int u = stack.peek();
+                if (cursor[u] < g.edgeEnd(u)) {
+                    int v = g.target(cursor[u]++);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        cursor[v] = g.edgeStart(v);
+                        stack.push(v);
+                    }
+                } else {
+                    order.add(stack.pop());
+                }
+            }
+        }
+        return order.size();
+    }
+
+    // --- Shortest distances in topological order: HashMap<Integer, Double> vs double[] (as DagPathEngine) ---
+
+    static double pathsBoxed(Graph g, int[] topoOrder) {
+        Map<Integer, Double> dist = new HashMap<>();
+        dist.put(topoOrder[0], 0.0);
+        for (int u : topoOrder) {
+            Double du = dist.get(u);
+            if (du == null) continue;
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                dist.merge(g.target(e), du + g.weight(e), Math::min);
+            }
+        }
+        return dist.size();
+    }
+
+    static double pathsPrimitive(Graph g, int[] topoOrder) {
+        double[] dist = new double[g.vertexCount()];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[topoOrder[0]] = 0.0;
+        int reached = 1;
+        for (int u : topoOrder) {
+            double du = dist[u];
+            if (du == Double.POSITIVE_INFINITY) continue;
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                int v = g.target(e);
+                if (dist[v] == Double.POSITIVE_INFINITY) reached++;
+                dist[v] = Math.min(dist[v], du + g.weight(e));
+            }
+        }
+        return reached;
+    }
+
+    // Bytes the calling thread allocates while running task (best of three, after a warm-up run)
+    private static long allocated(Runnable task) {
+        task.run();
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            long before = MemoryFootprint.allocatedBytes();
+            task.run();
+            best = Math.min(best, MemoryFootprint.allocatedBytes() - before);
+        }
+        return best;
+    }
+
+    public static void main(String[] args) {
+        int n = args.length >= 2 ? Integer.parseInt(args[0]) : 200_000;
+        int m = args.length >= 2 ? Integer.parseInt(args[1]) : 1_000_000;
+        if (MemoryFootprint.allocatedBytes() < 0) {
+            throw new RuntimeException("Error: this JVM does not report per-thread allocation");
+        }
+
+        CsrGraph dag = GraphLoader.fromEdges(n, SyntheticGraphs.randomEdges(n, m, true, 36));
+        int[] topoOrder = new KahnEngine().sort(dag);
+        System.out.printf("--- Allocation per Edge (n=%d, m=%d) ---\n", n, m);
+        System.out.printf("%-22s %16s %16s\n", "Structure", "Boxed (B/edge)", "Primitive (B/edge)");
+        long[][] pairs = {
+                {allocated(() -> kahnBoxed(dag)), allocated(() -> kahnPrimitive(dag))},
+                {allocated(() -> dfsBoxed(dag)), allocated(() -> dfsPrimitive(dag))},
+                {allocated(() -> pathsBoxed(dag, topoOrder)), allocated(() -> pathsPrimitive(dag, topoOrder))},
+        };
+        String[] labels = {"Kahn queue + in-degree", "DFS stack + order", "Distance map"};
+        for (int i = 0; i < pairs.length; i++) {
+            System.out.printf("%-22s %16.2f %16.2f\n", labels[i], (double) pairs[i][0] / m, (double) pairs[i][1] / m);
+        }
+
+        // Engines: same n, growing m; allocation that does not grow with m is zero per edge
+        System.out.printf("\n%-22s", "Engine bytes at m =");
+        int[] multipliers = {1, 2, 4};
+        for (int k : multipliers) System.out.printf(" %14d", (long) m * k);
+        System.out.printf(" %12s\n", "B/extra edge");
+        String[] engines = {"KahnEngine.sort", "SccEngine.run", "DagPathEngine", "ShortestPath.dijkstra"};
+        long[][] bytes = new long[engines.length][multipliers.length];
+        for (int j = 0; j < multipliers.length; j++) {
+            CsrGraph g = GraphLoader.fromEdges(n, SyntheticGraphs.randomEdges(n, m * multipliers[j], true, 36));
+            CsrGraph transpose = g.transpose();
+            int[] order = new KahnEngine().sort(g);
+            bytes[0][j] = allocated(() -> new KahnEngine().sort(g));
+            bytes[1][j] = allocated(() -> new SccEngine().run(g, transpose));
+            bytes[2][j] = allocated(() -> new DagPathEngine().pathInDAG(g, order, order[0], true));
+            bytes[3][j] = allocated(() -> new ShortestPathEngine().dijkstra(g, order[0]));
+        }
+        long extraEdges = (long) m * (multipliers[multipliers.length - 1] - multipliers[0]);
+        for (int i = 0; i < engines.length; i++) {
+            System.out.printf("%-22s", engines[i]);
+            for (long b : bytes[i]) System.out.printf(" %,14d", b);
+            System.out.printf(" %12.3f\n", (double) (bytes[i][multipliers.length - 1] - bytes[i][0]) / extraEdges);
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * End-to-end benchmark of every dataset in graph_info.txt through the pipelines
+ * of the three mains, each phase timed on its own:
+ *   load     GraphLoader.loadJson
+ *   scc      KosarajuSCC: transpose, both DFS passes, canonical ids, condensation
+ *   kahn     TopologicalSort_Kahn: Kahn pre-pass, residual SCC, reduced condensation, Kahn
+ *   dagpath  DagPaths: Kahn order, shortest and longest paths from V1 (Dijkstra if cyclic)
+ * Like those mains (AUTO_DENSE), scc and kahn run the DenseGraph bitset engines
+ * on graphs DenseGraph.preferred picks. The counter columns always count CSR work
+ * (DFS visits and edges, queue pushes and pops), from an untimed CSR pass when the
+ * timed one ran on the matrix; its word operations are added to the statistics.
+ * After the warmup iterations, every measured iteration adds one sample per phase;
+ * with forks > 0 each dataset instead runs in that many fresh JVMs and their
+ * samples are pooled. Writes RESULTS_COMPARISON.csv (medians and counters, in its
+ * original column layout) and a statistics CSV (median, p90, p99), then diffs the
+ * statistics against a stored baseline and flags regressions.
+ * Usage: BenchmarkRunner [--warmup N] [--iterations N] [--forks N] [--csv FILE]
+ *        [--stats FILE] [--baseline FILE] [--save-baseline] [--threshold PERCENT]
+ * (defaults 200, 1,000, 0, RESULTS_COMPARISON.csv, RESULTS_STATS.csv, RESULTS_BASELINE.csv, 10)
+ */
+public class BenchmarkRunner {
+
+    private static final String[] PHASES = {"load", "scc", "kahn", "dagpath"};
+    private static final TieBreak TIE_BREAK = TieBreak.LEXICOGRAPHIC;
+    private static final String SOURCE_NODE = "V1";
+    // Same choice as KosarajuSCC and TopologicalSort_Kahn; false always times the CSR engines
+    private static final boolean AUTO_DENSE = true;
+    private static final String WORKER_FLAG = "--worker";
+
+    private static final String COMPARISON_HEADER = "\uFEFFNAME; ; (Vertices); (Edges);KosarajuSCC;time(ms);DFS Visits;travered;"
+            + "Topological Sort;Time(ms);Total pushes;Total Pops;DagPath;Relaxations (SSSP Run);Relaxations (LPSP Run);Time";
+    private static final String STATS_HEADER = "NAME;Phase;Mode;Samples;Median(ms);P90(ms);P99(ms);Min(ms);Max(ms);Counters";
+
+    /** Samples and counters of one dataset; counters are deterministic, so the last iteration's are kept. */
+    private static class Measurement {
+        final String dataset;
+        final String description;
+        final double[][] millis = new double[PHASES.length][];
+        int samples;
+        int vertices;
+        long edges;
+        final Map<String, Long> counters = new LinkedHashMap<>();
+
+        Measurement(String dataset, String description, int capacity) {
+            this.dataset = dataset;
+            this.description = description;
+            for (int p = 0; p < PHASES.length; p++) millis[p] = new double[capacity];
+        }
+
+        void add(double[] phaseMillis) {
+            for (int p = 0; p < PHASES.length; p++) millis[p][samples] = phaseMillis[p];
+            samples++;
+        }
+
+        // Nearest-rank percentile of one phase's samples
+        double percentile(int phase, double p) {
+            double[] sorted = Arrays.copyOf(millis[phase], samples);
+            Arrays.sort(sorted);
+            return sorted[Math.max(0, (int) Math.ceil(p * samples) - 1)];
+        }
+
+        String counters(String... names) {
+            StringBuilder sb = new StringBuilder();
+            for (String name : names) {
+                if (!counters.containsKey(name)) continue;
+                if (sb.length() > 0) sb.append(' ');
+                sb.append(name).append('=').append(counters.get(name));
+            }
+            return sb.toString();
+        }
+
+        String phaseCounters(int phase) {
+            return switch (PHASES[phase]) {
+                case "load" -> counters("vertices", "edges");
+                case "scc" -> counters("dfsVisits", "dfsEdges", "sccWordOps", "components");
+                case "kahn" -> counters("pushes", "pops", "kahnWordOps");
+                default -> counters("relaxationsSSSP", "relaxationsLPSP");
+            };
+        }
+    }
+
+    // --- One iteration of every phase ---
+
+    private static void iteration(String dataset, double[] phaseMillis, Map<String, Long> counters) throws Exception {
+        long start = System.nanoTime();
+        CsrGraph g = GraphLoader.loadJson(dataset);
+        int n = g.vertexCount();
+        long loaded = System.nanoTime();
+
+        boolean dense = AUTO_DENSE && DenseGraph.preferred(g);
+        int[] rank = TIE_BREAK.ranks(g.names());
+        DenseGraph matrix = dense ? DenseGraph.of(g) : null;
+        SccEngine scc = (dense ? matrix.scc() : new SccEngine().run(g, g.transpose())).canonicalize(g, rank);
+        Condensation.build(g, scc);
+        long sccWordOps = dense ? matrix.wordOps() : -1;
+        long sccDone = System.nanoTime();
+
+        rank = TIE_BREAK.ranks(g.names());
+        matrix = dense ? DenseGraph.of(g) : null;
+        KahnEngine kahn = new KahnEngine();
+        kahnPipeline(g, rank, matrix, kahn);
+        long kahnWordOps = dense ? matrix.wordOps() : -1;
+        long kahnDone = System.nanoTime();
+
+        rank = TIE_BREAK.ranks(g.names());
+        int[] topoOrder = new KahnEngine().sort(g, rank);
+        int source = g.names().idOf(SOURCE_NODE);
+        if (source == -1) throw new RuntimeException("Error: Source node " + SOURCE_NODE + " not in " + dataset);
+        long relaxationsSSSP, relaxationsLPSP = -1;
+        if (topoOrder.length == n) {
+            DagPathEngine engine = new DagPathEngine();
+            engine.pathInDAG(g, topoOrder, source, true);
+            relaxationsSSSP = engine.relaxationCount();
+            engine.resetRelaxationCount();
+            engine.pathInDAG(g, topoOrder, source, false);
+            relaxationsLPSP = engine.relaxationCount();
+        } else {
+            ShortestPathEngine engine = new ShortestPathEngine();
+            engine.shortestPaths(g, source);
+            relaxationsSSSP = engine.relaxationCount();
+        }
+        long pathsDone = System.nanoTime();
+
+        // Untimed: the CSR work a dense run skipped, for the counter columns
+        if (dense) {
+            scc = new SccEngine().run(g, g.transpose());
+            kahn = new KahnEngine();
+            kahnPipeline(g, rank, null, kahn);
+        }
+
+        phaseMillis[0] = (loaded - start) / 1e6;
+        phaseMillis[1] = (sccDone - loaded) / 1e6;
+        phaseMillis[2] = (kahnDone - sccDone) / 1e6;
+        phaseMillis[3] = (pathsDone - kahnDone) / 1e6;
+        counters.put("vertices", (long) n);
+        counters.put("edges", g.edgeCount());
+        counters.put("dfsVisits", scc.dfsVisits());
+        counters.put("dfsEdges", scc.dfsEdges());
+        optional(counters, "sccWordOps", sccWordOps);
+        counters.put("components", (long) scc.componentCount());
+        counters.put("pushes", kahn.pushes());
+        counters.put("pops", kahn.pops());
+        optional(counters, "kahnWordOps", kahnWordOps);
+        counters.put("relaxationsSSSP", relaxationsSSSP);
+        optional(counters, "relaxationsLPSP", relaxationsLPSP);
+    }
+
+    // TopologicalSort_Kahn: pre-pass on the input, then residual SCC, reduced condensation and its sort
+    private static void kahnPipeline(CsrGraph g, int[] rank, DenseGraph matrix, KahnEngine kahn) {
+        int[] prefix = matrix != null ? matrix.topologicalOrder(rank) : kahn.sort(g, rank);
+        if (prefix.length < g.vertexCount()) {
+            SccEngine residual = (matrix != null ? matrix.scc() : new SccEngine().runResidual(g, prefix)).canonicalize(g, rank);
+            CsrGraph condensation = Condensation.build(g, residual);
+            int[] idOrder = new int[condensation.vertexCount()];
+            for (int c = 0; c < idOrder.length; c++) idOrder[c] = c;
+            kahn.sort(new TransitiveReduction().reduce(condensation, idOrder), idOrder);
+        }
+    }
+
+    // A negative value: the counter does not apply to this run
+    private static void optional(Map<String, Long> counters, String name, long value) {
+        if (value >= 0) counters.put(name, value);
+        else counters.remove(name);
+    }
+
+    private static void measureInProcess(Measurement m, int warmup, int iterations) throws Exception {
+        double[] phaseMillis = new double[PHASES.length];
+        for (int i = 0; i < warmup; i++) iteration(m.dataset, phaseMillis, m.counters);
+        for (int i = 0; i < iterations; i++) {
+            iteration(m.dataset, phaseMillis, m.counters);
+            m.add(phaseMillis);
+        }
+    }
+
+    // Worker side of a fork: one "SAMPLE;ms;ms;ms;ms" line per measured iteration, then the counters
+    private static void worker(String dataset, int warmup, int iterations) throws Exception {
+        Measurement m = new Measurement(dataset, "", iterations);
+        measureInProcess(m, warmup, iterations);
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < m.samples; i++) {
+            out.append("SAMPLE");
+            for (int p = 0; p < PHASES.length; p++) out.append(';').append(m.millis[p][i]);
+            out.append('\n');
+        }
+        for (Map.Entry<String, Long> counter : m.counters.entrySet()) {
+            out.append("COUNTER;").append(counter.getKey()).append(';').append(counter.getValue()).append('\n');
+        }
+        System.out.print(out);
+        System.out.flush();
+    }
+
+    private static void measureForked(Measurement m, int forks, int warmup, int iterations) throws Exception {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), BenchmarkRunner.class.getName(),
+                WORKER_FLAG, m.dataset, String.valueOf(warmup), String.valueOf(iterations)));
+        for (int fork = 0; fork < forks; fork++) {
+            Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            double[] phaseMillis = new double[PHASES.length];
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                for (String line; (line = in.readLine()) != null; ) {
+                    String[] fields = line.split(";");
+                    if (fields[0].equals("SAMPLE")) {
+                        for (int p = 0; p < PHASES.length; p++) phaseMillis[p] = Double.parseDouble(fields[p + 1]);
+                        m.add(phaseMillis);
+                    } else if (fields[0].equals("COUNTER")) {
+                        Long previous = m.counters.put(fields[1], Long.parseLong(fields[2]));
+                        if (previous != null && previous != Long.parseLong(fields[2])) {
+                            throw new RuntimeException("Error: counter " + fields[1] + " of " + m.dataset + " differs between forks");
+                        }
+                    }
+                }
+            }
+            if (process.waitFor() != 0) {
+                throw new RuntimeException("Error: benchmark fork for " + m.dataset + " exited with " + process.exitValue());
+            }
+        }
+    }
+
+    // --- Datasets, output files and the baseline ---
+
+    // "small1.json: Small DAG (sparse) | Nodes: 6, Edges: 9" -> dataset name and description
+    private static Map<String, String> datasets() throws IOException {
+        InputStream is = BenchmarkRunner.class.getClassLoader().getResourceAsStream("graph_info.txt");
+        if (is == null) throw new RuntimeException("Error: File not found in resources: graph_info.txt");
+        Map<String, String> datasets = new LinkedHashMap<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+            for (String line; (line = in.readLine()) != null; ) {
+                int colon = line.indexOf(':');
+                if (colon <= 0) continue;
+                int bar = line.indexOf('|', colon);
+                datasets.put(line.substring(0, colon).trim(), (bar < 0 ? line.substring(colon + 1) : line.substring(colon + 1, bar)).trim());
+            }
+        }
+        return datasets;
+    }
+
+    private static String ms(double millis) {
+        return String.format(Locale.ROOT, "%.4f", millis);
+    }
+
+    private static String count(Measurement m, String name) {
+        Long value = m.counters.get(name);
+        return value == null ? "" : value.toString();
+    }
+
+    private static void writeComparison(Path file, List<Measurement> results) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.print(COMPARISON_HEADER + "\r\n");
+            for (Measurement m : results) {
+                out.print(String.join(";", m.dataset, m.description, String.valueOf(m.vertices), String.valueOf(m.edges),
+                        "", ms(m.percentile(1, 0.5)), count(m, "dfsVisits"), count(m, "dfsEdges"),
+                        "", ms(m.percentile(2, 0.5)), count(m, "pushes"), count(m, "pops"),
+                        "", count(m, "relaxationsSSSP"), count(m, "relaxationsLPSP"), ms(m.percentile(3, 0.5))) + "\r\n");
+            }
+        }
+    }
+
+    private static void writeStats(Path file, List<Measurement> results, String mode) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.print(STATS_HEADER + "\r\n");
+            for (Measurement m : results) {
+                for (int p = 0; p < PHASES.length; p++) {
+                    out.print(String.join(";", m.dataset, PHASES[p], mode, String.valueOf(m.samples),
+                            ms(m.percentile(p, 0.5)), ms(m.percentile(p, 0.9)), ms(m.percentile(p, 0.99)),
+                            ms(m.percentile(p, 0)), ms(m.percentile(p, 1)), m.phaseCounters(p)) + "\r\n");
+                }
+            }
+        }
+    }
+
+    /**
+     * A phase regresses when its median grew by more than threshold percent and
+     * left the baseline's noise band (above the baseline p90); changed counters
+     * mean the algorithms did different work. Returns the number of regressions.
+     */
+    private static int diff(Path baseline, List<Measurement> results, String mode, double threshold) throws IOException {
+        Map<String, String[]> rows = new HashMap<>();
+        for (String line : Files.readAllLines(baseline, StandardCharsets.UTF_8)) {
+            String[] fields = line.split(";", -1);
+            if (fields.length >= 10 && !fields[0].equals("NAME")) rows.put(fields[0] + ";" + fields[1] + ";" + fields[2], fields);
+        }
+        System.out.printf("\n--- Baseline Diff (%s, threshold %.0f%%) ---\n", baseline, threshold);
+        int regressions = 0, changed = 0;
+        for (Measurement m : results) {
+            for (int p = 0; p < PHASES.length; p++) {
+                String[] base = rows.get(m.dataset + ";" + PHASES[p] + ";" + mode);
+                if (base == null) {
+                    System.out.printf("%-14s %-8s no baseline entry for mode %s\n", m.dataset, PHASES[p], mode);
+                    continue;
+                }
+                double median = m.percentile(p, 0.5);
+                double baseMedian = Double.parseDouble(base[4]), baseP90 = Double.parseDouble(base[5]);
+                double change = baseMedian == 0 ? 0 : 100 * (median - baseMedian) / baseMedian;
+                String flag = "";
+                if (change > threshold && median > baseP90) {
+                    flag = "REGRESSION";
+                    regressions++;
+                } else if (change < -threshold) {
+                    flag = "faster";
+                }
+                if (!m.phaseCounters(p).equals(base[9])) {
+                    flag += (flag.isEmpty() ? "" : ", ") + "COUNTERS CHANGED (was " + base[9] + ")";
+                    changed++;
+                }
+                System.out.printf("%-14s %-8s %9s -> %9s ms %+7.1f%% %s\n", m.dataset, PHASES[p], base[4], ms(median), change, flag);
+            }
+        }
+        System.out.printf("%d regressions, %d phases with changed counters\n", regressions, changed);
+        return regressions;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 4 && args[0].equals(WORKER_FLAG)) {
+            try {
+                worker(args[1], Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+            } catch (Exception e) {
+                e.printStackTrace();
+                System.exit(1);
+            }
+            return;
+        }
+
+        int warmup = 200, iterations = 1_000, forks = 0;
+        double threshold = 10;
+        boolean saveBaseline = false;
+        Path csv = Path.of("RESULTS_COMPARISON.csv"), stats = Path.of("RESULTS_STATS.csv"), baseline = Path.of("RESULTS_BASELINE.csv");
+        int regressions = 0;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                    case "--iterations" -> iterations = Integer.parseInt(args[++i]);
+                    case "--forks" -> forks = Integer.parseInt(args[++i]);
+                    case "--csv" -> csv = Path.of(args[++i]);
+                    case "--stats" -> stats = Path.of(args[++i]);
+                    case "--baseline" -> baseline = Path.of(args[++i]);
+                    case "--save-baseline" -> saveBaseline = true;
+                    case "--threshold" -> threshold = Double.parseDouble(args[++i]);
+                    default -> throw new IllegalArgumentException("Error: unknown option " + args[i]);
+                }
+            }
+            if (iterations < 1) throw new IllegalArgumentException("Error: at least one measured iteration is needed");
+            String mode = forks > 0 ? "forked x" + forks : "in-process";
+            System.out.printf("--- Benchmark Runner (%s, %d warmup + %d measured iterations) ---\n", mode, warmup, iterations);
+            System.out.printf("%-14s %-8s %10s %10s %10s  %s\n", "graph", "phase", "median ms", "p90 ms", "p99 ms", "counters");
+
+            List<Measurement> results = new ArrayList<>();
+            for (Map.Entry<String, String> dataset : datasets().entrySet()) {
+                Measurement m = new Measurement(dataset.getKey(), dataset.getValue(), iterations * Math.max(forks, 1));
+                if (forks > 0) measureForked(m, forks, warmup, iterations);
+                else measureInProcess(m, warmup, iterations);
+                m.vertices = (int) (long) m.counters.get("vertices");
+                m.edges = m.counters.get("edges");
+                for (int p = 0; p < PHASES.length; p++) {
+                    System.out.printf("%-14s %-8s %10s %10s %10s  %s\n", m.dataset, PHASES[p], ms(m.percentile(p, 0.5)),
+                            ms(m.percentile(p, 0.9)), ms(m.percentile(p, 0.99)), m.phaseCounters(p));
+                }
+                results.add(m);
+            }
+
+            writeComparison(csv, results);
+            writeStats(stats, results, mode);
+            System.out.printf("\nWrote %s (medians) and %s (median/p90/p99)\n", csv, stats);
+            if (saveBaseline) {
+                writeStats(baseline, results, mode);
+                System.out.println("Saved baseline " + baseline);
+            } else if (Files.exists(baseline)) {
+                regressions = diff(baseline, results, mode, threshold);
+            } else {
+                System.out.println("No baseline at " + baseline + "; run with --save-baseline to store one");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("\nA critical error occurred: " + e.getMessage());
+            System.exit(2);
+        } catch (Exception e) {
+            System.err.println("\nAn unexpected error occurred during execution.");
+            e.printStackTrace();
+            System.exit(2);
+        }
+        // Non-zero exit status so scripts can gate on regressions
+        if (regressions > 0) System.exit(1);
+    }
+}
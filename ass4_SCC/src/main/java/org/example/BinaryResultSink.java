@@ -0,0 +1,127 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary output through a FileChannel and a reused direct buffer.
+ * Layout (big-endian): magic "SCCR", version int, vertex count int followed by
+ * the vertex names (length-prefixed UTF-8), then tagged records that refer to
+ * vertices and components by int id:
+ *   1 component: c, size, members...     2 edges: c, count, targets...
+ *   3 order: position, c                 4 task: position, v
+ *   5 distance: run byte (0 shortest, 1 longest), v, double
+ *   6 path: run byte, length, vertices...
+ * Component c is named "SCC " + (c + 1), so no component name table is written.
+ */
+class BinaryResultSink implements ResultSink {
+
+    static final int MAGIC = 0x53434352; // "SCCR"
+    static final int VERSION = 1;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+
+    BinaryResultSink(Path file, VertexNames vertices, VertexNames components) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ensure(12);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(vertices.size());
+        for (int v = 0; v < vertices.size(); v++) {
+            byte[] name = vertices.nameOf(v).getBytes(StandardCharsets.UTF_8);
+            ensure(4);
+            buffer.putInt(name.length);
+            bytes(name);
+        }
+    }
+
+    // Copied through the buffer, or written straight to the channel if it would not fit
+    private void bytes(byte[] values) throws IOException {
+        if (values.length <= buffer.capacity()) {
+            ensure(values.length);
+            buffer.put(values);
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+        ByteBuffer direct = ByteBuffer.wrap(values);
+        while (direct.hasRemaining()) channel.write(direct);
+    }
+
+    // Drains the buffer to the channel when fewer than bytes remain
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return;
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    private void ints(int[] values, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            ensure(4);
+            buffer.putInt(values[i]);
+        }
+    }
+
+    private static byte runCode(String run) {
+        return (byte) ("shortest".equals(run) ? 0 : 1);
+    }
+
+    @Override
+    public void section(String title) {
+        // headings are text-only
+    }
+
+    @Override
+    public void component(int c, int[] members, int from, int to) throws IOException {
+        ensure(9);
+        buffer.put((byte) 1).putInt(c).putInt(to - from);
+        ints(members, from, to);
+    }
+
+    @Override
+    public void componentEdges(int c, Graph dag) throws IOException {
+        ensure(9);
+        buffer.put((byte) 2).putInt(c).putInt(dag.outDegree(c));
+        for (long e = dag.edgeStart(c), end = dag.edgeEnd(c); e < end; e++) {
+            ensure(4);
+            buffer.putInt(dag.target(e));
+        }
+    }
+
+    @Override
+    public void componentOrder(int position, int c) throws IOException {
+        ensure(9);
+        buffer.put((byte) 3).putInt(position).putInt(c);
+    }
+
+    @Override
+    public void taskOrder(int position, int v) throws IOException {
+        ensure(9);
+        buffer.put((byte) 4).putInt(position).putInt(v);
+    }
+
+    @Override
+    public void distance(String run, int v, double dist) throws IOException {
+        ensure(14);
+        buffer.put((byte) 5).put(runCode(run)).putInt(v).putDouble(dist);
+    }
+
+    @Override
+    public void path(String run, int[] path) throws IOException {
+        ensure(6);
+        buffer.put((byte) 6).put(runCode(run)).putInt(path.length);
+        ints(path, 0, path.length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        ensure(buffer.capacity());
+        channel.close();
+    }
+}
@@ -0,0 +1,365 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Graph whose rows are gap-encoded varints in one byte[], for sparse graphs too
+ * large to hold as CSR int arrays. Each row is sorted by (target, weight); its
+ * first target is stored as zigzag(target - u) and every later one as the gap to
+ * the previous target, 7 bits per byte with a continuation bit. Weights follow
+ * their targets as zigzag varints, or are left out when every weight is 1.
+ * A skip pointer every SKIP edges (byte position and previous target) bounds the
+ * decoding behind the random-access target(edge), weight(edge) and hasEdge.
+ * The engines read rows through cursor(), which decodes as it goes; edge ids keep
+ * their CSR meaning, in sorted row order. Limited to 2^31 - 1 bytes of edges.
+ */
+public class CompressedGraph implements Graph {
+
+    /** Edges between two skip pointers. */
+    public static final int SKIP = 64;
+
+    private final VertexNames names;
+    private final byte[] data;
+    private final int[] byteOffsets;   // row u is data[byteOffsets[u] .. byteOffsets[u+1])
+    private final int[] edgeOffsets;   // row u holds edge ids edgeOffsets[u] .. edgeOffsets[u+1]-1
+    private final int[] skipPosition;  // byte position of edge k * SKIP
+    private final int[] skipPrevious;  // target before edge k * SKIP in its row, -1 at a row start
+    private final boolean unitWeights;
+
+    private CompressedGraph(VertexNames names, byte[] data, int[] byteOffsets, int[] edgeOffsets,
+                            int[] skipPosition, int[] skipPrevious, boolean unitWeights) {
+        this.names = names;
+        this.data = data;
+        this.byteOffsets = byteOffsets;
+        this.edgeOffsets = edgeOffsets;
+        this.skipPosition = skipPosition;
+        this.skipPrevious = skipPrevious;
+        this.unitWeights = unitWeights;
+    }
+
+    /** Compresses any graph row by row through its cursor; only one row is buffered uncompressed. */
+    public static CompressedGraph copyOf(Graph g) {
+        if (g instanceof CompressedGraph compressed) return compressed;
+        int n = g.vertexCount();
+        long m = g.edgeCount();
+        if (m > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Error: " + m + " edges do not fit a compressed graph");
+        }
+        EdgeCursor cursor = g.cursor();
+        boolean unitWeights = true;
+        for (int u = 0; u < n && unitWeights; u++) {
+            for (cursor.reset(u); cursor.next(); ) {
+                if (cursor.weight() != 1) {
+                    unitWeights = false;
+                    break;
+                }
+            }
+        }
+
+        int[] byteOffsets = new int[n + 1];
+        int[] edgeOffsets = new int[n + 1];
+        int[] skipPosition = new int[(int) ((m + SKIP - 1) / SKIP)];
+        int[] skipPrevious = new int[skipPosition.length];
+        byte[] data = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, m * 2))];
+        long[] row = new long[16];
+        int pos = 0, edge = 0;
+        for (int u = 0; u < n; u++) {
+            int degree = 0;
+            for (cursor.reset(u); cursor.next(); ) {
+                if (degree == row.length) row = Arrays.copyOf(row, degree * 2);
+                // target in the high half, weight flipped to sort as unsigned in the low half
+                row[degree++] = (long) cursor.target() << 32 | (cursor.weight() ^ Integer.MIN_VALUE) & 0xffffffffL;
+            }
+            Arrays.sort(row, 0, degree);
+            int previous = -1;
+            for (int i = 0; i < degree; i++, edge++) {
+                if ((long) pos + 10 > data.length) {
+                    if (data.length == Integer.MAX_VALUE - 8) {
+                        throw new IllegalArgumentException("Error: " + m + " edges exceed 2^31 compressed bytes");
+                    }
+                    data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8, data.length * 2L));
+                }
+                int v = (int) (row[i] >>> 32);
+                if (edge % SKIP == 0) {
+                    skipPosition[edge / SKIP] = pos;
+                    skipPrevious[edge / SKIP] = previous;
+                }
+                pos = putVarint(data, pos, previous < 0 ? zigzag(v - u) : v - previous);
+                if (!unitWeights) pos = putVarint(data, pos, zigzag((int) row[i] ^ Integer.MIN_VALUE));
+                previous = v;
+            }
+            byteOffsets[u + 1] = pos;
+            edgeOffsets[u + 1] = edge;
+        }
+        return new CompressedGraph(g.names(), Arrays.copyOf(data, pos), byteOffsets, edgeOffsets,
+                skipPosition, skipPrevious, unitWeights);
+    }
+
+    public static CompressedGraph build(VertexNames names, EdgeSource edges) {
+        return copyOf(CsrGraph.build(names, edges));
+    }
+
+    // --- Varints ---
+
+    private static int zigzag(int x) {
+        return x << 1 ^ x >> 31;
+    }
+
+    private static int unzigzag(int x) {
+        return x >>> 1 ^ -(x & 1);
+    }
+
+    private static int varintLength(int x) {
+        return x == 0 ? 1 : (38 - Integer.numberOfLeadingZeros(x)) / 7;
+    }
+
+    // Writes x (read as unsigned) at data[pos], returns the position after it
+    private static int putVarint(byte[] data, int pos, int x) {
+        while ((x & ~0x7f) != 0) {
+            data[pos++] = (byte) (x | 0x80);
+            x >>>= 7;
+        }
+        data[pos++] = (byte) x;
+        return pos;
+    }
+
+    /**
+     * Decoder over one row. The state packs the byte position (high half) and the
+     * previous target (low half, -1 before the first edge), so a DFS frame costs
+     * one long, as with the CSR edge id.
+     */
+    private final class Cursor implements EdgeCursor {
+        private int u, pos, end, previous, target, weight = 1;
+
+        @Override
+        public void reset(int u) {
+            this.u = u;
+            pos = byteOffsets[u];
+            end = byteOffsets[u + 1];
+            previous = -1;
+        }
+
+        @Override
+        public boolean next() {
+            if (pos >= end) return false;
+            int x = readVarint();
+            target = previous < 0 ? u + unzigzag(x) : previous + x;
+            if (!unitWeights) weight = unzigzag(readVarint());
+            previous = target;
+            return true;
+        }
+
+        private int readVarint() {
+            byte b = data[pos++];
+            if (b >= 0) return b;
+            int x = b & 0x7f;
+            for (int shift = 7; ; shift += 7) {
+                b = data[pos++];
+                x |= (b & 0x7f) << shift;
+                if (b >= 0) return x;
+            }
+        }
+
+        @Override
+        public int target() {
+            return target;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+
+        @Override
+        public long state() {
+            return (long) pos << 32 | previous & 0xffffffffL;
+        }
+
+        @Override
+        public void restore(int u, long state) {
+            this.u = u;
+            pos = (int) (state >>> 32);
+            end = byteOffsets[u + 1];
+            previous = (int) state;
+        }
+
+        // Positions the cursor just before edge id `edge` of row u, starting at the nearest skip pointer
+        void seek(int u, long edge) {
+            reset(u);
+            long e = edgeOffsets[u];
+            int k = (int) (edge / SKIP);
+            if ((long) k * SKIP > e) {
+                e = (long) k * SKIP;
+                pos = skipPosition[k];
+                previous = skipPrevious[k];
+            }
+            for (; e < edge; e++) next();
+        }
+    }
+
+    @Override
+    public EdgeCursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public int vertexCount() {
+        return edgeOffsets.length - 1;
+    }
+
+    @Override
+    public long edgeCount() {
+        return edgeOffsets[edgeOffsets.length - 1];
+    }
+
+    @Override
+    public long edgeStart(int u) {
+        return edgeOffsets[u];
+    }
+
+    @Override
+    public long edgeEnd(int u) {
+        return edgeOffsets[u + 1];
+    }
+
+    /** Decodes at most SKIP edges; engines should prefer cursor(). */
+    @Override
+    public int target(long edge) {
+        Cursor cursor = new Cursor();
+        cursor.seek(rowOfEdge(edge), edge);
+        cursor.next();
+        return cursor.target;
+    }
+
+    @Override
+    public int weight(long edge) {
+        if (unitWeights) return 1;
+        Cursor cursor = new Cursor();
+        cursor.seek(rowOfEdge(edge), edge);
+        cursor.next();
+        return cursor.weight;
+    }
+
+    /** Edge u -> v test: binary search over the row's skip pointers, then at most SKIP decodes. */
+    public boolean hasEdge(int u, int v) {
+        Cursor cursor = new Cursor();
+        cursor.reset(u);
+        // skip pointers strictly inside the row: their previous target belongs to row u
+        int lo = edgeOffsets[u] / SKIP + 1, hi = (edgeOffsets[u + 1] - 1) / SKIP;
+        int from = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (skipPrevious[mid] < v) {
+                from = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        if (from >= 0) {
+            cursor.pos = skipPosition[from];
+            cursor.previous = skipPrevious[from];
+        }
+        while (cursor.next()) {
+            if (cursor.target >= v) return cursor.target == v;
+        }
+        return false;
+    }
+
+    // Row that holds edge: the last u with edgeOffsets[u] <= edge
+    private int rowOfEdge(long edge) {
+        int lo = 0, hi = vertexCount() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (edgeOffsets[mid] <= edge) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    @Override
+    public VertexNames names() {
+        return names;
+    }
+
+    @Override
+    public EdgeSource edges() {
+        return consumer -> {
+            Cursor cursor = new Cursor();
+            for (int u = 0; u < vertexCount(); u++) {
+                for (cursor.reset(u); cursor.next(); ) consumer.accept(u, cursor.target, cursor.weight);
+            }
+        };
+    }
+
+    /**
+     * Two passes straight from the encoded rows: the first sizes every reversed row
+     * (its degree and encoded bytes), the second writes it. Sources come in
+     * increasing order, and parallel edges in increasing weight, so the reversed
+     * rows are already sorted and nothing is decompressed into CSR arrays.
+     */
+    @Override
+    public CompressedGraph transpose() {
+        int n = vertexCount();
+        int m = (int) edgeCount();
+        int[] reversedBytes = new int[n + 1];
+        int[] reversedEdges = new int[n + 1];
+        int[] last = new int[n];
+        Arrays.fill(last, -1);
+        Cursor cursor = new Cursor();
+        long total = 0;
+        for (int u = 0; u < n; u++) {
+            for (cursor.reset(u); cursor.next(); ) {
+                int v = cursor.target;
+                int bytes = varintLength(last[v] < 0 ? zigzag(u - v) : u - last[v])
+                        + (unitWeights ? 0 : varintLength(zigzag(cursor.weight)));
+                reversedBytes[v + 1] += bytes;
+                reversedEdges[v + 1]++;
+                last[v] = u;
+                total += bytes;
+            }
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Error: transpose of " + m + " edges exceeds 2^31 compressed bytes");
+        }
+        for (int v = 0; v < n; v++) {
+            reversedBytes[v + 1] += reversedBytes[v];
+            reversedEdges[v + 1] += reversedEdges[v];
+        }
+
+        byte[] reversed = new byte[(int) total];
+        int[] skipPositionT = new int[skipPosition.length];
+        int[] skipPreviousT = new int[skipPosition.length];
+        int[] nextByte = Arrays.copyOf(reversedBytes, n);
+        int[] nextEdge = Arrays.copyOf(reversedEdges, n);
+        Arrays.fill(last, -1);
+        for (int u = 0; u < n; u++) {
+            for (cursor.reset(u); cursor.next(); ) {
+                int v = cursor.target;
+                int edge = nextEdge[v]++;
+                int pos = nextByte[v];
+                if (edge % SKIP == 0) {
+                    skipPositionT[edge / SKIP] = pos;
+                    skipPreviousT[edge / SKIP] = last[v];
+                }
+                pos = putVarint(reversed, pos, last[v] < 0 ? zigzag(u - v) : u - last[v]);
+                if (!unitWeights) pos = putVarint(reversed, pos, zigzag(cursor.weight));
+                nextByte[v] = pos;
+                last[v] = u;
+            }
+        }
+        return new CompressedGraph(names, reversed, reversedBytes, reversedEdges, skipPositionT, skipPreviousT, unitWeights);
+    }
+
+    /** Encoded edge bytes only, without offsets or skip pointers. */
+    public long dataBytes() {
+        return data.length;
+    }
+
+    /** Retained size of the encoded rows, both offset arrays and the skip pointers (names excluded). */
+    public long footprintBytes() {
+        return MemoryFootprint.primitiveArray(data.length, 1)
+                + 2 * MemoryFootprint.primitiveArray(edgeOffsets.length, 4)
+                + 2 * MemoryFootprint.primitiveArray(skipPosition.length, 4);
+    }
+}
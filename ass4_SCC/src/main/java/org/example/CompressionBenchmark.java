@@ -0,0 +1,101 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * CompressedGraph against CsrGraph: bytes per edge, compression ratio, and the
+ * time of every engine that reads rows through EdgeCursor (Kosaraju with its
+ * transpose, Kahn and the DAG path sweep on the DAG variant, and a plain scan of
+ * all edges) on both backends. Checks that both give the same components, order
+ * and distances. Gaps are small only when ids have locality, hence the
+ * BFS-relabeled copy of the random graph.
+ * Usage: CompressionBenchmark [vertices edges] (default 1,000,000 x 5,000,000)
+ */
+public class CompressionBenchmark {
+
+    private static final int ROUNDS = 3;
+
+    private interface Task {
+        Object run();
+    }
+
+    private static double best(Task task) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        return best;
+    }
+
+    // One pass over every edge through the cursor
+    private static long scan(Graph g) {
+        long sum = 0;
+        EdgeCursor cursor = g.cursor();
+        for (int u = 0; u < g.vertexCount(); u++) {
+            for (cursor.reset(u); cursor.next(); ) sum += cursor.target() + cursor.weight();
+        }
+        return sum;
+    }
+
+    private static void run(String label, CsrGraph csr) {
+        // DAG variant: only the edges that go up in vertex id, so vertex 0 reaches most of it
+        CsrGraph csrDag = CsrGraph.build(csr.names(), consumer -> csr.edges().forEachEdge((u, v, w) -> {
+            if (u < v) consumer.accept(u, v, w);
+        }));
+        CompressedGraph compressed = CompressedGraph.copyOf(csr);
+        CompressedGraph compressedDag = CompressedGraph.copyOf(csrDag);
+        int[] rank = TieBreak.INPUT_ORDER.ranks(csr.names());
+        int[] order = new KahnEngine().sort(csrDag, rank);
+
+        boolean same = Arrays.equals(new SccEngine().run(csr).canonicalize(csr, rank).compOf(),
+                new SccEngine().run(compressed).canonicalize(compressed, rank).compOf())
+                && Arrays.equals(order, new KahnEngine().sort(compressedDag, rank))
+                && Arrays.equals(new DagPathEngine().pathInDAG(csrDag, order, 0, true).dist,
+                new DagPathEngine().pathInDAG(compressedDag, order, 0, true).dist)
+                && scan(csr) == scan(compressed);
+
+        long m = csr.edgeCount();
+        double csrBytes = (double) csr.footprintBytes() / m;
+        double compressedBytes = (double) compressed.footprintBytes() / m;
+        double sccCsr = best(() -> new SccEngine().run(csr));
+        double sccCompressed = best(() -> new SccEngine().run(compressed));
+        double kahnCsr = best(() -> new KahnEngine().sort(csrDag, rank));
+        double kahnCompressed = best(() -> new KahnEngine().sort(compressedDag, rank));
+        double pathCsr = best(() -> new DagPathEngine().pathInDAG(csrDag, order, 0, true));
+        double pathCompressed = best(() -> new DagPathEngine().pathInDAG(compressedDag, order, 0, true));
+        double scanCsr = best(() -> scan(csr));
+        double scanCompressed = best(() -> scan(compressed));
+        System.out.printf("%-16s %9d | %5.2f %5.2f %5.2fx | %8.2f %8.2f | %7.2f %7.2f | %7.2f %7.2f | %6.0f %6.0f | %s\n",
+                label, m, csrBytes, compressedBytes, csrBytes / compressedBytes, sccCsr, sccCompressed,
+                kahnCsr, kahnCompressed, pathCsr, pathCompressed, m / scanCsr / 1e3, m / scanCompressed / 1e3,
+                same ? "same" : "DIFFERENT");
+    }
+
+    public static void main(String[] args) {
+        int n = args.length >= 2 ? Integer.parseInt(args[0]) : 1_000_000;
+        int m = args.length >= 2 ? Integer.parseInt(args[1]) : 5_000_000;
+        System.out.printf("--- Compressed vs CSR (best of %d, ms; bytes per edge incl. offsets; scan in M edges/s) ---\n", ROUNDS);
+        System.out.printf("%-16s %9s | %18s | %17s | %15s | %15s | %13s |\n", "graph", "edges",
+                "B/edge csr / gap", "SCC  csr / gap", "Kahn csr / gap", "Path csr / gap", "scan csr/gap");
+        try {
+            for (String dataset : new String[] {"small2.json", "medium2.json", "large2.json"}) {
+                run(dataset, GraphLoader.loadJson(dataset));
+            }
+            int[][] edges = SyntheticGraphs.randomEdges(n, m, false, 44);
+            CsrGraph random = GraphLoader.fromEdges(n, edges);
+            run("random", random);
+            for (int[] edge : edges) edge[2] = 1;
+            CsrGraph unit = GraphLoader.fromEdges(n, edges);
+            run("random, w=1", unit);
+            run("random, w=1, BFS", VertexOrdering.relabel(unit, VertexOrdering.Strategy.BFS).graph);
+            run("layered DAG", GraphLoader.fromEdges(n, SyntheticGraphs.layeredDag(100, n / 100, m / n, 44)));
+        } catch (RuntimeException e) {
+            System.err.println("\nA critical error occurred: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("\nAn unexpected error occurred during execution.");
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Condensation DAG of a graph: one vertex per SCC ("SCC 1".."SCC k"), one edge
+ * per distinct pair of components joined by an original edge. The edge weight
+ * is the smallest weight among the original edges it stands for, and each
+ * row is sorted by successor id.
+ */
+public class Condensation {
+
+    public static CsrGraph build(Graph g, SccEngine scc) {
+        int k = scc.componentCount();
+        int[] compOf = scc.compOf();
+        int[] componentOffsets = scc.componentOffsets();
+        int[] componentMembers = scc.componentMembers();
+
+        // lastSeen[cv] == cu marks cv as already a successor of cu; position holds its slot
+        int[] lastSeen = new int[k];
+        Arrays.fill(lastSeen, -1);
+        int[] position = new int[k];
+
+        int[] offsets = new int[k + 1];
+        IntList targets = new IntList();
+        IntList weights = new IntList();
+        EdgeCursor cursor = g.cursor();
+        for (int cu = 0; cu < k; cu++) {
+            for (int i = componentOffsets[cu]; i < componentOffsets[cu + 1]; i++) {
+                int u = componentMembers[i];
+                for (cursor.reset(u); cursor.next(); ) {
+                    int cv = compOf[cursor.target()];
+                    if (cv == cu) continue;
+                    int w = cursor.weight();
+                    if (lastSeen[cv] == cu) {
+                        weights.set(position[cv], Math.min(weights.get(position[cv]), w));
+                        continue;
+                    }
+                    lastSeen[cv] = cu;
+                    position[cv] = targets.size();
+                    targets.add(cv);
+                    weights.add(w);
+                }
+            }
+            offsets[cu + 1] = targets.size();
+            sortRow(targets.items(), weights.items(), offsets[cu], targets.size());
+        }
+        return new CsrGraph(VertexNames.numbered("SCC ", k), offsets, targets.toArray(), weights.toArray());
+    }
+
+    // Successors in increasing component id, so the output does not depend on edge order
+    private static void sortRow(int[] targets, int[] weights, int from, int to) {
+        if (to - from < 2) return;
+        long[] packed = new long[to - from];
+        for (int i = from; i < to; i++) packed[i - from] = ((long) targets[i] << 32) | (weights[i] & 0xFFFFFFFFL);
+        Arrays.sort(packed);
+        for (int i = from; i < to; i++) {
+            targets[i] = (int) (packed[i - from] >>> 32);
+            weights[i] = (int) packed[i - from];
+        }
+    }
+}
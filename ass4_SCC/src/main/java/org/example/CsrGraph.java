@@ -0,0 +1,231 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * On-heap CSR graph: offsets[u]..offsets[u+1]-1 index targets and weights.
+ * Limited to 2^31 - 1 edges by Java array indexing; see OffHeapCsrGraph beyond that.
+ */
+public class CsrGraph implements Graph {
+
+    // Below this many edges transpose() stays sequential: the fork/join overhead would dominate
+    private static final int PARALLEL_EDGES = 1 << 16;
+
+    private final VertexNames names;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    public CsrGraph(VertexNames names, int[] offsets, int[] targets, int[] weights) {
+        this.names = names;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /** Counting-sort build: one pass for degrees, one pass to scatter the edges. */
+    public static CsrGraph build(VertexNames names, EdgeSource edges) {
+        int n = names.size();
+        int[] offsets = new int[n + 1];
+        long[] m = new long[1];
+        edges.forEachEdge((u, v, w) -> {
+            offsets[u + 1]++;
+            m[0]++;
+        });
+        if (m[0] > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Error: " + m[0] + " edges do not fit an on-heap CSR graph");
+        }
+        for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+
+        int[] targets = new int[(int) m[0]];
+        int[] weights = new int[(int) m[0]];
+        int[] cursor = new int[n];
+        System.arraycopy(offsets, 0, cursor, 0, n);
+        edges.forEachEdge((u, v, w) -> {
+            int pos = cursor[u]++;
+            targets[pos] = v;
+            weights[pos] = w;
+        });
+        return new CsrGraph(names, offsets, targets, weights);
+    }
+
+    /**
+     * Parallel counting-sort build from flat edge arrays: atomic degree histogram,
+     * prefix sum, atomic scatter of edge indices, then every row is sorted back
+     * into input order, so the result equals build() on the same edges.
+     */
+    public static CsrGraph buildParallel(VertexNames names, int[] us, int[] vs, int[] ws) {
+        int n = names.size();
+        int m = us.length;
+        AtomicIntegerArray degree = new AtomicIntegerArray(n);
+        IntStream.range(0, m).parallel().forEach(i -> degree.getAndIncrement(us[i]));
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) offsets[u + 1] = offsets[u] + degree.get(u);
+
+        // degree becomes the scatter cursor of every row
+        for (int u = 0; u < n; u++) degree.set(u, offsets[u]);
+        int[] edgeIndex = new int[m];
+        IntStream.range(0, m).parallel().forEach(i -> edgeIndex[degree.getAndIncrement(us[i])] = i);
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        IntStream.range(0, n).parallel().forEach(u -> {
+            if (offsets[u + 1] - offsets[u] > 1) Arrays.sort(edgeIndex, offsets[u], offsets[u + 1]);
+            for (int pos = offsets[u]; pos < offsets[u + 1]; pos++) {
+                targets[pos] = vs[edgeIndex[pos]];
+                weights[pos] = ws[edgeIndex[pos]];
+            }
+        });
+        return new CsrGraph(names, offsets, targets, weights);
+    }
+
+    public static CsrGraph copyOf(Graph g) {
+        return g instanceof CsrGraph csr ? csr : build(g.names(), g.edges());
+    }
+
+    @Override
+    public int vertexCount() {
+        return offsets.length - 1;
+    }
+
+    @Override
+    public long edgeCount() {
+        return targets.length;
+    }
+
+    @Override
+    public long edgeStart(int u) {
+        return offsets[u];
+    }
+
+    @Override
+    public long edgeEnd(int u) {
+        return offsets[u + 1];
+    }
+
+    @Override
+    public int target(long edge) {
+        return targets[(int) edge];
+    }
+
+    @Override
+    public int weight(long edge) {
+        return weights[(int) edge];
+    }
+
+    /** Cursor straight over the CSR arrays; the state is the current edge index. */
+    @Override
+    public EdgeCursor cursor() {
+        return new EdgeCursor() {
+            private int edge, end;
+
+            @Override
+            public void reset(int u) {
+                edge = offsets[u] - 1;
+                end = offsets[u + 1];
+            }
+
+            @Override
+            public boolean next() {
+                return ++edge < end;
+            }
+
+            @Override
+            public int target() {
+                return targets[edge];
+            }
+
+            @Override
+            public int weight() {
+                return weights[edge];
+            }
+
+            @Override
+            public long state() {
+                return edge;
+            }
+
+            @Override
+            public void restore(int u, long state) {
+                edge = (int) state;
+                end = offsets[u + 1];
+            }
+        };
+    }
+
+    @Override
+    public VertexNames names() {
+        return names;
+    }
+
+    /**
+     * Parallel counting-sort transpose. The source rows are cut into blocks of about
+     * equal edge count; each block counts its in-degrees into its own histogram, a
+     * prefix sum over (vertex, block) gives every block a private cursor per reversed
+     * row, and the blocks then scatter their reversed edges without atomics. Within a
+     * row, sources keep increasing order and parallel edges their input order, so the
+     * result equals the sequential build. Weights travel with their edges.
+     */
+    @Override
+    public CsrGraph transpose() {
+        int n = vertexCount();
+        int m = targets.length;
+        // One histogram per block: never more counters than edges
+        int blocks = Math.min(ForkJoinPool.getCommonPoolParallelism(), m / Math.max(n, 1));
+        if (m < PARALLEL_EDGES || blocks < 2) return build(names, edges().reversed());
+
+        int[] blockStart = new int[blocks + 1];
+        for (int b = 1; b < blocks; b++) blockStart[b] = rowOfEdge((long) m * b / blocks);
+        blockStart[blocks] = n;
+        int[][] cursor = new int[blocks][];
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            int[] count = new int[n];
+            for (int e = offsets[blockStart[b]]; e < offsets[blockStart[b + 1]]; e++) count[targets[e]]++;
+            cursor[b] = count;
+        });
+
+        int[] reversedOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int position = reversedOffsets[v];
+            for (int b = 0; b < blocks; b++) {
+                int count = cursor[b][v];
+                cursor[b][v] = position;
+                position += count;
+            }
+            reversedOffsets[v + 1] = position;
+        }
+
+        int[] reversedTargets = new int[m];
+        int[] reversedWeights = new int[m];
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            int[] next = cursor[b];
+            for (int u = blockStart[b]; u < blockStart[b + 1]; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int pos = next[targets[e]]++;
+                    reversedTargets[pos] = u;
+                    reversedWeights[pos] = weights[e];
+                }
+            }
+        });
+        return new CsrGraph(names, reversedOffsets, reversedTargets, reversedWeights);
+    }
+
+    // Row that holds edge: the last u with offsets[u] <= edge
+    private int rowOfEdge(long edge) {
+        int lo = 0, hi = vertexCount() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (offsets[mid] <= edge) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    /** Retained size of the CSR arrays (names excluded). */
+    public long footprintBytes() {
+        return MemoryFootprint.primitiveArray(offsets.length, 4)
+                + 2 * MemoryFootprint.primitiveArray(targets.length, 4);
+    }
+}
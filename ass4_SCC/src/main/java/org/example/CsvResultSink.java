@@ -0,0 +1,64 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * One CSV row per record: record type first, then the fields.
+ *   component,SCC 1,2,V1;V4
+ *   edge,SCC 1,SCC 2
+ *   order,0,SCC 1
+ *   task,0,V1
+ *   distance,shortest,V1,0.0
+ *   path,shortest,V1;V2;V6
+ * Vertex names in the datasets contain no commas or semicolons, so no quoting is done.
+ */
+class CsvResultSink extends WriterResultSink {
+
+    CsvResultSink(Writer out, boolean console, VertexNames vertices, VertexNames components) throws IOException {
+        super(out, console, vertices, components);
+        out.write("type,key,value,detail\n");
+    }
+
+    @Override
+    public void component(int c, int[] members, int from, int to) throws IOException {
+        out.write("component," + components.nameOf(c) + "," + (to - from) + ",");
+        for (int i = from; i < to; i++) {
+            if (i > from) out.write(';');
+            out.write(vertices.nameOf(members[i]));
+        }
+        out.write('\n');
+    }
+
+    @Override
+    public void componentEdges(int c, Graph dag) throws IOException {
+        for (long e = dag.edgeStart(c), end = dag.edgeEnd(c); e < end; e++) {
+            out.write("edge," + components.nameOf(c) + "," + components.nameOf(dag.target(e)) + "\n");
+        }
+    }
+
+    @Override
+    public void componentOrder(int position, int c) throws IOException {
+        out.write("order," + position + "," + components.nameOf(c) + "\n");
+    }
+
+    @Override
+    public void taskOrder(int position, int v) throws IOException {
+        out.write("task," + position + "," + vertices.nameOf(v) + "\n");
+    }
+
+    @Override
+    public void distance(String run, int v, double dist) throws IOException {
+        out.write("distance," + run + "," + vertices.nameOf(v) + "," + (Double.isInfinite(dist) ? "" : dist) + "\n");
+    }
+
+    @Override
+    public void path(String run, int[] path) throws IOException {
+        out.write("path," + run + ",");
+        for (int i = 0; i < path.length; i++) {
+            if (i > 0) out.write(';');
+            out.write(vertices.nameOf(path[i]));
+        }
+        out.write('\n');
+    }
+}
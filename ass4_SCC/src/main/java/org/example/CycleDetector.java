@@ -0,0 +1,175 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Witness cycles for the non-trivial SCCs of a graph (more than one vertex, or a
+ * self-loop), found after SccEngine has run: every search is a BFS that never
+ * leaves its component (compOf), so no SCC pass is repeated and components are
+ * processed in parallel, each with scratch arrays sized to the component. A
+ * self-loop on any member is already a shortest cycle (length 1), so the scan
+ * that counts the internal edges looks for one before any BFS runs.
+ *   - ANY: one BFS from the component's first member; the first edge back to it
+ *     closes the shortest cycle through that vertex.
+ *   - SHORTEST: the same from up to maxStarts members, keeping the shortest cycle
+ *     (exact when maxStarts covers the whole component).
+ * Each entry also carries the component size and its internal edge density.
+ */
+public class CycleDetector {
+
+    public enum Mode { ANY, SHORTEST }
+
+    /** One entry per non-trivial component, in component id order. */
+    public static class Report {
+        public final int[] components;
+        public final int[] sizes;
+        public final long[] internalEdges;
+        public final int[] cycleOffsets;  // cycle i is cycleVertices[cycleOffsets[i] .. cycleOffsets[i + 1])
+        public final int[] cycleVertices; // v0 -> v1 -> ... -> v0
+
+        public Report(int[] components, int[] sizes, long[] internalEdges, int[] cycleOffsets, int[] cycleVertices) {
+            this.components = components;
+            this.sizes = sizes;
+            this.internalEdges = internalEdges;
+            this.cycleOffsets = cycleOffsets;
+            this.cycleVertices = cycleVertices;
+        }
+
+        /** Report of an acyclic graph. */
+        public static Report none() {
+            return new Report(new int[0], new int[0], new long[0], new int[1], new int[0]);
+        }
+
+        public int cycleCount() {
+            return components.length;
+        }
+
+        public int[] cycle(int i) {
+            return Arrays.copyOfRange(cycleVertices, cycleOffsets[i], cycleOffsets[i + 1]);
+        }
+
+        /** Internal edges over the size * (size - 1) possible ones (1.0 for a self-loop). */
+        public double density(int i) {
+            long possible = (long) sizes[i] * (sizes[i] - 1);
+            return possible == 0 ? 1.0 : (double) internalEdges[i] / possible;
+        }
+
+        /** Prints up to limit cycles as "V1 -> V4 -> V1" with their component statistics. */
+        public void print(VertexNames names, int limit) {
+            System.out.printf("\n--- Cycle Report (%d cyclic components) ---\n", cycleCount());
+            for (int i = 0; i < Math.min(limit, cycleCount()); i++) {
+                StringBuilder line = new StringBuilder();
+                for (int j = cycleOffsets[i]; j < cycleOffsets[i + 1]; j++) line.append(names.nameOf(cycleVertices[j])).append(" -> ");
+                line.append(names.nameOf(cycleVertices[cycleOffsets[i]]));
+                System.out.printf("  SCC %d: size %d, %d internal edges, density %.3f, cycle of length %d: %s\n",
+                        components[i] + 1, sizes[i], internalEdges[i], density(i),
+                        cycleOffsets[i + 1] - cycleOffsets[i], line);
+            }
+            if (cycleCount() > limit) System.out.printf("  ... %d more\n", cycleCount() - limit);
+            System.out.println("------------------------------");
+        }
+    }
+
+    // Witness of one component before the results are packed
+    private record Witness(int component, int size, long internalEdges, int[] cycle) {}
+
+    public static Report find(Graph g, SccEngine scc, Mode mode, int maxStarts) {
+        int[] compOf = scc.compOf();
+        int[] offsets = scc.componentOffsets();
+        int[] members = scc.componentMembers();
+
+        // Position of every vertex inside its component: components own disjoint slots
+        int[] local = new int[compOf.length];
+        IntStream.range(0, scc.componentCount()).parallel().forEach(c -> {
+            for (int i = offsets[c]; i < offsets[c + 1]; i++) local[members[i]] = i - offsets[c];
+        });
+
+        Witness[] witnesses = IntStream.range(0, scc.componentCount()).parallel()
+                .mapToObj(c -> witness(g, compOf, local, members, offsets[c], offsets[c + 1], c,
+                        mode == Mode.ANY ? 1 : maxStarts))
+                .filter(w -> w != null)
+                .toArray(Witness[]::new);
+
+        int k = witnesses.length;
+        int[] components = new int[k], sizes = new int[k], cycleOffsets = new int[k + 1];
+        long[] internalEdges = new long[k];
+        for (int i = 0; i < k; i++) {
+            components[i] = witnesses[i].component();
+            sizes[i] = witnesses[i].size();
+            internalEdges[i] = witnesses[i].internalEdges();
+            cycleOffsets[i + 1] = cycleOffsets[i] + witnesses[i].cycle().length;
+        }
+        int[] cycleVertices = new int[cycleOffsets[k]];
+        for (int i = 0; i < k; i++) {
+            System.arraycopy(witnesses[i].cycle(), 0, cycleVertices, cycleOffsets[i], witnesses[i].cycle().length);
+        }
+        return new Report(components, sizes, internalEdges, cycleOffsets, cycleVertices);
+    }
+
+    public static Report find(Graph g, SccEngine scc) {
+        return find(g, scc, Mode.ANY, 1);
+    }
+
+    // Null for an acyclic singleton; a self-loop of the component if it has one; otherwise
+    // the shortest cycle over the tried start vertices
+    private static Witness witness(Graph g, int[] compOf, int[] local, int[] members,
+                                   int from, int to, int c, int starts) {
+        int size = to - from;
+        long internal = 0;
+        int selfLoop = -1; // first member (in member order) with an edge to itself
+        for (int i = from; i < to; i++) {
+            int u = members[i];
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                int v = g.target(e);
+                if (compOf[v] != c) continue;
+                internal++;
+                if (v == u && selfLoop == -1) selfLoop = u;
+            }
+        }
+        if (selfLoop != -1) return new Witness(c, size, internal, new int[] {selfLoop});
+        if (size == 1) return null;
+
+        // BFS scratch over local positions; stamp == start + 1 marks the current search
+        int[] parent = new int[size];
+        int[] stamp = new int[size];
+        int[] queue = new int[size];
+        int[] best = null;
+        for (int t = 0; t < Math.min(starts, size) && (best == null || best.length > 2); t++) {
+            int s = members[from + t];
+            int head = 0, tail = 0;
+            queue[tail++] = s;
+            stamp[local[s]] = t + 1;
+            parent[local[s]] = -1;
+            int closing = -1;
+            int limit = best == null ? Integer.MAX_VALUE : best.length - 1; // longer paths cannot improve
+            for (int depth = 0; head < tail && closing == -1 && depth < limit; depth++) {
+                int levelEnd = tail;
+                while (head < levelEnd && closing == -1) {
+                    int u = queue[head++];
+                    for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                        int v = g.target(e);
+                        if (compOf[v] != c) continue;
+                        if (v == s) {
+                            closing = u;
+                            break;
+                        }
+                        if (stamp[local[v]] != t + 1) {
+                            stamp[local[v]] = t + 1;
+                            parent[local[v]] = u;
+                            queue[tail++] = v;
+                        }
+                    }
+                }
+            }
+            if (closing == -1) continue;
+            int length = 0;
+            for (int v = closing; v != -1; v = parent[local[v]]) length++;
+            if (best != null && length >= best.length) continue;
+            int[] cycle = new int[length];
+            for (int v = closing; v != -1; v = parent[local[v]]) cycle[--length] = v;
+            best = cycle;
+        }
+        return new Witness(c, size, internal, best);
+    }
+}
@@ -0,0 +1,207 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Single-source shortest or longest paths on a DAG over the Graph interface,
+ * relaxing vertices in topological order (the int version of DagPaths.pathInDAG).
+ */
+public class DagPathEngine {
+
+    private long relaxationCount = 0;
+    private long pruningEdgeCount = 0; // reverse edges read by pathToTarget's backward search
+
+    // Point-to-point scratch: vertices marked with the current stamp can reach the target
+    private int[] mark;
+    private IntRingQueue queue;
+    private int markStamp;
+
+    /** Distances and predecessors of one run; unreachable vertices keep +/-Infinity and pred -1. */
+    public static class Result {
+        public final int source;
+        public final boolean shortest;
+        public final double[] dist;
+        public final int[] pred;
+
+        public Result(int source, boolean shortest, double[] dist, int[] pred) {
+            this.source = source;
+            this.shortest = shortest;
+            this.dist = dist;
+            this.pred = pred;
+        }
+
+        public boolean reachable(int v) {
+            return dist[v] != (shortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+        }
+
+        /** Vertices from source to target, or an empty array if target is unreachable. */
+        public int[] path(int target) {
+            if (!reachable(target)) return new int[0];
+            int length = 0;
+            for (int v = target; v != -1; v = pred[v]) length++;
+            int[] path = new int[length];
+            for (int v = target; v != -1; v = pred[v]) path[--length] = v;
+            return path;
+        }
+    }
+
+    public Result pathInDAG(Graph g, int[] topoOrder, int source, boolean findShortest) {
+        int n = g.vertexCount();
+        double initialDist = findShortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        double[] dist = new double[n];
+        int[] pred = new int[n];
+        Arrays.fill(dist, initialDist);
+        Arrays.fill(pred, -1);
+        dist[source] = 0.0;
+        EdgeCursor cursor = g.cursor();
+
+        for (int u : topoOrder) {
+            double currentDist = dist[u];
+            if (currentDist == initialDist) continue;
+            for (cursor.reset(u); cursor.next(); ) {
+                relaxationCount++;
+                int v = cursor.target();
+                double newDist = currentDist + cursor.weight();
+                if (findShortest ? newDist < dist[v] : newDist > dist[v]) {
+                    dist[v] = newDist;
+                    pred[v] = u;
+                }
+            }
+        }
+        return new Result(source, findShortest, dist, pred);
+    }
+
+    /**
+     * pathInDAG for a graph relabeled in topological order (VertexOrdering.Strategy.TOPOLOGICAL):
+     * every edge goes to a higher id, so the sweep is a sequential pass over the CSR arrays
+     * starting at the source; no topoOrder array is read.
+     */
+    public Result pathInTopologicalDag(Graph g, int source, boolean findShortest) {
+        int n = g.vertexCount();
+        double initialDist = findShortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        double[] dist = new double[n];
+        int[] pred = new int[n];
+        Arrays.fill(dist, initialDist);
+        Arrays.fill(pred, -1);
+        dist[source] = 0.0;
+        EdgeCursor cursor = g.cursor();
+
+        for (int u = source; u < n; u++) {
+            double currentDist = dist[u];
+            if (currentDist == initialDist) continue;
+            for (cursor.reset(u); cursor.next(); ) {
+                relaxationCount++;
+                int v = cursor.target();
+                double newDist = currentDist + cursor.weight();
+                if (findShortest ? newDist < dist[v] : newDist > dist[v]) {
+                    dist[v] = newDist;
+                    pred[v] = u;
+                }
+            }
+        }
+        return new Result(source, findShortest, dist, pred);
+    }
+
+    /**
+     * Point-to-point query: only vertices between source and target in topological
+     * order that can also reach target (backward BFS over the reverse CSR) are
+     * relaxed, and only edges into that set. Distances off that set stay unset.
+     * The reverse edges the search reads are counted in pruningEdgeCount, not as relaxations.
+     *
+     * @param reverse g.transpose(), built once and shared by all queries
+     * @param topoPos position of every vertex in topoOrder
+     */
+    public Result pathToTarget(Graph g, Graph reverse, int[] topoOrder, int[] topoPos,
+                               int source, int target, boolean findShortest) {
+        int n = g.vertexCount();
+        double initialDist = findShortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        double[] dist = new double[n];
+        int[] pred = new int[n];
+        Arrays.fill(dist, initialDist);
+        Arrays.fill(pred, -1);
+        dist[source] = 0.0;
+        EdgeCursor cursor = g.cursor();
+        int low = topoPos[source], high = topoPos[target];
+        if (low > high) return new Result(source, findShortest, dist, pred);
+
+        // Backward reachability from target, inside the topological window
+        if (mark == null || mark.length != n) {
+            mark = new int[n];
+            queue = new IntRingQueue(n);
+            markStamp = 0;
+        }
+        if (++markStamp == 0) {
+            Arrays.fill(mark, 0);
+            markStamp = 1;
+        }
+        int stamp = markStamp;
+        queue.clear();
+        queue.offer(target);
+        EdgeCursor backward = reverse.cursor();
+        mark[target] = stamp;
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            for (backward.reset(v); backward.next(); ) {
+                pruningEdgeCount++;
+                int u = backward.target();
+                if (mark[u] != stamp && topoPos[u] >= low) {
+                    mark[u] = stamp;
+                    queue.offer(u);
+                }
+            }
+        }
+        if (mark[source] != stamp) return new Result(source, findShortest, dist, pred);
+
+        for (int i = low; i <= high; i++) {
+            int u = topoOrder[i];
+            double currentDist = dist[u];
+            if (mark[u] != stamp || currentDist == initialDist) continue;
+            for (cursor.reset(u); cursor.next(); ) {
+                int v = cursor.target();
+                if (mark[v] != stamp) continue;
+                relaxationCount++;
+                double newDist = currentDist + cursor.weight();
+                if (findShortest ? newDist < dist[v] : newDist > dist[v]) {
+                    dist[v] = newDist;
+                    pred[v] = u;
+                }
+            }
+        }
+        return new Result(source, findShortest, dist, pred);
+    }
+
+    /**
+     * Longest path starting at every vertex, with costs on the vertices (cost[u]
+     * included): the longest-path relaxation of pathInDAG run backwards over
+     * topoOrder, one sweep for all sources. The maximum is the critical path, and
+     * each entry is the "bottom level" that list schedulers rank ready tasks by.
+     */
+    public double[] longestPathFrom(Graph g, int[] topoOrder, double[] cost) {
+        double[] level = new double[g.vertexCount()];
+        EdgeCursor cursor = g.cursor();
+        for (int i = topoOrder.length - 1; i >= 0; i--) {
+            int u = topoOrder[i];
+            double longest = 0;
+            for (cursor.reset(u); cursor.next(); ) {
+                relaxationCount++;
+                longest = Math.max(longest, level[cursor.target()]);
+            }
+            level[u] = cost[u] + longest;
+        }
+        return level;
+    }
+
+    public long relaxationCount() {
+        return relaxationCount;
+    }
+
+    /** Reverse edges read by pathToTarget to find the vertices that reach the target. */
+    public long pruningEdgeCount() {
+        return pruningEdgeCount;
+    }
+
+    public void resetRelaxationCount() {
+        relaxationCount = 0;
+        pruningEdgeCount = 0;
+    }
+}
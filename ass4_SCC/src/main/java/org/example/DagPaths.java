@@ -0,0 +1,317 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Task 1.3: Shortest and Longest Paths in a DAG.
+ * main runs DagPathEngine over the CSR graph in a stable topological order, so
+ * the printed order and the chosen paths never depend on hash order. The
+ * Map/List methods are the original reference pipeline.
+ */
+public class DagPaths {
+
+
+    private static final String GRAPH_FILE_NAME = "small3.json"; // or the path of a .csv/.tsv edge list
+    private static final String SOURCE_NODE = "V1";
+    // Target of the shortest path printout and of the point-to-point queries
+    private static final String TARGET_NODE = "V6";
+
+    // Order of equally ready vertices in the topological order (LEXICOGRAPHIC or INPUT_ORDER)
+    private static final TieBreak TIE_BREAK = TieBreak.LEXICOGRAPHIC;
+
+    // Relabel vertex ids for locality before the passes (BFS, RCM, DEGREE, TOPOLOGICAL); null keeps the input ids.
+    // Names travel with the ids and the tie-break ranks are taken before relabeling, so the output is unchanged.
+    private static final VertexOrdering.Strategy REORDER = null;
+
+    // Cyclic components listed with a witness cycle (shortest over CYCLE_STARTS start vertices) when the graph is not a DAG
+    private static final int CYCLE_STARTS = 8;
+    private static final int CYCLE_REPORT_LIMIT = 10;
+
+    // Result output: TEXT, CSV, JSONL or BINARY; a null file means the console (BINARY needs a file)
+    private static final ResultSink.Format OUTPUT_FORMAT = ResultSink.Format.TEXT;
+    private static final String OUTPUT_FILE = null;
+
+    // Instrumentation Counter of the Map/List reference pipeline below
+    private static long relaxationCount = 0;
+
+
+
+    static class GraphData {
+        public List<String> nodes;
+        public List<List<Object>> edges;
+        public GraphData() {}
+    }
+
+
+    static class Edge {
+        final String destination;
+        final int weight;
+        public Edge(String destination, int weight) {
+            this.destination = destination;
+            this.weight = weight;
+        }
+    }
+
+    // Graph Loading
+
+    private static Map<String, List<Edge>> loadWeightedGraph(Set<String> allNodes) throws Exception {
+        InputStream is = DagPaths.class.getClassLoader().getResourceAsStream(GRAPH_FILE_NAME);
+        if (is == null) throw new RuntimeException("Error: File not found: " + GRAPH_FILE_NAME);
+
+        GraphData data = new ObjectMapper().readValue(new InputStreamReader(is), GraphData.class);
+        return buildWeightedGraph(data, allNodes);
+    }
+
+    static Map<String, List<Edge>> buildWeightedGraph(GraphData data, Set<String> allNodes) {
+        Map<String, List<Edge>> G = new HashMap<>();
+
+        for (String node : data.nodes) {
+            G.put(node, new ArrayList<>());
+            allNodes.add(node);
+        }
+
+        for (List<Object> edge : data.edges) {
+            if (edge.size() == 3) {
+                String u = (String) edge.get(0);
+                String v = (String) edge.get(1);
+                int w = (Integer) edge.get(2);
+                G.computeIfAbsent(u, k -> new ArrayList<>()).add(new Edge(v, w));
+                allNodes.add(u);
+                allNodes.add(v);
+            }
+        }
+        return G;
+    }
+
+    // --- Topological Sort (Prerequisite for Paths) ---
+
+    private static void dfsTopologicalSort(String u, Map<String, List<Edge>> G, Set<String> visited, Stack<String> stack) {
+        visited.add(u);
+        for (Edge edge : G.getOrDefault(u, Collections.emptyList())) {
+            if (!visited.contains(edge.destination)) dfsTopologicalSort(edge.destination, G, visited, stack);
+        }
+        stack.push(u);
+    }
+
+    static List<String> getTopologicalOrder(Map<String, List<Edge>> G, Set<String> allNodes) {
+        Stack<String> stack = new Stack<>();
+        Set<String> visited = new HashSet<>();
+        for (String node : allNodes) if (!visited.contains(node)) dfsTopologicalSort(node, G, visited, stack);
+
+        List<String> sortedOrder = new ArrayList<>();
+        while (!stack.isEmpty()) sortedOrder.add(stack.pop());
+        return sortedOrder;
+    }
+
+    //  Path Calculation
+
+
+    static Map<String, Double> pathInDAG(
+            Map<String, List<Edge>> G, List<String> topoOrder, String source,
+            Map<String, String> predecessorMap, boolean findShortest) {
+
+        Map<String, Double> dist = new HashMap<>();
+        double initialDist = findShortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+
+        for (String node : topoOrder) {
+            dist.put(node, initialDist);
+            predecessorMap.put(node, null);
+        }
+        dist.put(source, 0.0);
+
+        for (String u : topoOrder) {
+            double currentDist = dist.get(u);
+            if (currentDist != initialDist) {
+                for (Edge edge : G.getOrDefault(u, Collections.emptyList())) {
+                    relaxationCount++; // Instrumentation: Relaxation counter
+                    String v = edge.destination;
+                    double newDist = currentDist + edge.weight;
+
+                    // Relaxation step: Min for SSSP, Max for LPSP
+                    if (findShortest ? (newDist < dist.get(v)) : (newDist > dist.get(v))) {
+                        dist.put(v, newDist);
+                        predecessorMap.put(v, u);
+                    }
+                }
+            }
+        }
+        return dist;
+    }
+
+    private static List<String> reconstructPath(String target, String source, Map<String, String> predecessorMap) {
+        LinkedList<String> path = new LinkedList<>();
+        String current = target;
+        while (current != null && !current.equals(source)) {
+            path.addFirst(current);
+            current = predecessorMap.get(current);
+        }
+        if (current != null && current.equals(source)) path.addFirst(source);
+        return path;
+    }
+
+
+    // Main
+
+    public static void main(String[] args) {
+        long startTime = System.nanoTime();
+
+        System.out.println("--- Task 1.3: Shortest and Longest Paths in a DAG ---");
+        System.out.printf("Source Node: %s\n", SOURCE_NODE);
+
+        try {
+            MemoryFootprint footprint = new MemoryFootprint("DAG Paths");
+            footprint.beginPhase("Load");
+            CsrGraph G_weighted = GraphLoader.load(GRAPH_FILE_NAME);
+            int[] rank = TIE_BREAK.ranks(G_weighted.names());
+            if (REORDER != null) {
+                footprint.beginPhase("Reorder");
+                VertexOrdering.Relabeled relabeled = VertexOrdering.relabel(G_weighted, REORDER);
+                G_weighted = relabeled.graph;
+                rank = relabeled.carry(rank);
+            }
+            int source = G_weighted.names().idOf(SOURCE_NODE);
+            if (source == -1) throw new RuntimeException("Error: Source node not in graph: " + SOURCE_NODE);
+
+            // Stable topological order: priority-aware Kahn with the configured tie-break
+            footprint.beginPhase("Topological Order");
+            int[] topoOrder = new KahnEngine().sort(G_weighted, rank);
+            boolean acyclic = topoOrder.length == G_weighted.vertexCount();
+
+            // Vertex order of the printout: topological for a DAG, tie-break rank otherwise
+            int[] printOrder = topoOrder;
+            if (!acyclic) {
+                System.out.println("Graph has cycles: shortest paths use Dijkstra, longest paths need a DAG.");
+                footprint.beginPhase("Cycle Witnesses");
+                SccEngine scc = new SccEngine().run(G_weighted).canonicalize(G_weighted, rank);
+                CycleDetector.find(G_weighted, scc, CycleDetector.Mode.SHORTEST, CYCLE_STARTS)
+                        .print(G_weighted.names(), CYCLE_REPORT_LIMIT);
+                printOrder = new int[G_weighted.vertexCount()];
+                for (int v = 0; v < printOrder.length; v++) printOrder[rank[v]] = v;
+            }
+
+            //   Shortest Path
+            footprint.beginPhase("Shortest Paths");
+            DagPathEngine engine = new DagPathEngine();
+            ShortestPathEngine cyclicEngine = new ShortestPathEngine();
+            DagPathEngine.Result shortest = acyclic
+                    ? engine.pathInDAG(G_weighted, topoOrder, source, true)
+                    : cyclicEngine.shortestPaths(G_weighted, source);
+            long relaxationsSSSP = acyclic ? engine.relaxationCount() : cyclicEngine.relaxationCount();
+
+            //  Longest Path (only defined on a DAG: longest simple paths with cycles are NP-hard)
+            footprint.beginPhase("Longest Paths");
+            engine.resetRelaxationCount();
+            DagPathEngine.Result longest = acyclic ? engine.pathInDAG(G_weighted, topoOrder, source, false) : null;
+            long relaxationsLPSP = engine.relaxationCount();
+
+            // Point-to-point queries: only the vertices between source and target that reach target
+            footprint.beginPhase("Point-to-Point Queries");
+            int target = G_weighted.names().idOf(TARGET_NODE);
+            int[] topoPos = new int[G_weighted.vertexCount()];
+            Arrays.fill(topoPos, -1);
+            for (int i = 0; i < topoOrder.length; i++) topoPos[topoOrder[i]] = i;
+            boolean pointToPoint = acyclic && target != -1;
+            DagPathEngine.Result shortestToTarget = null, longestToTarget = null;
+            long relaxationsP2PShortest = 0, relaxationsP2PLongest = 0, pruningP2PShortest = 0, pruningP2PLongest = 0;
+            if (pointToPoint) {
+                CsrGraph reverse = G_weighted.transpose();
+                engine.resetRelaxationCount();
+                shortestToTarget = engine.pathToTarget(G_weighted, reverse, topoOrder, topoPos, source, target, true);
+                relaxationsP2PShortest = engine.relaxationCount();
+                pruningP2PShortest = engine.pruningEdgeCount();
+                engine.resetRelaxationCount();
+                longestToTarget = engine.pathToTarget(G_weighted, reverse, topoOrder, topoPos, source, target, false);
+                relaxationsP2PLongest = engine.relaxationCount();
+                pruningP2PLongest = engine.pruningEdgeCount();
+            }
+            footprint.endPhase();
+
+
+            // Distances and paths are streamed to the sink as they are read out
+            System.out.flush();
+            try (ResultSink sink = ResultSink.open(OUTPUT_FORMAT, OUTPUT_FILE, G_weighted.names(), null)) {
+                sink.section("\n--- Single-Source Shortest Paths from " + SOURCE_NODE + " ---");
+
+                int shortestPathTarget = target != -1 ? target : printOrder[printOrder.length - 1];
+
+                for (int node : printOrder) sink.distance("shortest", node, shortest.dist[node]);
+
+                int[] shortestPath = shortest.path(shortestPathTarget);
+                if (shortestPath.length > 0) {
+                    sink.section(String.format("\n  Optimal Shortest Path to %s (Length %.2f):",
+                            G_weighted.names().nameOf(shortestPathTarget), shortest.dist[shortestPathTarget]));
+                    sink.path("shortest", shortestPath);
+                }
+
+
+                // --- Output Longest Path (Critical Path) Results ---
+                // Ties go to the vertex earliest in the stable topological order
+                int criticalPathEndNode = -1;
+                double maxDist = Double.NEGATIVE_INFINITY;
+                for (int node : acyclic ? topoOrder : new int[0]) {
+                    if (longest.dist[node] > maxDist) {
+                        maxDist = longest.dist[node];
+                        criticalPathEndNode = node;
+                    }
+                }
+
+                sink.section("\n--- Longest Path (Critical Path) from " + SOURCE_NODE + " ---");
+                if (criticalPathEndNode != -1) {
+                    sink.section(String.format("  Critical Path Length: %.2f", maxDist));
+                    sink.path("longest", longest.path(criticalPathEndNode));
+                } else if (!acyclic) {
+                    sink.section("  Not computed: the graph has cycles, so there is no topological order");
+                } else {
+                    sink.section("  No paths found from source " + SOURCE_NODE);
+                }
+
+                if (pointToPoint) {
+                    sink.section("\n--- Point-to-Point Query " + SOURCE_NODE + " -> " + TARGET_NODE + " ---");
+                    if (shortestToTarget.reachable(target)) {
+                        sink.section(String.format("  Shortest (Length %.2f):", shortestToTarget.dist[target]));
+                        sink.path("shortest", shortestToTarget.path(target));
+                        sink.section(String.format("  Longest (Length %.2f):", longestToTarget.dist[target]));
+                        sink.path("longest", longestToTarget.path(target));
+                    } else {
+                        sink.section("  " + TARGET_NODE + " is unreachable from " + SOURCE_NODE);
+                    }
+                }
+            }
+
+            long endTime = System.nanoTime();
+            double durationMillis = (endTime - startTime) / 1_000_000.0;
+
+            // --- Instrumentation Report ---
+            System.out.println("\n--- Instrumentation Report ---");
+            System.out.printf("Total Relaxations (SSSP Run%s): %d\n", acyclic ? "" : ", Dijkstra", relaxationsSSSP);
+            System.out.printf("Total Relaxations (LPSP Run): %d\n", relaxationsLPSP);
+            if (pointToPoint) {
+                System.out.printf("Relaxations (Point-to-Point %s -> %s, SSSP / LPSP): %d / %d\n",
+                        SOURCE_NODE, TARGET_NODE, relaxationsP2PShortest, relaxationsP2PLongest);
+                System.out.printf("Reverse Edges Read to Prune (SSSP / LPSP): %d / %d -> %d / %d edge reads in total\n",
+                        pruningP2PShortest, pruningP2PLongest, relaxationsP2PShortest + pruningP2PShortest,
+                        relaxationsP2PLongest + pruningP2PLongest);
+            }
+            System.out.printf("Total Execution Time: %.3f milliseconds\n", durationMillis);
+            System.out.println("------------------------------");
+
+            int n = G_weighted.vertexCount();
+            footprint.setEdgeCount(G_weighted.edgeCount());
+            footprint.record("Vertex names", G_weighted.names().footprintBytes());
+            footprint.record("Weighted adjacency (CSR)", G_weighted.footprintBytes());
+            footprint.record("Topological order", MemoryFootprint.primitiveArray(topoOrder.length, 4));
+            footprint.record("Dist arrays (SSSP + LPSP)", 2 * MemoryFootprint.primitiveArray(n, 8));
+            footprint.record("Pred arrays (SSSP + LPSP)", 2 * MemoryFootprint.primitiveArray(n, 4));
+            footprint.print();
+
+        } catch (RuntimeException e) {
+            System.err.println("\n❌ A critical error occurred: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("\n❌ An unexpected error occurred during execution.");
+            e.printStackTrace();
+        }
+    }
+}
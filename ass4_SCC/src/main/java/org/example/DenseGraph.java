@@ -0,0 +1,295 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Adjacency-matrix form of a dense graph: every row (out-edges) and every column
+ * (in-edges) is a long[] bitset, so one word operation covers 64 vertices.
+ *   - reachableFrom: BFS whose expansion ORs whole rows into the visited set;
+ *   - scc: forward/backward closure intersection (FB algorithm) on bitset subsets,
+ *     after a trim pass over vertices with no in- or out-edge left in the subset;
+ *   - topologicalOrder: priority-aware Kahn whose in-degrees are bit-sliced
+ *     counters, so removing a vertex decrements all its successors word by word.
+ * Only the structure is kept: parallel edges collapse and weights are dropped.
+ * preferred() picks this form over CSR by vertex count and edge density.
+ */
+public class DenseGraph {
+
+    /**
+     * Edge density (m / n^2) from which the bitset engines are picked. DenseGraphBenchmark
+     * measures the crossover at 0.01 for n = 1,024 and 4,096 (average degree 10 and 41);
+     * twice that leaves a margin for graphs whose SCCs trimming does not settle.
+     */
+    public static final double DENSITY_THRESHOLD = 0.02;
+    /**
+     * Smallest graph switched to the matrix. Below it the crossover density keeps falling
+     * (0.002 at n = 64, under one edge per vertex) only because CSR pays a fixed cost per
+     * run, both engines finish in a few microseconds, and the CSR engines report the DFS
+     * and queue counters the instrumentation prints.
+     */
+    public static final int MIN_VERTICES = 1_024;
+    /** Largest graph kept as a matrix (2 * n^2 / 8 bytes, 64 MB at the limit). */
+    public static final int MAX_VERTICES = 16_384;
+
+    private final int n;
+    private final int words;
+    private final long[][] out;
+    private final long[][] in;
+    private final int[] frontier; // BFS queue shared by the closures
+    private long wordOps;
+    private long pushes, pops; // ready-heap operations of topologicalOrder
+
+    private DenseGraph(int n) {
+        this.n = n;
+        this.words = (n + 63) >>> 6;
+        this.out = new long[n][words];
+        this.in = new long[n][words];
+        this.frontier = new int[n];
+    }
+
+    public static DenseGraph of(Graph g) {
+        if (g.vertexCount() > MAX_VERTICES) {
+            throw new IllegalArgumentException("Error: " + g.vertexCount() + " vertices exceed the dense limit of " + MAX_VERTICES);
+        }
+        DenseGraph dense = new DenseGraph(g.vertexCount());
+        for (int u = 0; u < dense.n; u++) {
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                int v = g.target(e);
+                dense.out[u][v >>> 6] |= 1L << v;
+                dense.in[v][u >>> 6] |= 1L << u;
+            }
+        }
+        return dense;
+    }
+
+    /** True when g is large enough to matter, small enough for a matrix, and dense enough to pay off. */
+    public static boolean preferred(Graph g) {
+        long n = g.vertexCount();
+        return n >= MIN_VERTICES && n <= MAX_VERTICES && g.edgeCount() >= DENSITY_THRESHOLD * n * n;
+    }
+
+    public static double density(Graph g) {
+        long n = g.vertexCount();
+        return n == 0 ? 0 : (double) g.edgeCount() / (n * n);
+    }
+
+    public int vertexCount() {
+        return n;
+    }
+
+    // --- Reachability ---
+
+    /** Vertices reachable from s (s included), as a bitset. */
+    public long[] reachableFrom(int s) {
+        long[] all = new long[words];
+        Arrays.fill(all, -1L);
+        return closure(out, s, all);
+    }
+
+    public boolean reachable(int u, int v) {
+        return (reachableFrom(u)[v >>> 6] & (1L << v)) != 0;
+    }
+
+    // Vertices of within reachable from s through rows (out: forward, in: backward), s included
+    private long[] closure(long[][] rows, int s, long[] within) {
+        long[] visited = new long[words];
+        visited[s >>> 6] |= 1L << s;
+        int head = 0, tail = 0;
+        frontier[tail++] = s;
+        while (head < tail) {
+            long[] row = rows[frontier[head++]];
+            for (int w = 0; w < words; w++) {
+                long fresh = row[w] & within[w] & ~visited[w];
+                if (fresh == 0) continue;
+                visited[w] |= fresh;
+                for (; fresh != 0; fresh &= fresh - 1) frontier[tail++] = (w << 6) + Long.numberOfTrailingZeros(fresh);
+            }
+            wordOps += words;
+        }
+        return visited;
+    }
+
+    // --- Strongly connected components ---
+
+    /**
+     * SCCs by forward/backward closure intersection: the SCC of a pivot is
+     * forward(pivot) AND backward(pivot) inside the current subset, and the three
+     * leftover parts (forward only, backward only, neither) are split further.
+     * Component ids are in discovery order; call canonicalize for canonical ids.
+     */
+    public SccEngine scc() {
+        int[] compOf = new int[n];
+        int count = 0;
+        long[] all = new long[words];
+        for (int v = 0; v < n; v++) all[v >>> 6] |= 1L << v;
+
+        long[][] stack = new long[16][];
+        int top = 0;
+        if (n > 0) stack[top++] = all;
+        while (top > 0) {
+            long[] set = stack[--top];
+            count = trim(set, compOf, count);
+            int pivot = first(set);
+            if (pivot == -1) continue;
+
+            long[] forward = closure(out, pivot, set);
+            long[] backward = closure(in, pivot, set);
+            long[] onlyForward = new long[words], onlyBackward = new long[words];
+            boolean anyForward = false, anyBackward = false;
+            for (int w = 0; w < words; w++) {
+                long component = forward[w] & backward[w];
+                for (long bits = component; bits != 0; bits &= bits - 1) {
+                    compOf[(w << 6) + Long.numberOfTrailingZeros(bits)] = count;
+                }
+                onlyForward[w] = forward[w] & ~component;
+                onlyBackward[w] = backward[w] & ~component;
+                set[w] &= ~(forward[w] | backward[w]); // the set becomes the "neither" part
+                anyForward |= onlyForward[w] != 0;
+                anyBackward |= onlyBackward[w] != 0;
+            }
+            wordOps += words;
+            count++;
+            if (top + 3 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+            stack[top++] = set;
+            if (anyForward) stack[top++] = onlyForward;
+            if (anyBackward) stack[top++] = onlyBackward;
+        }
+        return SccEngine.fromComponents(compOf, count);
+    }
+
+    // One pass removing the vertices with no in- or out-edge inside set, each a singleton component
+    private int trim(long[] set, int[] compOf, int count) {
+        for (int w = 0; w < words; w++) {
+            for (long bits = set[w]; bits != 0; bits &= bits - 1) {
+                int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (intersects(out[v], set, v) && intersects(in[v], set, v)) continue;
+                set[w] &= ~(1L << v);
+                compOf[v] = count++;
+            }
+        }
+        return count;
+    }
+
+    // Does row share a vertex with set other than v itself (a self-loop alone is still a trivial SCC)
+    private boolean intersects(long[] row, long[] set, int v) {
+        wordOps += words;
+        for (int w = 0; w < words; w++) {
+            long common = row[w] & set[w];
+            if (w == v >>> 6) common &= ~(1L << v);
+            if (common != 0) return true;
+        }
+        return false;
+    }
+
+    private int first(long[] set) {
+        for (int w = 0; w < words; w++) {
+            if (set[w] != 0) return (w << 6) + Long.numberOfTrailingZeros(set[w]);
+        }
+        return -1;
+    }
+
+    // --- Kahn ---
+
+    /**
+     * Same order as KahnEngine.sort(g, priority): the ready vertex with the lowest
+     * priority goes first. In-degrees are bit-sliced: plane p holds bit p of every
+     * counter, so removing u subtracts 1 from all its remaining successors with a
+     * borrow chain per word, and the counters that reach zero are read off the
+     * planes. Stops early (shorter order) when the rest of the graph is cyclic.
+     */
+    public int[] topologicalOrder(int[] priority) {
+        int maxInDegree = 0;
+        int[] inDegree = new int[n];
+        for (int v = 0; v < n; v++) {
+            for (long word : in[v]) inDegree[v] += Long.bitCount(word);
+            maxInDegree = Math.max(maxInDegree, inDegree[v]);
+        }
+        int bits = 32 - Integer.numberOfLeadingZeros(maxInDegree);
+        long[][] planes = new long[bits][words];
+        for (int v = 0; v < n; v++) {
+            for (int p = 0; p < bits; p++) {
+                if ((inDegree[v] >>> p & 1) != 0) planes[p][v >>> 6] |= 1L << v;
+            }
+        }
+
+        int[] heap = new int[n];
+        int size = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) {
+                size = heapPush(heap, size, v, priority);
+                pushes++;
+            }
+        }
+        int[] order = new int[n];
+        int count = 0;
+        while (size > 0) {
+            int u = heap[0];
+            size = heapPop(heap, size, priority);
+            pops++;
+            order[count++] = u;
+            long[] row = out[u];
+            for (int w = 0; w < words; w++) {
+                long borrow = row[w];
+                if (borrow == 0) continue;
+                long nonZero = 0;
+                for (int p = 0; p < bits; p++) {
+                    long plane = planes[p][w];
+                    planes[p][w] = plane ^ borrow;
+                    borrow &= ~plane;
+                    nonZero |= planes[p][w];
+                }
+                wordOps += bits;
+                for (long ready = row[w] & ~nonZero; ready != 0; ready &= ready - 1) {
+                    size = heapPush(heap, size, (w << 6) + Long.numberOfTrailingZeros(ready), priority);
+                    pushes++;
+                }
+            }
+        }
+        return count == n ? order : Arrays.copyOf(order, count);
+    }
+
+    private static int heapPush(int[] heap, int size, int v, int[] priority) {
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (priority[heap[parent]] <= priority[v]) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = v;
+        return size;
+    }
+
+    private static int heapPop(int[] heap, int size, int[] priority) {
+        int last = heap[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && priority[heap[child + 1]] < priority[heap[child]]) child++;
+            if (priority[heap[child]] >= priority[last]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return size;
+    }
+
+    /** 64-bit word operations done by the engines so far. */
+    public long wordOps() {
+        return wordOps;
+    }
+
+    /** Ready vertices pushed by topologicalOrder so far; counted like KahnEngine.pushes. */
+    public long pushes() {
+        return pushes;
+    }
+
+    public long pops() {
+        return pops;
+    }
+
+    public long footprintBytes() {
+        return 2 * (MemoryFootprint.refArray(n) + (long) n * MemoryFootprint.primitiveArray(words, 8));
+    }
+}
@@ -0,0 +1,132 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * CSR engines against the DenseGraph bitset engines over a range of edge
+ * densities (m / n^2): SCC (Kosaraju vs forward/backward), Kahn on the DAG
+ * variant, and a reachability BFS. Checks that both give the same components,
+ * order and reachable set. For every vertex count it reports the crossover: the
+ * lowest density from which the bitset engines win in total (SCC + Kahn + BFS)
+ * at that density and every higher one. DenseGraph.DENSITY_THRESHOLD and
+ * MIN_VERTICES come from these crossovers.
+ * Usage: DenseGraphBenchmark [vertices ...] (default 64, 256, 1,024, 4,096)
+ */
+public class DenseGraphBenchmark {
+
+    private static final double[] DENSITIES = {0.002, 0.005, 0.01, 0.02, 0.05, 0.1, 0.2, 0.4};
+    private static final int[] VERTEX_COUNTS = {64, 256, 1_024, 4_096};
+    private static final int ROUNDS = 3;
+    // Tiny graphs run in microseconds: repeat them so the timer resolution does not decide
+    private static final long MIN_WORK_EDGES = 1 << 20;
+
+    private interface Task {
+        Object run();
+    }
+
+    private static int repeats = 1;
+
+    // Best of ROUNDS, each the mean of repeats runs
+    private static double best(Task task) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int r = 0; r < repeats; r++) task.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e6 / repeats);
+        }
+        return best;
+    }
+
+    // BFS over the CSR rows: the sparse counterpart of DenseGraph.reachableFrom
+    private static boolean[] reachableFrom(Graph g, int s) {
+        boolean[] seen = new boolean[g.vertexCount()];
+        IntRingQueue queue = new IntRingQueue(16);
+        seen[s] = true;
+        queue.offer(s);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                int v = g.target(e);
+                if (!seen[v]) {
+                    seen[v] = true;
+                    queue.offer(v);
+                }
+            }
+        }
+        return seen;
+    }
+
+    private static boolean sameSet(boolean[] sparse, long[] dense) {
+        for (int v = 0; v < sparse.length; v++) {
+            if (sparse[v] != ((dense[v >>> 6] & (1L << v)) != 0)) return false;
+        }
+        return true;
+    }
+
+    // True when the bitset engines took less time in total
+    private static boolean run(String label, CsrGraph cyclic, CsrGraph dag) {
+        repeats = (int) Math.max(1, MIN_WORK_EDGES / Math.max(1, cyclic.edgeCount() + cyclic.vertexCount()));
+        int[] rank = TieBreak.INPUT_ORDER.ranks(cyclic.names());
+        DenseGraph denseCyclic = DenseGraph.of(cyclic);
+        DenseGraph denseDag = DenseGraph.of(dag);
+
+        boolean same = Arrays.equals(new SccEngine().run(cyclic).canonicalize(cyclic, rank).compOf(),
+                denseCyclic.scc().canonicalize(cyclic, rank).compOf())
+                && Arrays.equals(new SccEngine().run(dag).canonicalize(dag, rank).compOf(),
+                denseDag.scc().canonicalize(dag, rank).compOf())
+                && Arrays.equals(new KahnEngine().sort(dag, rank), denseDag.topologicalOrder(rank))
+                && sameSet(reachableFrom(cyclic, 0), denseCyclic.reachableFrom(0));
+
+        double sccSparse = best(() -> new SccEngine().run(cyclic)) + best(() -> new SccEngine().run(dag));
+        double sccDense = best(denseCyclic::scc) + best(denseDag::scc);
+        double kahnSparse = best(() -> new KahnEngine().sort(dag, rank));
+        double kahnDense = best(() -> denseDag.topologicalOrder(rank));
+        double bfsSparse = best(() -> reachableFrom(cyclic, 0));
+        double bfsDense = best(() -> denseCyclic.reachableFrom(0));
+        System.out.printf("%-14s %6d %9.4f %9d | %8.4f %8.4f | %8.4f %8.4f | %8.4f %8.4f | %s%s\n",
+                label, cyclic.vertexCount(), DenseGraph.density(cyclic), cyclic.edgeCount(), sccSparse, sccDense,
+                kahnSparse, kahnDense, bfsSparse, bfsDense, same ? "same" : "DIFFERENT",
+                DenseGraph.preferred(cyclic) ? ", picks dense" : "");
+        return sccDense + kahnDense + bfsDense < sccSparse + kahnSparse + bfsSparse;
+    }
+
+    public static void main(String[] args) {
+        int[] vertexCounts = args.length >= 1 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : VERTEX_COUNTS;
+        System.out.printf("--- Dense vs Sparse Engines (best of %d, ms; SCC = cyclic + DAG variant) ---\n", ROUNDS);
+        System.out.printf("%-14s %6s %9s %9s | %17s | %17s | %17s |\n", "graph", "n", "density", "edges",
+                "SCC  csr / dense", "Kahn csr / dense", "BFS  csr / dense");
+        try {
+            for (String dataset : new String[] {"small1.json", "small2.json", "medium2.json", "large2.json", "large3.json"}) {
+                CsrGraph g = GraphLoader.loadJson(dataset);
+                // DAG variant: only the edges that go up in vertex id
+                CsrGraph dag = CsrGraph.build(g.names(), consumer -> g.edges().forEachEdge((u, v, w) -> {
+                    if (u < v) consumer.accept(u, v, w);
+                }));
+                run(dataset, g, dag);
+            }
+            double[] crossover = new double[vertexCounts.length];
+            for (int i = 0; i < vertexCounts.length; i++) {
+                int n = vertexCounts[i];
+                crossover[i] = Double.NaN;
+                for (double density : DENSITIES) {
+                    int m = (int) (density * n * n);
+                    boolean denseWins = run("random", GraphLoader.fromEdges(n, SyntheticGraphs.randomEdges(n, m, false, 3)),
+                            GraphLoader.fromEdges(n, SyntheticGraphs.randomEdges(n, m, true, 3)));
+                    if (!denseWins) crossover[i] = Double.NaN;
+                    else if (Double.isNaN(crossover[i])) crossover[i] = density;
+                }
+            }
+            System.out.println("\n--- Crossover (lowest density from which dense wins at every higher one) ---");
+            for (int i = 0; i < vertexCounts.length; i++) {
+                System.out.printf("n=%6d: %s\n", vertexCounts[i], Double.isNaN(crossover[i])
+                        ? "dense does not win at the highest density" : String.format("%.3f (avg degree %.1f)",
+                        crossover[i], crossover[i] * vertexCounts[i]));
+            }
+        } catch (RuntimeException e) {
+            System.err.println("\nA critical error occurred: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("\nAn unexpected error occurred during execution.");
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example;
+
+/**
+ * Sequential reader over the out-edges of one vertex at a time, reused across
+ * rows (Graph.cursor()). The engines walk edges through it, so a backend that
+ * stores rows compressed (CompressedGraph) decodes them as it goes instead of
+ * answering random target(edge) lookups. state() and restore() let an iterative
+ * DFS park a row half-read on its stack and resume it later.
+ */
+public interface EdgeCursor {
+
+    /** Positions the cursor before the first out-edge of u. */
+    void reset(int u);
+
+    /** Moves to the next out-edge of the current row; false once the row is exhausted. */
+    boolean next();
+
+    /** Target of the current edge. */
+    int target();
+
+    /** Weight of the current edge. */
+    int weight();
+
+    /** Position within the current row, to be handed back to restore. */
+    long state();
+
+    /** Continues row u from a position taken with state(). */
+    void restore(int u, long state);
+
+    /** Cursor over any Graph through edge ids; the state is the current edge id. */
+    final class Indexed implements EdgeCursor {
+        private final Graph g;
+        private long edge, end;
+
+        public Indexed(Graph g) {
+            this.g = g;
+        }
+
+        @Override
+        public void reset(int u) {
+            edge = g.edgeStart(u) - 1;
+            end = g.edgeEnd(u);
+        }
+
+        @Override
+        public boolean next() {
+            return ++edge < end;
+        }
+
+        @Override
+        public int target() {
+            return g.target(edge);
+        }
+
+        @Override
+        public int weight() {
+            return g.weight(edge);
+        }
+
+        @Override
+        public long state() {
+            return edge;
+        }
+
+        @Override
+        public void restore(int u, long state) {
+            edge = state;
+            end = g.edgeEnd(u);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EdgeListLoader throughput against the raw scan speed of the mapped file and
+ * against a sequential BufferedReader loader, on a generated "u,v,w" CSV.
+ * The parallel graph must equal the sequential one edge for edge.
+ * Usage: EdgeListBenchmark [vertices edges] (default 2,000,000 x 20,000,000)
+ */
+public class EdgeListBenchmark {
+
+    // Sequential reference: line by line, String.split, VertexNames and CsrGraph.build
+    static CsrGraph loadSequential(Path file) throws Exception {
+        VertexNames names = new VertexNames();
+        IntList us = new IntList(), vs = new IntList(), ws = new IntList();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split("[,\t]");
+                us.add(names.intern(fields[0].strip()));
+                vs.add(names.intern(fields[1].strip()));
+                ws.add(fields.length >= 3 ? Integer.parseInt(fields[2].strip()) : 1);
+            }
+        }
+        return CsrGraph.build(names, consumer -> {
+            for (int i = 0; i < us.size(); i++) consumer.accept(us.get(i), vs.get(i), ws.get(i));
+        });
+    }
+
+    // Bytes per second of a plain pass over the mapped file (page cache bandwidth)
+    static double scanMegabytesPerSecond(Path file) throws Exception {
+        try (Arena arena = Arena.ofConfined(); FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            long start = System.nanoTime();
+            long newlines = 0;
+            for (long i = 0; i + 8 <= data.byteSize(); i += 8) {
+                newlines += Long.bitCount(data.get(ValueLayout.JAVA_LONG_UNALIGNED, i) & 0x8080808080808080L);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9 + (newlines == -1 ? 1 : 0);
+            return data.byteSize() / 1e6 / seconds;
+        }
+    }
+
+    static boolean sameGraph(Graph a, Graph b) {
+        if (a.vertexCount() != b.vertexCount() || a.edgeCount() != b.edgeCount()) return false;
+        for (int u = 0; u < a.vertexCount(); u++) {
+            if (!a.names().nameOf(u).equals(b.names().nameOf(u)) || a.edgeStart(u) != b.edgeStart(u)) return false;
+        }
+        for (long e = 0; e < a.edgeCount(); e++) {
+            if (a.target(e) != b.target(e) || a.weight(e) != b.weight(e)) return false;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length >= 2 ? Integer.parseInt(args[0]) : 2_000_000;
+        int m = args.length >= 2 ? Integer.parseInt(args[1]) : 20_000_000;
+
+        Path file = Files.createTempFile("edges", ".csv");
+        try {
+            int[][] edges = SyntheticGraphs.randomEdges(n, m, false, 37);
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                for (int[] e : edges) {
+                    writer.write(SyntheticGraphs.name(e[0]) + "," + SyntheticGraphs.name(e[1]) + "," + e[2]);
+                    writer.newLine();
+                }
+            }
+            System.out.printf("--- Edge List Loading (n=%d, m=%d, %.1f MB, cores=%d) ---\n",
+                    n, m, Files.size(file) / 1e6, Runtime.getRuntime().availableProcessors());
+            System.out.printf("Raw scan of the mapped file: %.0f MB/s\n", scanMegabytesPerSecond(file));
+
+            List<Double> sequentialMillis = new ArrayList<>();
+            CsrGraph reference = null;
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                reference = loadSequential(file);
+                sequentialMillis.add((System.nanoTime() - start) / 1_000_000.0);
+            }
+            double bestSequential = sequentialMillis.stream().mapToDouble(Double::doubleValue).min().orElseThrow();
+            System.out.printf("Sequential reader: %.1f ms (%.0f MB/s)\n", bestSequential, Files.size(file) / 1e3 / bestSequential);
+
+            EdgeListLoader best = null;
+            CsrGraph loaded = null;
+            for (int round = 0; round < 3; round++) {
+                EdgeListLoader loader = new EdgeListLoader();
+                loaded = loader.read(file);
+                if (best == null || loader.megabytesPerSecond() > best.megabytesPerSecond()) best = loader;
+            }
+            System.out.printf("EdgeListLoader: parse %.1f ms + build %.1f ms (%.0f MB/s), graph %s\n",
+                    best.parseMillis(), best.buildMillis(), best.megabytesPerSecond(),
+                    sameGraph(reference, loaded) ? "matches" : "DIFFERS");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package org.example;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Loads "u,v,w" edge-list files (CSV or TSV, weight optional, default 1) into a CsrGraph.
+ * The file is memory-mapped and cut into chunks at newline boundaries; chunks are
+ * parsed in parallel into IntLists of provisional ids from a shared NameDictionary.
+ * Ids are then renumbered by first appearance in the file, so the graph is the
+ * same as a sequential load would give, and the CSR is built with
+ * CsrGraph.buildParallel. Lines starting with '#' are comments. A first line is
+ * taken as a header when its weight column is not a number or when both id
+ * columns are usual endpoint column names (source/target, from/to, u/v, ...);
+ * any other line needs 2 or 3 fields.
+ * stream() gives the same edges without a graph: only the names and a window of
+ * parsed chunks are in memory, and every pass over the edges parses the file again.
+ */
+public class EdgeListLoader {
+
+    private static final int CHUNK_BYTES = 8 << 20;
+    // Id column names that mark a first line as a header, compared in lower case
+    private static final Set<String> ENDPOINT_COLUMNS = Set.of("source", "target", "src", "dst", "dest",
+            "destination", "from", "to", "u", "v", "head", "tail", "start", "end", "node1", "node2");
+
+    private final NameDictionary provisionalIds = new NameDictionary();
+    private long fileBytes;
+    private double parseMillis;
+    private double buildMillis;
+
+    // Edges of one chunk over provisional ids
+    private static class Chunk {
+        final IntList us = new IntList(), vs = new IntList(), ws = new IntList();
+    }
+
+    public static CsrGraph load(Path file) throws IOException {
+        return new EdgeListLoader().read(file);
+    }
+
+    /** The edges of file over the ids load would give, re-parsed on every forEachEdge. */
+    public static Source stream(Path file) throws IOException {
+        return new EdgeListLoader().new Source(file);
+    }
+
+    /**
+     * Edge list read in windows of as many chunks as there are worker threads:
+     * a window is parsed in parallel, then its edges are passed on in file order.
+     * The constructor reads the file once to number the vertices.
+     */
+    public class Source implements EdgeSource {
+        private final Path file;
+        private final VertexNames names;
+        private final int[] finalId;
+        private long edgeCount;
+
+        private Source(Path file) throws IOException {
+            this.file = file;
+            IntList provisionalOf = new IntList();
+            int[] ids = new int[0];
+            try (Arena arena = Arena.ofShared();
+                 FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                fileBytes = channel.size();
+                MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileBytes, arena);
+                long[] bounds = chunkBounds(data);
+                for (int first = 0; first < bounds.length - 1; first += window()) {
+                    Chunk[] chunks = parseWindow(data, bounds, first);
+                    int known = ids.length;
+                    ids = Arrays.copyOf(ids, provisionalIds.size());
+                    Arrays.fill(ids, known, ids.length, -1);
+                    for (Chunk chunk : chunks) {
+                        edgeCount += chunk.us.size();
+                        int[] us = chunk.us.items(), vs = chunk.vs.items();
+                        for (int i = 0; i < chunk.us.size(); i++) {
+                            if (ids[us[i]] == -1) {
+                                ids[us[i]] = provisionalOf.size();
+                                provisionalOf.add(us[i]);
+                            }
+                            if (ids[vs[i]] == -1) {
+                                ids[vs[i]] = provisionalOf.size();
+                                provisionalOf.add(vs[i]);
+                            }
+                        }
+                    }
+                }
+            }
+            this.finalId = ids;
+            this.names = new VertexNames(provisionalIds).permuted(provisionalOf.toArray());
+        }
+
+        public VertexNames names() {
+            return names;
+        }
+
+        public long edgeCount() {
+            return edgeCount;
+        }
+
+        @Override
+        public void forEachEdge(EdgeConsumer consumer) {
+            try (Arena arena = Arena.ofShared();
+                 FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+                long[] bounds = chunkBounds(data);
+                for (int first = 0; first < bounds.length - 1; first += window()) {
+                    for (Chunk chunk : parseWindow(data, bounds, first)) {
+                        int[] us = chunk.us.items(), vs = chunk.vs.items(), ws = chunk.ws.items();
+                        for (int i = 0; i < chunk.us.size(); i++) consumer.accept(finalId[us[i]], finalId[vs[i]], ws[i]);
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Error: cannot read " + file + ": " + e.getMessage());
+            }
+        }
+
+        private int window() {
+            return Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        }
+
+        private Chunk[] parseWindow(MemorySegment data, long[] bounds, int first) {
+            int last = Math.min(bounds.length - 1, first + window());
+            return IntStream.range(first, last).parallel()
+                    .mapToObj(c -> parse(data, bounds[c], bounds[c + 1], c == 0))
+                    .toArray(Chunk[]::new);
+        }
+    }
+
+    public CsrGraph read(Path file) throws IOException {
+        long start = System.nanoTime();
+        Chunk[] chunks;
+        try (Arena arena = Arena.ofShared();
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            fileBytes = channel.size();
+            MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileBytes, arena);
+            long[] bounds = chunkBounds(data);
+            chunks = IntStream.range(0, bounds.length - 1).parallel()
+                    .mapToObj(c -> parse(data, bounds[c], bounds[c + 1], c == 0))
+                    .toArray(Chunk[]::new);
+        }
+        parseMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        start = System.nanoTime();
+        // Final ids by first appearance: one sequential pass over the provisional ids
+        int[] finalId = new int[provisionalIds.size()];
+        Arrays.fill(finalId, -1);
+        int[] provisionalOf = new int[finalId.length];
+        int n = 0;
+        long m = 0;
+        int[] base = new int[chunks.length];
+        for (int c = 0; c < chunks.length; c++) {
+            Chunk chunk = chunks[c];
+            if (m + chunk.us.size() > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Error: " + file + " has too many edges for an on-heap CSR graph");
+            }
+            base[c] = (int) m;
+            m += chunk.us.size();
+            int[] us = chunk.us.items(), vs = chunk.vs.items();
+            for (int i = 0; i < chunk.us.size(); i++) {
+                if (finalId[us[i]] == -1) {
+                    provisionalOf[n] = us[i];
+                    finalId[us[i]] = n++;
+                }
+                if (finalId[vs[i]] == -1) {
+                    provisionalOf[n] = vs[i];
+                    finalId[vs[i]] = n++;
+                }
+            }
+        }
+        VertexNames names = new VertexNames(provisionalIds).permuted(Arrays.copyOf(provisionalOf, n));
+
+        int[] us = new int[(int) m], vs = new int[(int) m], ws = new int[(int) m];
+        IntStream.range(0, chunks.length).parallel().forEach(c -> {
+            Chunk chunk = chunks[c];
+            for (int i = 0; i < chunk.us.size(); i++) {
+                us[base[c] + i] = finalId[chunk.us.get(i)];
+                vs[base[c] + i] = finalId[chunk.vs.get(i)];
+                ws[base[c] + i] = chunk.ws.get(i);
+            }
+        });
+        CsrGraph graph = CsrGraph.buildParallel(names, us, vs, ws);
+        buildMillis = (System.nanoTime() - start) / 1_000_000.0;
+        return graph;
+    }
+
+    // Chunk start offsets plus the file size; every start except 0 follows a '\n'
+    private static long[] chunkBounds(MemorySegment data) {
+        long size = data.byteSize();
+        int count = (int) Math.max(1, (size + CHUNK_BYTES - 1) / CHUNK_BYTES);
+        long[] bounds = new long[count + 1];
+        for (int c = 1; c < count; c++) {
+            long pos = Math.max((long) c * CHUNK_BYTES, bounds[c - 1]);
+            while (pos < size && data.get(ValueLayout.JAVA_BYTE, pos - 1) != '\n') pos++;
+            bounds[c] = pos;
+        }
+        bounds[count] = size;
+        return bounds;
+    }
+
+    private Chunk parse(MemorySegment data, long from, long to, boolean firstChunk) {
+        byte[] bytes = new byte[(int) (to - from)];
+        MemorySegment.copy(data, ValueLayout.JAVA_BYTE, from, bytes, 0, bytes.length);
+        Chunk chunk = new Chunk();
+        int[] fieldStart = new int[3], fieldEnd = new int[3];
+        int pos = 0;
+        boolean firstLine = firstChunk;
+        while (pos < bytes.length) {
+            int lineEnd = pos;
+            while (lineEnd < bytes.length && bytes[lineEnd] != '\n') lineEnd++;
+            int fields = split(bytes, pos, lineEnd, fieldStart, fieldEnd);
+            boolean weighted = fields >= 3;
+            boolean validWeight = !weighted || isInteger(bytes, fieldStart[2], fieldEnd[2]);
+            boolean header = firstLine && fields >= 2 && (!validWeight
+                    || isEndpointColumn(bytes, fieldStart[0], fieldEnd[0]) && isEndpointColumn(bytes, fieldStart[1], fieldEnd[1]));
+            if (fields > 0 && !header) {
+                if (fields < 2 || fields > 3 || !validWeight) {
+                    throw new RuntimeException("Error: malformed edge at byte " + (from + pos) + ": "
+                            + new String(bytes, pos, lineEnd - pos, StandardCharsets.UTF_8).strip());
+                }
+                chunk.us.add(intern(bytes, fieldStart[0], fieldEnd[0]));
+                chunk.vs.add(intern(bytes, fieldStart[1], fieldEnd[1]));
+                chunk.ws.add(weighted ? parseInt(bytes, fieldStart[2], fieldEnd[2]) : 1);
+            }
+            if (fields > 0) firstLine = false;
+            pos = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    // Splits one line at ',' or '\t' into at most 3 trimmed fields; 0 for blank lines and
+    // comments, 4 when there are more than 3 (only the first 3 are kept)
+    private static int split(byte[] bytes, int from, int to, int[] start, int[] end) {
+        while (from < to && isBlank(bytes[from])) from++;
+        while (to > from && isBlank(bytes[to - 1])) to--; // a trailing tab is not a fourth field
+        if (from == to || bytes[from] == '#') return 0;
+        int fields = 0;
+        int fieldFrom = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || bytes[i] == ',' || bytes[i] == '\t') {
+                if (fields == 3) return 4;
+                int a = fieldFrom, b = i;
+                while (a < b && isBlank(bytes[a])) a++;
+                while (b > a && isBlank(bytes[b - 1])) b--;
+                start[fields] = a;
+                end[fields++] = b;
+                fieldFrom = i + 1;
+            }
+        }
+        return fields;
+    }
+
+    private static boolean isEndpointColumn(byte[] bytes, int from, int to) {
+        return to - from <= 11 && ENDPOINT_COLUMNS.contains(
+                new String(bytes, from, to - from, StandardCharsets.UTF_8).toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\r' || b == '\t';
+    }
+
+    private static boolean isInteger(byte[] bytes, int from, int to) {
+        if (from < to && bytes[from] == '-') from++;
+        if (from == to || to - from > 10) return false;
+        for (int i = from; i < to; i++) {
+            if (bytes[i] < '0' || bytes[i] > '9') return false;
+        }
+        return true;
+    }
+
+    private static int parseInt(byte[] bytes, int from, int to) {
+        boolean negative = bytes[from] == '-';
+        long value = 0;
+        for (int i = negative ? from + 1 : from; i < to; i++) value = value * 10 + (bytes[i] - '0');
+        if (negative) value = -value;
+        if (value != (int) value) throw new RuntimeException("Error: edge weight out of int range: " + value);
+        return (int) value;
+    }
+
+    private int intern(byte[] bytes, int from, int to) {
+        return provisionalIds.intern(bytes, from, to);
+    }
+
+    public long fileBytes() {
+        return fileBytes;
+    }
+
+    public double parseMillis() {
+        return parseMillis;
+    }
+
+    public double buildMillis() {
+        return buildMillis;
+    }
+
+    /** Parse plus build throughput of the last read, in MB/s of input text. */
+    public double megabytesPerSecond() {
+        return fileBytes / 1e6 / ((parseMillis + buildMillis) / 1000.0);
+    }
+}
@@ -0,0 +1,21 @@
+package org.example;
+
+/**
+ * Replayable stream of weighted edges over vertex ids.
+ * CSR builders read it twice: once to count degrees, once to scatter the edges.
+ */
+@FunctionalInterface
+public interface EdgeSource {
+
+    @FunctionalInterface
+    interface EdgeConsumer {
+        void accept(int u, int v, int weight);
+    }
+
+    void forEachEdge(EdgeConsumer consumer);
+
+    /** Same edges with every direction reversed. */
+    default EdgeSource reversed() {
+        return consumer -> forEachEdge((u, v, w) -> consumer.accept(v, u, w));
+    }
+}
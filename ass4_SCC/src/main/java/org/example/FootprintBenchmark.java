@@ -0,0 +1,119 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.*;
+
+/**
+ * Bytes-per-edge benchmark for the Map/List based pipelines.
+ * Builds every stage's structures for the bundled datasets and for larger
+ * synthetic graphs, then prints the estimated retained size per edge.
+ */
+public class FootprintBenchmark {
+
+    private static final String[] DATASETS = {
+            "small1.json", "small2.json", "small3.json",
+            "medium1.json", "medium2.json", "medium3.json",
+            "large1.json", "large2.json", "large3.json"
+    };
+
+    // Synthetic sizes {vertices, edges}
+    private static final int[][] SYNTHETIC = {{1_000, 5_000}, {10_000, 50_000}, {100_000, 500_000}};
+
+    private static MemoryFootprint measure(String label, KosarajuSCC.GraphData data, DagPaths.GraphData weighted) {
+        MemoryFootprint footprint = new MemoryFootprint(label);
+
+        // SCC stage
+        footprint.beginPhase("SCC");
+        Set<String> allNodes = new HashSet<>();
+        Map<String, List<String>> G = KosarajuSCC.buildGraph(data, allNodes);
+        Map<String, List<String>> GT = KosarajuSCC.getTransposeGraph(G, allNodes);
+        Stack<String> orderStack = new Stack<>();
+        Set<String> visited = new HashSet<>();
+        for (String node : allNodes) {
+            if (!visited.contains(node)) KosarajuSCC.dfsPass1(node, G, visited, orderStack);
+        }
+        long stackBytes = MemoryFootprint.stack(orderStack, orderStack.size());
+        List<List<String>> sccs = new ArrayList<>();
+        visited.clear();
+        while (!orderStack.isEmpty()) {
+            String u = orderStack.pop();
+            if (!visited.contains(u)) {
+                List<String> component = new ArrayList<>();
+                KosarajuSCC.dfsPass2(u, GT, visited, component);
+                sccs.add(component);
+            }
+        }
+        footprint.beginPhase("Condensation");
+        Map<List<String>, Set<List<String>>> condensation = KosarajuSCC.buildCondensationGraph(G, sccs);
+
+        // Path stage
+        footprint.beginPhase("DAG Paths");
+        Set<String> weightedNodes = new HashSet<>();
+        Map<String, List<DagPaths.Edge>> GW = DagPaths.buildWeightedGraph(weighted, weightedNodes);
+        List<String> topoOrder = DagPaths.getTopologicalOrder(GW, weightedNodes);
+        Map<String, String> pred = new HashMap<>();
+        Map<String, Double> dist = DagPaths.pathInDAG(GW, topoOrder, topoOrder.get(0), pred, true);
+        footprint.endPhase();
+
+        long edgeCount = G.values().stream().mapToLong(List::size).sum();
+        footprint.setEdgeCount(edgeCount);
+        footprint.record("Vertex names", footprint.strings(allNodes));
+        for (List<String> successors : G.values()) footprint.record("Edge endpoint names", footprint.strings(successors));
+        footprint.record("Adjacency (G)", MemoryFootprint.adjacency(G));
+        footprint.record("Transpose (GT)", MemoryFootprint.adjacency(GT));
+        footprint.record("Visited set", MemoryFootprint.hashSet(visited));
+        footprint.record("Order stack", stackBytes);
+        footprint.record("SCC lists", MemoryFootprint.listOfLists(sccs));
+        footprint.record("Condensation graph", MemoryFootprint.condensation(condensation, true));
+        footprint.record("Weighted adjacency", MemoryFootprint.weightedAdjacency(GW));
+        footprint.record("Dist map", MemoryFootprint.boxedValueMap(dist));
+        footprint.record("Pred map", MemoryFootprint.referenceMap(pred));
+        return footprint;
+    }
+
+    private static void run() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> labels = new ArrayList<>();
+        List<MemoryFootprint> results = new ArrayList<>();
+
+        for (String dataset : DATASETS) {
+            InputStream is = FootprintBenchmark.class.getClassLoader().getResourceAsStream(dataset);
+            if (is == null) throw new RuntimeException("Error: File not found in resources: " + dataset);
+            byte[] json = is.readAllBytes();
+            KosarajuSCC.GraphData data = mapper.readValue(json, KosarajuSCC.GraphData.class);
+            DagPaths.GraphData weighted = mapper.readValue(json, DagPaths.GraphData.class);
+            labels.add(dataset);
+            results.add(measure(dataset, data, weighted));
+        }
+        for (int[] size : SYNTHETIC) {
+            int[][] edges = SyntheticGraphs.randomEdges(size[0], size[1], false, 42);
+            String label = "random n=" + size[0] + " m=" + size[1];
+            labels.add(label);
+            results.add(measure(label, SyntheticGraphs.toGraphData(size[0], edges),
+                    SyntheticGraphs.toWeightedGraphData(size[0], edges)));
+        }
+
+        System.out.println("--- Memory Footprint Benchmark (Map/List pipelines) ---");
+        System.out.printf("%-28s %14s %12s\n", "Graph", "Retained (B)", "Bytes/Edge");
+        for (int i = 0; i < results.size(); i++) {
+            System.out.printf("%-28s %,14d %12.1f\n", labels.get(i), results.get(i).retainedTotal(), results.get(i).bytesPerEdge());
+        }
+        results.get(results.size() - 1).print();
+    }
+
+    public static void main(String[] args) throws Exception {
+        // The recursive DFS passes need a deep stack on the synthetic graphs
+        Thread worker = new Thread(null, () -> {
+            try {
+                run();
+            } catch (Exception e) {
+                System.err.println("\nAn unexpected error occurred during execution.");
+                e.printStackTrace();
+            }
+        }, "footprint-benchmark", 1L << 30);
+        worker.start();
+        worker.join();
+    }
+}
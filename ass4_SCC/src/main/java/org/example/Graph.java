@@ -0,0 +1,47 @@
+package org.example;
+
+/**
+ * Int-indexed directed graph in CSR form, shared by the SCC, Kahn and DAG path engines.
+ * Vertices are 0..vertexCount()-1; the out-edges of u are the edge ids
+ * edgeStart(u) .. edgeEnd(u)-1. Edge ids are long so off-heap backends can exceed 2^31 edges.
+ */
+public interface Graph {
+
+    int vertexCount();
+
+    long edgeCount();
+
+    long edgeStart(int u);
+
+    long edgeEnd(int u);
+
+    int target(long edge);
+
+    int weight(long edge);
+
+    /** Id to name mapping, only needed for input and output. */
+    VertexNames names();
+
+    /** Graph with every edge reversed (same backend, same weights). */
+    Graph transpose();
+
+    /** Reader over the out-edges of one vertex at a time; see EdgeCursor. */
+    default EdgeCursor cursor() {
+        return new EdgeCursor.Indexed(this);
+    }
+
+    default int outDegree(int u) {
+        return (int) (edgeEnd(u) - edgeStart(u));
+    }
+
+    /** Replays the edges of this graph, used to copy it into another backend. */
+    default EdgeSource edges() {
+        return consumer -> {
+            for (int u = 0; u < vertexCount(); u++) {
+                for (long e = edgeStart(u), end = edgeEnd(u); e < end; e++) {
+                    consumer.accept(u, target(e), weight(e));
+                }
+            }
+        };
+    }
+}
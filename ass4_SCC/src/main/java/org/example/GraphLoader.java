@@ -0,0 +1,84 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Loads the {nodes, edges} JSON datasets into int-indexed graphs.
+ * Edges are [u, v] or weighted [u, v, w]; missing weights default to 1.
+ * Edge-list text files (.csv, .tsv, .txt) go through EdgeListLoader instead.
+ */
+public class GraphLoader {
+
+    // Internal class to map the JSON structure
+    static class GraphData {
+        public List<String> nodes;
+        public List<List<Object>> edges;
+        public GraphData() {}
+    }
+
+    static GraphData readJson(String jsonFileName) throws Exception {
+        InputStream is = GraphLoader.class.getClassLoader().getResourceAsStream(jsonFileName);
+        if (is == null) throw new RuntimeException("Error: File not found in resources: " + jsonFileName);
+        return new ObjectMapper().readValue(new InputStreamReader(is), GraphData.class);
+    }
+
+    /** Interns node names (data.nodes order first) and returns the edges over their ids. */
+    static EdgeSource edgesOf(GraphData data, VertexNames names) {
+        for (String node : data.nodes) names.intern(node);
+        int[] us = new int[data.edges.size()];
+        int[] vs = new int[data.edges.size()];
+        int[] ws = new int[data.edges.size()];
+        int m = 0;
+        for (List<Object> edge : data.edges) {
+            if (edge.size() >= 2) {
+                us[m] = names.intern(edge.get(0).toString());
+                vs[m] = names.intern(edge.get(1).toString());
+                ws[m] = edge.size() >= 3 ? ((Number) edge.get(2)).intValue() : 1;
+                m++;
+            }
+        }
+        int edgeCount = m;
+        return consumer -> {
+            for (int i = 0; i < edgeCount; i++) consumer.accept(us[i], vs[i], ws[i]);
+        };
+    }
+
+    public static CsrGraph loadJson(String jsonFileName) throws Exception {
+        VertexNames names = new VertexNames();
+        EdgeSource edges = edgesOf(readJson(jsonFileName), names);
+        return CsrGraph.build(names, edges);
+    }
+
+    /**
+     * JSON resource by default; a name ending in .csv, .tsv or .txt is read as an
+     * edge-list file from the file system.
+     */
+    public static CsrGraph load(String fileName) throws Exception {
+        if (isEdgeList(fileName)) return EdgeListLoader.load(edgeListFile(fileName));
+        return loadJson(fileName);
+    }
+
+    /** True for the names load reads as edge-list files. */
+    public static boolean isEdgeList(String fileName) {
+        String lower = fileName.toLowerCase();
+        return lower.endsWith(".csv") || lower.endsWith(".tsv") || lower.endsWith(".txt");
+    }
+
+    static Path edgeListFile(String fileName) {
+        Path file = Path.of(fileName);
+        if (!file.toFile().isFile()) throw new RuntimeException("Error: File not found: " + fileName);
+        return file;
+    }
+
+    /** Synthetic graph from SyntheticGraphs.randomEdges, named "V1".."Vn". */
+    public static CsrGraph fromEdges(int n, int[][] edges) {
+        VertexNames names = VertexNames.numbered("V", n);
+        return CsrGraph.build(names, consumer -> {
+            for (int[] e : edges) consumer.accept(e[0], e[1], e[2]);
+        });
+    }
+}
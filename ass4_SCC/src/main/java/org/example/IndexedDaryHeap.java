@@ -0,0 +1,92 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Indexed min-heap of int ids 0..capacity-1 with double keys, arity D.
+ * Keys live in a primitive array and every id knows its heap slot, so
+ * decrease-key is O(log_D n) with no boxing and no duplicate entries
+ * (unlike PriorityQueue<Object> with lazy deletion).
+ */
+public class IndexedDaryHeap {
+
+    private static final int D = 4;
+
+    private final int[] heap;      // slot -> id
+    private final int[] position;  // id -> slot, -1 when not in the heap
+    private final double[] key;    // id -> key
+    private int size;
+
+    public IndexedDaryHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        key = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int id) {
+        return position[id] != -1;
+    }
+
+    /** Inserts id, or lowers its key if it is already queued with a larger one. */
+    public void insertOrDecrease(int id, double k) {
+        if (position[id] == -1) {
+            key[id] = k;
+            heap[size] = id;
+            position[id] = size;
+            siftUp(size++);
+        } else if (k < key[id]) {
+            key[id] = k;
+            siftUp(position[id]);
+        }
+    }
+
+    public int pollMin() {
+        int min = heap[0];
+        position[min] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int slot) {
+        int id = heap[slot];
+        double k = key[id];
+        while (slot > 0) {
+            int parent = (slot - 1) / D;
+            if (key[heap[parent]] <= k) break;
+            heap[slot] = heap[parent];
+            position[heap[slot]] = slot;
+            slot = parent;
+        }
+        heap[slot] = id;
+        position[id] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int id = heap[slot];
+        double k = key[id];
+        while (true) {
+            int first = slot * D + 1;
+            if (first >= size) break;
+            int best = first;
+            for (int c = first + 1; c < Math.min(first + D, size); c++) {
+                if (key[heap[c]] < key[heap[best]]) best = c;
+            }
+            if (key[heap[best]] >= k) break;
+            heap[slot] = heap[best];
+            position[heap[slot]] = slot;
+            slot = best;
+        }
+        heap[slot] = id;
+        position[id] = slot;
+    }
+}
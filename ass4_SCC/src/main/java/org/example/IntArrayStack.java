@@ -0,0 +1,52 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * LIFO stack of ints over a growable int[], replacing java.util.Stack<Integer>
+ * (Vector-backed, synchronized, one box per push outside the Integer cache).
+ */
+public class IntArrayStack {
+
+    private int[] items;
+    private int size;
+
+    public IntArrayStack() {
+        this(16);
+    }
+
+    public IntArrayStack(int capacity) {
+        items = new int[Math.max(capacity, 1)];
+    }
+
+    public void push(int value) {
+        if (size == items.length) items = Arrays.copyOf(items, size * 2);
+        items[size++] = value;
+    }
+
+    public int pop() {
+        if (size == 0) throw new IllegalStateException("Error: pop from an empty stack");
+        return items[--size];
+    }
+
+    public int peek() {
+        if (size == 0) throw new IllegalStateException("Error: peek at an empty stack");
+        return items[size - 1];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public long footprintBytes() {
+        return MemoryFootprint.align(MemoryFootprint.HEADER + 8) + MemoryFootprint.primitiveArray(items.length, 4);
+    }
+}
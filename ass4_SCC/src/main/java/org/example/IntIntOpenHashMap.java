@@ -0,0 +1,117 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * int -> int hash map with open addressing and linear probing over two parallel
+ * arrays, replacing HashMap<K, Integer> (one node and up to two boxes per entry).
+ * Keys are mixed with a multiplicative hash so consecutive vertex ids spread out.
+ * Integer.MIN_VALUE is reserved as the empty-slot marker and cannot be a key.
+ */
+public class IntIntOpenHashMap {
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private final int missingValue;
+
+    public IntIntOpenHashMap() {
+        this(16, -1);
+    }
+
+    /** @param missingValue returned by get() for absent keys */
+    public IntIntOpenHashMap(int expectedSize, int missingValue) {
+        this.missingValue = missingValue;
+        allocate(tableLength(expectedSize));
+    }
+
+    static int tableLength(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR);
+        if (needed > 1 << 30) throw new IllegalArgumentException("Error: hash map too large: " + expectedSize);
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    private void allocate(int length) {
+        keys = new int[length];
+        values = new int[length];
+        Arrays.fill(keys, EMPTY);
+        mask = length - 1;
+    }
+
+    static int slot(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private int find(int key) {
+        if (key == EMPTY) throw new IllegalArgumentException("Error: Integer.MIN_VALUE is not a valid key");
+        int i = slot(key, mask);
+        while (keys[i] != EMPTY && keys[i] != key) i = (i + 1) & mask;
+        return i;
+    }
+
+    public int get(int key) {
+        int i = find(key);
+        return keys[i] == EMPTY ? missingValue : values[i];
+    }
+
+    public boolean containsKey(int key) {
+        return keys[find(key)] != EMPTY;
+    }
+
+    public void put(int key, int value) {
+        int i = find(key);
+        if (keys[i] == EMPTY) {
+            keys[i] = key;
+            size++;
+            values[i] = value;
+            if (size > keys.length * LOAD_FACTOR) rehash();
+        } else {
+            values[i] = value;
+        }
+    }
+
+    /** Adds delta to the value of key (missingValue if absent) and returns the new value. */
+    public int addTo(int key, int delta) {
+        int i = find(key);
+        if (keys[i] != EMPTY) return values[i] += delta;
+        int value = missingValue + delta;
+        put(key, value);
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Empties the map in O(table length) without reallocating. */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys, oldValues = values;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int j = slot(oldKeys[i], mask);
+            while (keys[j] != EMPTY) j = (j + 1) & mask;
+            keys[j] = oldKeys[i];
+            values[j] = oldValues[i];
+        }
+    }
+
+    public long footprintBytes() {
+        return MemoryFootprint.align(MemoryFootprint.HEADER + 2 * MemoryFootprint.REF + 12)
+                + 2 * MemoryFootprint.primitiveArray(keys.length, 4);
+    }
+}
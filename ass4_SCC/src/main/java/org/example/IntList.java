@@ -0,0 +1,60 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of ints backed by one int[] (no Integer boxing).
+ * clear() keeps the array, so a list reused across rounds stops allocating
+ * once it has reached its largest size.
+ */
+public class IntList {
+
+    private int[] items;
+    private int size;
+
+    public IntList() {
+        this(16);
+    }
+
+    public IntList(int capacity) {
+        items = new int[Math.max(capacity, 1)];
+    }
+
+    public void add(int value) {
+        if (size == items.length) items = Arrays.copyOf(items, size * 2);
+        items[size++] = value;
+    }
+
+    public int get(int index) {
+        return items[index];
+    }
+
+    public void set(int index, int value) {
+        items[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /** Backing array; only the first size() slots are meaningful. */
+    public int[] items() {
+        return items;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(items, size);
+    }
+
+    public long footprintBytes() {
+        return MemoryFootprint.align(MemoryFootprint.HEADER + 8) + MemoryFootprint.primitiveArray(items.length, 4);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example;
+
+/**
+ * FIFO queue of ints in a power-of-two ring buffer, replacing LinkedList<Integer>
+ * as a queue (one node and one box per offer). The ring doubles when full.
+ */
+public class IntRingQueue {
+
+    private int[] ring;
+    private int mask;
+    private int head;
+    private int size;
+
+    public IntRingQueue() {
+        this(16);
+    }
+
+    public IntRingQueue(int capacity) {
+        int length = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        ring = new int[length];
+        mask = length - 1;
+    }
+
+    public void offer(int value) {
+        if (size == ring.length) grow();
+        ring[(head + size++) & mask] = value;
+    }
+
+    public int poll() {
+        if (size == 0) throw new IllegalStateException("Error: poll from an empty queue");
+        int value = ring[head];
+        head = (head + 1) & mask;
+        size--;
+        return value;
+    }
+
+    public int peek() {
+        if (size == 0) throw new IllegalStateException("Error: peek at an empty queue");
+        return ring[head];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    // Unrolls the ring into a twice as large array, oldest element first
+    private void grow() {
+        int[] larger = new int[ring.length * 2];
+        for (int i = 0; i < size; i++) larger[i] = ring[(head + i) & mask];
+        ring = larger;
+        mask = larger.length - 1;
+        head = 0;
+    }
+
+    public long footprintBytes() {
+        return MemoryFootprint.align(MemoryFootprint.HEADER + 16) + MemoryFootprint.primitiveArray(ring.length, 4);
+    }
+}
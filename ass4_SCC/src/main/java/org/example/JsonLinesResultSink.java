@@ -0,0 +1,92 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * One JSON object per line, e.g.
+ *   {"type":"component","id":"SCC 1","size":2,"members":["V1","V4"]}
+ * Written by hand so no object tree is built per record.
+ */
+class JsonLinesResultSink extends WriterResultSink {
+
+    JsonLinesResultSink(Writer out, boolean console, VertexNames vertices, VertexNames components) {
+        super(out, console, vertices, components);
+    }
+
+    private void string(String s) throws IOException {
+        out.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch == '"' || ch == '\\') out.write('\\');
+            if (ch < 0x20) {
+                out.write(String.format("\\u%04x", (int) ch));
+            } else {
+                out.write(ch);
+            }
+        }
+        out.write('"');
+    }
+
+    private void names(VertexNames names, int[] ids, int from, int to) throws IOException {
+        out.write('[');
+        for (int i = from; i < to; i++) {
+            if (i > from) out.write(',');
+            string(names.nameOf(ids[i]));
+        }
+        out.write(']');
+    }
+
+    @Override
+    public void component(int c, int[] members, int from, int to) throws IOException {
+        out.write("{\"type\":\"component\",\"id\":");
+        string(components.nameOf(c));
+        out.write(",\"size\":" + (to - from) + ",\"members\":");
+        names(vertices, members, from, to);
+        out.write("}\n");
+    }
+
+    @Override
+    public void componentEdges(int c, Graph dag) throws IOException {
+        out.write("{\"type\":\"edges\",\"id\":");
+        string(components.nameOf(c));
+        out.write(",\"to\":[");
+        for (long e = dag.edgeStart(c), end = dag.edgeEnd(c); e < end; e++) {
+            if (e > dag.edgeStart(c)) out.write(',');
+            string(components.nameOf(dag.target(e)));
+        }
+        out.write("]}\n");
+    }
+
+    @Override
+    public void componentOrder(int position, int c) throws IOException {
+        out.write("{\"type\":\"order\",\"position\":" + position + ",\"id\":");
+        string(components.nameOf(c));
+        out.write("}\n");
+    }
+
+    @Override
+    public void taskOrder(int position, int v) throws IOException {
+        out.write("{\"type\":\"task\",\"position\":" + position + ",\"id\":");
+        string(vertices.nameOf(v));
+        out.write("}\n");
+    }
+
+    @Override
+    public void distance(String run, int v, double dist) throws IOException {
+        out.write("{\"type\":\"distance\",\"run\":");
+        string(run);
+        out.write(",\"id\":");
+        string(vertices.nameOf(v));
+        out.write(",\"dist\":" + (Double.isInfinite(dist) ? "null" : Double.toString(dist)) + "}\n");
+    }
+
+    @Override
+    public void path(String run, int[] path) throws IOException {
+        out.write("{\"type\":\"path\",\"run\":");
+        string(run);
+        out.write(",\"vertices\":");
+        names(vertices, path, 0, path.length);
+        out.write("}\n");
+    }
+}
@@ -0,0 +1,124 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Kahn's topological sort over the Graph interface with an int array queue.
+ * If the graph has a cycle the returned order is shorter than vertexCount().
+ */
+public class KahnEngine {
+
+    private long kahnPushes = 0;
+    private long kahnPops = 0;
+
+    public int[] sort(Graph g) {
+        int n = g.vertexCount();
+
+        // 1. Calculate In-degrees
+        int[] inDegree = new int[n];
+        EdgeCursor cursor = g.cursor();
+        for (int u = 0; u < n; u++) {
+            for (cursor.reset(u); cursor.next(); ) inDegree[cursor.target()]++;
+        }
+
+        // 2. Initialize Queue; every vertex is pushed at most once, so n slots suffice
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        for (int u = 0; u < n; u++) {
+            if (inDegree[u] == 0) {
+                queue[tail++] = u;
+                kahnPushes++;
+            }
+        }
+
+        // 3. Process Queue; the queue array itself becomes the order
+        while (head < tail) {
+            int u = queue[head++];
+            kahnPops++;
+            for (cursor.reset(u); cursor.next(); ) {
+                int v = cursor.target();
+                if (--inDegree[v] == 0) {
+                    queue[tail++] = v;
+                    kahnPushes++;
+                }
+            }
+        }
+        return tail == n ? queue : Arrays.copyOf(queue, tail);
+    }
+
+    /**
+     * Priority-aware Kahn: among the ready vertices the one with the lowest
+     * priority[v] is taken first, so the order is fully determined by priority
+     * (e.g. TieBreak ranks) and no sorting is needed afterwards.
+     */
+    public int[] sort(Graph g, int[] priority) {
+        int n = g.vertexCount();
+        int[] inDegree = new int[n];
+        EdgeCursor cursor = g.cursor();
+        for (int u = 0; u < n; u++) {
+            for (cursor.reset(u); cursor.next(); ) inDegree[cursor.target()]++;
+        }
+
+        // Binary min-heap of ready vertices keyed by priority
+        int[] heap = new int[n];
+        int size = 0;
+        for (int u = 0; u < n; u++) {
+            if (inDegree[u] == 0) {
+                size = heapPush(heap, size, u, priority);
+                kahnPushes++;
+            }
+        }
+
+        int[] order = new int[n];
+        int count = 0;
+        while (size > 0) {
+            int u = heap[0];
+            size = heapPop(heap, size, priority);
+            kahnPops++;
+            order[count++] = u;
+            for (cursor.reset(u); cursor.next(); ) {
+                int v = cursor.target();
+                if (--inDegree[v] == 0) {
+                    size = heapPush(heap, size, v, priority);
+                    kahnPushes++;
+                }
+            }
+        }
+        return count == n ? order : Arrays.copyOf(order, count);
+    }
+
+    private static int heapPush(int[] heap, int size, int v, int[] priority) {
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (priority[heap[parent]] <= priority[v]) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = v;
+        return size;
+    }
+
+    private static int heapPop(int[] heap, int size, int[] priority) {
+        int last = heap[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && priority[heap[child + 1]] < priority[heap[child]]) child++;
+            if (priority[heap[child]] >= priority[last]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return size;
+    }
+
+    public long pushes() {
+        return kahnPushes;
+    }
+
+    public long pops() {
+        return kahnPops;
+    }
+}
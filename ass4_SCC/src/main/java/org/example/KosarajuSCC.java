@@ -5,20 +5,34 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.InputStream;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Kosaraju's Algorithm for Strongly Connected Components (SCCs).
- * This simplified version combines graph loading, SCC logic, and metrics
- * into a single class for brevity.
+ * main runs the int-indexed engines (GraphLoader, SccEngine, Condensation) with
+ * canonical, hash-order independent SCC ids. The Map/List methods below are the
+ * original pipeline, kept as the FootprintBenchmark baseline.
  */
 public class KosarajuSCC {
 
     // Change the JSON file name HERE  HERE HERE HERE
-    private static final String GRAPH_FILE_NAME = "large3.json";
+    private static final String GRAPH_FILE_NAME = "large3.json"; // or the path of a .csv/.tsv edge list
     // HERE
 
+    // Order of equally ranked vertices and components in the output (LEXICOGRAPHIC or INPUT_ORDER)
+    private static final TieBreak TIE_BREAK = TieBreak.LEXICOGRAPHIC;
 
+    // Bitset matrix engines when the graph is dense enough (DenseGraph.preferred); false always uses CSR
+    private static final boolean AUTO_DENSE = true;
+
+    // Relabel vertex ids for locality before the passes (BFS, RCM, DEGREE, TOPOLOGICAL); null keeps the input ids.
+    // Names travel with the ids and the tie-break ranks are taken before relabeling, so the output is unchanged.
+    private static final VertexOrdering.Strategy REORDER = null;
+
+    // Result output: TEXT, CSV, JSONL or BINARY; a null file means the console (BINARY needs a file)
+    private static final ResultSink.Format OUTPUT_FORMAT = ResultSink.Format.TEXT;
+    private static final String OUTPUT_FILE = null;
+
+    // Counters of the Map/List reference pipeline below
     private static long dfsVisits = 0;
     private static long dfsEdges = 0;
 
@@ -32,7 +46,7 @@ public class KosarajuSCC {
 
 
     // Load graph data
-    private static Map<String, List<String>> loadGraph(String jsonFileName, Set<String> allNodes, GraphData[] dataHolder) throws Exception {
+    static Map<String, List<String>> loadGraph(String jsonFileName, Set<String> allNodes, GraphData[] dataHolder) throws Exception {
         InputStream is = KosarajuSCC.class.getClassLoader().getResourceAsStream(jsonFileName);
 
         if (is == null) {
@@ -42,7 +56,11 @@ public class KosarajuSCC {
         ObjectMapper mapper = new ObjectMapper();
         GraphData data = mapper.readValue(new InputStreamReader(is), GraphData.class);
         dataHolder[0] = data;
+        return buildGraph(data, allNodes);
+    }
 
+    // Build G from already parsed graph data
+    static Map<String, List<String>> buildGraph(GraphData data, Set<String> allNodes) {
         Map<String, List<String>> G = new HashMap<>();
 
         // Initialize all nodes and build G
@@ -51,7 +69,7 @@ public class KosarajuSCC {
             allNodes.add(node);
         }
         for (List<String> edge : data.edges) {
-            if (edge.size() == 2) {
+            if (edge.size() >= 2) { // [u, v] or weighted [u, v, w]
                 String u = edge.get(0);
                 String v = edge.get(1);
                 G.get(u).add(v);
@@ -63,7 +81,7 @@ public class KosarajuSCC {
     }
 
     // Computes the transpose graph G^T
-    private static Map<String, List<String>> getTransposeGraph(Map<String, List<String>> G, Set<String> allNodes) {
+    static Map<String, List<String>> getTransposeGraph(Map<String, List<String>> G, Set<String> allNodes) {
         Map<String, List<String>> GT = new HashMap<>();
         for (String node : allNodes) {
             GT.put(node, new ArrayList<>());
@@ -79,7 +97,7 @@ public class KosarajuSCC {
     }
 
     /** DFS Pass 1 **/
-    private static void dfsPass1(String u, Map<String, List<String>> G, Set<String> visited, Stack<String> stack) {
+    static void dfsPass1(String u, Map<String, List<String>> G, Set<String> visited, Stack<String> stack) {
         visited.add(u);
         dfsVisits++;
 
@@ -93,7 +111,7 @@ public class KosarajuSCC {
     }
 
     /** DFS Pass 2*/
-    private static void dfsPass2(String u, Map<String, List<String>> GT, Set<String> visited, List<String> currentScc) {
+    static void dfsPass2(String u, Map<String, List<String>> GT, Set<String> visited, List<String> currentScc) {
         visited.add(u);
         dfsVisits++;
         currentScc.add(u);
@@ -107,7 +125,7 @@ public class KosarajuSCC {
     }
 
     /** Build  DAG */
-    private static Map<List<String>, Set<List<String>>> buildCondensationGraph(Map<String, List<String>> G, List<List<String>> sccs) {
+    static Map<List<String>, Set<List<String>>> buildCondensationGraph(Map<String, List<String>> G, List<List<String>> sccs) {
         Map<List<String>, Set<List<String>>> condensationGraph = new LinkedHashMap<>();
         Map<String, List<String>> nodeToSccMap = new HashMap<>();
 
@@ -144,38 +162,41 @@ public class KosarajuSCC {
         System.out.println("--- Kosaraju's Algorithm for Strongly Connected Components (SCCs) ---");
 
         try {
+            MemoryFootprint footprint = new MemoryFootprint("Kosaraju SCC");
             startTime = System.nanoTime(); //start time
 
-            Set<String> allNodes = new HashSet<>();
-            GraphData[] dataHolder = new GraphData[1];
-
-
-            Map<String, List<String>> G = loadGraph(GRAPH_FILE_NAME, allNodes, dataHolder);
-            Map<String, List<String>> GT = getTransposeGraph(G, allNodes);
-
-            // DFS Pass 1
-            Stack<String> orderStack = new Stack<>();
-            Set<String> visited = new HashSet<>();
-            for (String node : allNodes) {
-                if (!visited.contains(node)) {
-                    dfsPass1(node, G, visited, orderStack);
-                }
+            footprint.beginPhase("Load");
+            CsrGraph G = GraphLoader.load(GRAPH_FILE_NAME);
+            int[] rank = TIE_BREAK.ranks(G.names());
+            if (REORDER != null) {
+                footprint.beginPhase("Reorder");
+                VertexOrdering.Relabeled relabeled = VertexOrdering.relabel(G, REORDER);
+                G = relabeled.graph;
+                rank = relabeled.carry(rank);
             }
-
-            // DFS Pass 2
-            List<List<String>> sccs = new ArrayList<>();
-            visited.clear();
-            while (!orderStack.isEmpty()) {
-                String u = orderStack.pop();
-                if (!visited.contains(u)) {
-                    List<String> component = new ArrayList<>();
-                    dfsPass2(u, GT, visited, component);
-                    sccs.add(component);
-                }
+            CsrGraph GT = null;
+            DenseGraph matrix = null;
+            SccEngine scc;
+            if (AUTO_DENSE && DenseGraph.preferred(G)) {
+                // Dense graph: forward/backward closures over bitset rows, 64 vertices per word
+                footprint.beginPhase("Dense Matrix");
+                matrix = DenseGraph.of(G);
+                footprint.beginPhase("Forward/Backward SCC");
+                scc = matrix.scc();
+            } else {
+                footprint.beginPhase("Transpose");
+                GT = G.transpose();
+
+                // DFS Pass 1 + DFS Pass 2
+                footprint.beginPhase("DFS Passes");
+                scc = new SccEngine().run(G, GT);
             }
+            // Canonical SCC ids (no sorting of components afterwards)
+            scc.canonicalize(G, rank);
 
-
-            Map<List<String>, Set<List<String>>> condensationGraph = buildCondensationGraph(G, sccs);
+            footprint.beginPhase("Condensation");
+            CsrGraph condensationGraph = Condensation.build(G, scc);
+            footprint.endPhase();
 
             long endTime = System.nanoTime(); // Stop time measurement
             double durationMillis = (endTime - startTime) / 1_000_000.0;
@@ -184,36 +205,50 @@ public class KosarajuSCC {
             //RESULTS
 
 
-            System.out.println("\nStrongly Connected Components Found:");
-            Map<List<String>, String> sccIdMap = new HashMap<>();
-
-            for (int i = 0; i < sccs.size(); i++) {
-                List<String> component = sccs.get(i);
-                Collections.sort(component);
-                String sccId = "SCC " + (i + 1);
-                sccIdMap.put(component, sccId);
-                System.out.printf("%s (Size: %d): %s\n", sccId, component.size(), component);
-            }
-
-            System.out.println("\nTotal SCCs: " + sccs.size());
-
-            System.out.println("\n--- Condensation Graph (DAG) Edges ---");
-            for (List<String> sccFrom : sccs) {
-                String sccFromId = sccIdMap.get(sccFrom);
-                String edgesTo = condensationGraph.get(sccFrom).stream()
-                        .map(sccIdMap::get)
-                        .collect(Collectors.joining(", "));
+            // Results are streamed to the sink one component at a time
+            System.out.flush();
+            int[] componentOffsets = scc.componentOffsets();
+            int[] componentMembers = scc.componentMembers();
+            try (ResultSink sink = ResultSink.open(OUTPUT_FORMAT, OUTPUT_FILE, G.names(), condensationGraph.names())) {
+                sink.section("\nStrongly Connected Components Found:");
+                for (int c = 0; c < scc.componentCount(); c++) {
+                    sink.component(c, componentMembers, componentOffsets[c], componentOffsets[c + 1]);
+                }
+                sink.section("\nTotal SCCs: " + scc.componentCount());
 
-                System.out.printf("  %s -> [%s]\n", sccFromId, edgesTo.isEmpty() ? "None" : edgesTo);
+                sink.section("\n--- Condensation Graph (DAG) Edges ---");
+                for (int c = 0; c < scc.componentCount(); c++) sink.componentEdges(c, condensationGraph);
             }
 
             //Instrumentation
             System.out.println("\n--- Instrumentation Report  ---");
-            System.out.printf("Total DFS Visits (Nodes): %d\n", dfsVisits);
-            System.out.printf("Total DFS Edges Traversed: %d\n", dfsEdges);
+            if (matrix != null) {
+                System.out.printf("Adjacency Mode: dense bitset matrix (density %.3f)\n", DenseGraph.density(G));
+                System.out.printf("Total Word Operations (64 vertices each): %d\n", matrix.wordOps());
+            } else {
+                System.out.printf("Total DFS Visits (Nodes): %d\n", scc.dfsVisits());
+                System.out.printf("Total DFS Edges Traversed: %d\n", scc.dfsEdges());
+            }
             System.out.printf("Total Execution Time: %.3f milliseconds\n", durationMillis);
             System.out.println("------------------------------------------");
 
+            int n = G.vertexCount();
+            footprint.setEdgeCount(G.edgeCount());
+            footprint.record("Vertex names", G.names().footprintBytes());
+            footprint.record("Adjacency (G, CSR)", G.footprintBytes());
+            if (matrix != null) {
+                footprint.record("Bitset rows + columns", matrix.footprintBytes());
+            } else {
+                footprint.record("Transpose (GT, CSR)", GT.footprintBytes());
+                footprint.record("DFS stacks + order", 2 * MemoryFootprint.primitiveArray(n, 4) + MemoryFootprint.primitiveArray(n, 8));
+                footprint.record("Visited flags", MemoryFootprint.primitiveArray(n, 1));
+            }
+            footprint.record("compOf + members", 2 * MemoryFootprint.primitiveArray(n, 4)
+                    + MemoryFootprint.primitiveArray(scc.componentCount() + 1, 4));
+            footprint.record("Condensation graph (CSR)", condensationGraph.footprintBytes()
+                    + condensationGraph.names().footprintBytes());
+            footprint.print();
+
         } catch (RuntimeException e) {
             System.err.println("\nA critical error occurred: " + e.getMessage());
         } catch (Exception e) {
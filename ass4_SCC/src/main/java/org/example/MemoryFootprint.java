@@ -0,0 +1,244 @@
+package org.example;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.*;
+
+/**
+ * Memory footprint accounting for the graph pipelines.
+ * Retained sizes are estimated from the standard 64-bit HotSpot object layout
+ * (12 byte headers, 4 byte compressed references, 8 byte alignment), and the
+ * peak heap of every phase is taken from the JVM memory pool MXBeans.
+ */
+public class MemoryFootprint {
+
+    // 64-bit HotSpot layout with compressed oops (the default below 32 GB heaps)
+    static final int HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REF = 4;
+
+    // Shallow sizes of the JDK classes used by the pipelines
+    static final long STRING = 24;
+    static final long HASH_MAP = 48;
+    static final long HASH_MAP_NODE = 32;
+    static final long LINKED_HASH_MAP = 56;
+    static final long LINKED_HASH_MAP_ENTRY = 40;
+    static final long HASH_SET = 16;
+    static final long ARRAY_LIST = 24;
+    static final long LINKED_LIST = 32;
+    static final long LINKED_LIST_NODE = 24;
+    static final long VECTOR = 32;
+    static final long BOXED = 16;
+
+    private final String title;
+    private final Map<String, Long> structures = new LinkedHashMap<>();
+    private final Map<String, Long> phasePeaks = new LinkedHashMap<>();
+    private final Map<String, Long> phaseAllocations = new LinkedHashMap<>();
+    private final Set<String> countedStrings = Collections.newSetFromMap(new IdentityHashMap<>());
+    private String currentPhase;
+    private long phaseStartAllocated;
+    private long edgeCount;
+
+    public MemoryFootprint(String title) {
+        this.title = title;
+    }
+
+    // --- Object layout helpers ---
+
+    public static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    public static long refArray(long length) {
+        return align(ARRAY_HEADER + length * REF);
+    }
+
+    public static long primitiveArray(long length, int elementBytes) {
+        return align(ARRAY_HEADER + length * elementBytes);
+    }
+
+    /** String object plus its Latin-1 backing array. */
+    public static long sizeOf(String s) {
+        return STRING + primitiveArray(s.length(), 1);
+    }
+
+    /** Table length a HashMap reaches when filled by put() from the default capacity. */
+    public static long hashTableLength(long entries) {
+        if (entries == 0) return 0;
+        long cap = 16;
+        while (entries > cap * 3 / 4) cap <<= 1;
+        return cap;
+    }
+
+    /** Capacity an ArrayList reaches when filled by add() from the default capacity. */
+    public static long arrayListCapacity(long size) {
+        if (size == 0) return 0;
+        long cap = 10;
+        while (cap < size) cap += cap >> 1;
+        return cap;
+    }
+
+    /** Capacity a Vector (and so a Stack) reaches when filled by push() from the default capacity. */
+    public static long vectorCapacity(long size) {
+        long cap = 10;
+        while (cap < size) cap <<= 1;
+        return cap;
+    }
+
+    public static long hashMapShell(long entries) {
+        long table = hashTableLength(entries);
+        return HASH_MAP + (table == 0 ? 0 : refArray(table)) + entries * HASH_MAP_NODE;
+    }
+
+    public static long hashSetShell(long entries) {
+        return HASH_SET + hashMapShell(entries);
+    }
+
+    public static long arrayListShell(long size) {
+        long cap = arrayListCapacity(size);
+        return ARRAY_LIST + (cap == 0 ? 0 : refArray(cap));
+    }
+
+    // --- Estimators for the structures the pipelines build (element Strings are sized by strings()) ---
+
+    /** Map<String, List<String>> adjacency or transpose. */
+    public static long adjacency(Map<String, ? extends List<?>> G) {
+        long total = hashMapShell(G.size());
+        for (List<?> successors : G.values()) total += arrayListShell(successors.size());
+        return total;
+    }
+
+    /** Map<String, List<Edge>> weighted adjacency: one Edge object (header, ref, int) per edge. */
+    public static long weightedAdjacency(Map<String, ? extends List<?>> G) {
+        long total = adjacency(G);
+        for (List<?> successors : G.values()) total += successors.size() * align(HEADER + REF + 4);
+        return total;
+    }
+
+    public static long hashSet(Set<?> set) {
+        return hashSetShell(set.size());
+    }
+
+    public static long stack(Stack<?> stack, long peakSize) {
+        return VECTOR + refArray(vectorCapacity(peakSize));
+    }
+
+    public static long listOfLists(List<? extends List<?>> lists) {
+        long total = arrayListShell(lists.size());
+        for (List<?> list : lists) total += arrayListShell(list.size());
+        return total;
+    }
+
+    /** Map<List<String>, Set<List<String>>> condensation; keys are the SCC lists owned elsewhere. */
+    public static long condensation(Map<?, ? extends Set<?>> condensationGraph, boolean linked) {
+        long entries = condensationGraph.size();
+        long table = hashTableLength(entries);
+        long total = (linked ? LINKED_HASH_MAP : HASH_MAP) + (table == 0 ? 0 : refArray(table))
+                + entries * (linked ? LINKED_HASH_MAP_ENTRY : HASH_MAP_NODE);
+        for (Set<?> neighbors : condensationGraph.values()) total += hashSet(neighbors);
+        return total;
+    }
+
+    /** Map<K, Double> or Map<K, Integer> with one boxed value per entry. */
+    public static long boxedValueMap(Map<?, ?> map) {
+        long boxes = 0;
+        for (Object value : map.values()) {
+            if (value instanceof Integer i && i >= -128 && i <= 127) continue; // Integer cache
+            if (value != null) boxes++;
+        }
+        return hashMapShell(map.size()) + boxes * BOXED;
+    }
+
+    /** Map<String, String> predecessor map; values are shared names. */
+    public static long referenceMap(Map<?, ?> map) {
+        return hashMapShell(map.size());
+    }
+
+    // --- Report building ---
+
+    /**
+     * Sizes the String instances this report has not counted yet. Jackson creates
+     * a new String for every occurrence of a name, so equal names are not shared.
+     */
+    public long strings(Collection<String> values) {
+        long total = 0;
+        for (String s : values) {
+            if (countedStrings.add(s)) total += sizeOf(s);
+        }
+        return total;
+    }
+
+    public void setEdgeCount(long edgeCount) {
+        this.edgeCount = edgeCount;
+    }
+
+    public void record(String structure, long bytes) {
+        structures.merge(structure, bytes, Long::sum);
+    }
+
+    public long retainedTotal() {
+        long total = 0;
+        for (long bytes : structures.values()) total += bytes;
+        return total;
+    }
+
+    public double bytesPerEdge() {
+        return edgeCount == 0 ? Double.NaN : (double) retainedTotal() / edgeCount;
+    }
+
+    /** Bytes allocated so far by the calling thread (-1 if the JVM does not support it). */
+    public static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        }
+        return -1;
+    }
+
+    /** Starts a phase: resets the peak usage of every heap pool. */
+    public void beginPhase(String phase) {
+        if (currentPhase != null) endPhase();
+        currentPhase = phase;
+        phaseStartAllocated = allocatedBytes();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+    }
+
+    /**
+     * Ends the current phase and records its peak heap. The pool peaks are summed,
+     * so the figure is an upper bound when pools peak at different moments.
+     */
+    public void endPhase() {
+        if (currentPhase == null) return;
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+        }
+        phasePeaks.put(currentPhase, peak);
+        phaseAllocations.put(currentPhase, allocatedBytes() - phaseStartAllocated);
+        currentPhase = null;
+    }
+
+    public void print() {
+        endPhase();
+        System.out.println("\n--- Memory Footprint Report (" + title + ") ---");
+        System.out.println("Retained size (estimated):");
+        for (Map.Entry<String, Long> entry : structures.entrySet()) {
+            System.out.printf("  %-28s %,12d bytes\n", entry.getKey(), entry.getValue());
+        }
+        System.out.printf("  %-28s %,12d bytes\n", "Total", retainedTotal());
+        if (edgeCount > 0) {
+            System.out.printf("Bytes per Edge: %.1f (%d edges)\n", bytesPerEdge(), edgeCount);
+        }
+        if (!phasePeaks.isEmpty()) {
+            System.out.println("Heap per phase:");
+            System.out.printf("  %-28s %14s %14s\n", "Phase", "Peak heap", "Allocated");
+            for (Map.Entry<String, Long> entry : phasePeaks.entrySet()) {
+                System.out.printf("  %-28s %,14d %,14d\n",
+                        entry.getKey(), entry.getValue(), phaseAllocations.get(entry.getKey()));
+            }
+        }
+        System.out.println("------------------------------");
+    }
+}
@@ -0,0 +1,392 @@
+package org.example;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Compact, thread-safe name -> dense id dictionary for vertex names.
+ *   - Names of the form prefix + decimal number ("V17" for prefix "V", no leading
+ *     zeros) are keyed by their number alone; their bytes are never stored and
+ *     nameOf rebuilds them.
+ *   - Other names are UTF-8 bytes appended to one byte array per shard, found
+ *     through an open-addressing table of entry indices (no String per name).
+ * The dictionary is split into SHARDS shards by hash, each guarded by its own
+ * lock, so parallel loaders can intern concurrently. Ids are handed out from
+ * one counter in insertion order; id -> name (nameOf) is only needed at output time.
+ */
+public class NameDictionary {
+
+    private static final int SHARDS = 32;
+    private static final long NUMERIC = 1L << 62;
+
+    private final String numericPrefix;
+    private final byte[] prefixBytes;
+    // Shards are created on first use, so small dictionaries stay small
+    private final AtomicReferenceArray<Shard> shards = new AtomicReferenceArray<>(SHARDS);
+    private final AtomicInteger nextId = new AtomicInteger();
+    // id -> locator: NUMERIC | number, or shard << 32 | entry index within the shard
+    private long[] locators = new long[16];
+
+    public NameDictionary() {
+        this("V");
+    }
+
+    /** @param numericPrefix prefix of the numbered names kept without their bytes, e.g. "V" or "SCC " */
+    public NameDictionary(String numericPrefix) {
+        this.numericPrefix = numericPrefix;
+        this.prefixBytes = numericPrefix.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // One lock-guarded part of the dictionary
+    private static final class Shard {
+        final IntIntOpenHashMap numbers = new IntIntOpenHashMap(4, -1); // number -> id
+        // Byte-name storage, allocated with the first name that is not numbered
+        byte[] bytes = new byte[0];
+        int bytesUsed;
+        int[] offset = new int[0], length = new int[0], hash = new int[0], id = new int[0];
+        int entries;
+        int[] table = new int[0]; // entry index + 1, 0 = empty
+    }
+
+    private Shard shard(int index) {
+        Shard shard = shards.get(index);
+        if (shard == null) {
+            shards.compareAndSet(index, null, new Shard());
+            shard = shards.get(index);
+        }
+        return shard;
+    }
+
+    // --- Interning ---
+
+    public int intern(String name) {
+        long number = numberOf(name);
+        if (number >= 0) return internNumber((int) number, true);
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return internBytes(bytes, 0, bytes.length, true);
+    }
+
+    /** Interns the UTF-8 name in bytes[from, to) without creating a String. */
+    public int intern(byte[] bytes, int from, int to) {
+        long number = numberOf(bytes, from, to);
+        if (number >= 0) return internNumber((int) number, true);
+        return internBytes(bytes, from, to, true);
+    }
+
+    /** Returns the id of name, or -1 if it is unknown. */
+    public int idOf(String name) {
+        long number = numberOf(name);
+        if (number >= 0) return internNumber((int) number, false);
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return internBytes(bytes, 0, bytes.length, false);
+    }
+
+    /** Interns the name of other's id here, copying its bytes without a String. */
+    public int internFrom(NameDictionary other, int otherId) {
+        long locator = other.locator(otherId);
+        if ((locator & NUMERIC) != 0 && other.numericPrefix.equals(numericPrefix)) {
+            return internNumber((int) (locator & ~NUMERIC), true);
+        }
+        if ((locator & NUMERIC) != 0) return intern(other.nameOf(otherId));
+        // Copy the bytes out first, so no two shard locks are ever held together
+        Shard shard = other.shard((int) (locator >>> 32));
+        int entry = (int) locator;
+        byte[] name;
+        synchronized (shard) {
+            name = Arrays.copyOfRange(shard.bytes, shard.offset[entry], shard.offset[entry] + shard.length[entry]);
+        }
+        return intern(name, 0, name.length);
+    }
+
+    private int internNumber(int number, boolean insert) {
+        Shard shard = shard(mix(number) >>> 27);
+        synchronized (shard) {
+            int id = shard.numbers.get(number);
+            if (id != -1 || !insert) return id;
+            id = newId(NUMERIC | number);
+            shard.numbers.put(number, id);
+            return id;
+        }
+    }
+
+    private int internBytes(byte[] bytes, int from, int to, boolean insert) {
+        int h = hashBytes(bytes, from, to);
+        int shardIndex = h >>> 27;
+        Shard shard = shard(shardIndex);
+        synchronized (shard) {
+            if (shard.table.length == 0) {
+                if (!insert) return -1;
+                shard.table = new int[8];
+            }
+            int mask = shard.table.length - 1;
+            int slot = h & mask;
+            for (int e; (e = shard.table[slot]) != 0; slot = (slot + 1) & mask) {
+                e--;
+                if (shard.hash[e] == h && Arrays.equals(shard.bytes, shard.offset[e], shard.offset[e] + shard.length[e],
+                        bytes, from, to)) {
+                    return shard.id[e];
+                }
+            }
+            if (!insert) return -1;
+
+            int e = shard.entries++;
+            if (e == shard.offset.length) {
+                int capacity = Math.max(4, e * 2);
+                shard.offset = Arrays.copyOf(shard.offset, capacity);
+                shard.length = Arrays.copyOf(shard.length, capacity);
+                shard.hash = Arrays.copyOf(shard.hash, capacity);
+                shard.id = Arrays.copyOf(shard.id, capacity);
+            }
+            int length = to - from;
+            if (shard.bytesUsed + length > shard.bytes.length) {
+                shard.bytes = Arrays.copyOf(shard.bytes, Math.max(Math.max(64, shard.bytes.length * 2), shard.bytesUsed + length));
+            }
+            System.arraycopy(bytes, from, shard.bytes, shard.bytesUsed, length);
+            shard.offset[e] = shard.bytesUsed;
+            shard.length[e] = length;
+            shard.hash[e] = h;
+            shard.bytesUsed += length;
+            shard.id[e] = newId(((long) shardIndex << 32) | e);
+            shard.table[slot] = e + 1;
+            if (shard.entries * 2 > shard.table.length) rehash(shard);
+            return shard.id[e];
+        }
+    }
+
+    private static void rehash(Shard shard) {
+        int[] table = new int[shard.table.length * 2];
+        int mask = table.length - 1;
+        for (int e = 0; e < shard.entries; e++) {
+            int slot = shard.hash[e] & mask;
+            while (table[slot] != 0) slot = (slot + 1) & mask;
+            table[slot] = e + 1;
+        }
+        shard.table = table;
+    }
+
+    // Ids are handed out under the dictionary lock; only first sightings of a name get here
+    private synchronized int newId(long locator) {
+        int id = nextId.get();
+        if (id == Integer.MAX_VALUE) throw new IllegalStateException("Error: more than 2^31 - 1 vertex names");
+        if (id == locators.length) locators = Arrays.copyOf(locators, (int) Math.min(Integer.MAX_VALUE - 8L, id * 2L));
+        locators[id] = locator;
+        nextId.set(id + 1);
+        return id;
+    }
+
+    private synchronized long locator(int id) {
+        if (id < 0 || id >= nextId.get()) throw new IndexOutOfBoundsException("Error: unknown vertex id " + id);
+        return locators[id];
+    }
+
+    // --- Lookup ---
+
+    public String nameOf(int id) {
+        long locator = locator(id);
+        if ((locator & NUMERIC) != 0) return numericPrefix + (locator & ~NUMERIC);
+        Shard shard = shard((int) (locator >>> 32));
+        int entry = (int) locator;
+        synchronized (shard) {
+            return new String(shard.bytes, shard.offset[entry], shard.length[entry], StandardCharsets.UTF_8);
+        }
+    }
+
+    public int size() {
+        return nextId.get();
+    }
+
+    /**
+     * Every id, ordered by name as String.compareTo orders the names, compared on
+     * the stored bytes and numbers: no String per name and no lookups. Names
+     * interned while this runs are not included.
+     */
+    public int[] sortedIds() {
+        NameOrder order = new NameOrder();
+        int[] ids = new int[order.locators.length];
+        for (int id = 0; id < ids.length; id++) ids[id] = id;
+        order.sort(ids, new int[ids.length], 0, ids.length);
+        return ids;
+    }
+
+    // Snapshot of the locators and shard arrays; entries of existing ids never move
+    private final class NameOrder {
+        private static final int INSERTION_SORT = 24;
+
+        final long[] locators;
+        final byte[][] bytes = new byte[SHARDS][];
+        final int[][] offset = new int[SHARDS][], length = new int[SHARDS][];
+        final byte[] left = new byte[prefixBytes.length + 10], right = new byte[prefixBytes.length + 10];
+
+        NameOrder() {
+            synchronized (NameDictionary.this) {
+                locators = Arrays.copyOf(NameDictionary.this.locators, nextId.get());
+            }
+            for (int s = 0; s < SHARDS; s++) {
+                Shard shard = shards.get(s);
+                if (shard == null) continue;
+                synchronized (shard) {
+                    bytes[s] = shard.bytes;
+                    offset[s] = shard.offset;
+                    length[s] = shard.length;
+                }
+            }
+        }
+
+        // Stable merge sort of ids[from, to), insertion sort below INSERTION_SORT
+        void sort(int[] ids, int[] scratch, int from, int to) {
+            if (to - from <= INSERTION_SORT) {
+                for (int i = from + 1; i < to; i++) {
+                    int id = ids[i], j = i - 1;
+                    for (; j >= from && compare(ids[j], id) > 0; j--) ids[j + 1] = ids[j];
+                    ids[j + 1] = id;
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            sort(ids, scratch, from, mid);
+            sort(ids, scratch, mid, to);
+            if (compare(ids[mid - 1], ids[mid]) <= 0) return;
+            System.arraycopy(ids, from, scratch, from, to - from);
+            for (int i = from, a = from, b = mid; i < to; i++) {
+                ids[i] = b == to || (a < mid && compare(scratch[a], scratch[b]) <= 0) ? scratch[a++] : scratch[b++];
+            }
+        }
+
+        int compare(int a, int b) {
+            long la = locators[a], lb = locators[b];
+            if ((la & NUMERIC) != 0 && (lb & NUMERIC) != 0) return compareDecimal(la & ~NUMERIC, lb & ~NUMERIC);
+            byte[] x, y;
+            int xFrom, xTo, yFrom, yTo;
+            if ((la & NUMERIC) != 0) {
+                x = left;
+                xFrom = 0;
+                xTo = spell(la & ~NUMERIC, left);
+            } else {
+                int s = (int) (la >>> 32), e = (int) la;
+                x = bytes[s];
+                xFrom = offset[s][e];
+                xTo = xFrom + length[s][e];
+            }
+            if ((lb & NUMERIC) != 0) {
+                y = right;
+                yFrom = 0;
+                yTo = spell(lb & ~NUMERIC, right);
+            } else {
+                int s = (int) (lb >>> 32), e = (int) lb;
+                y = bytes[s];
+                yFrom = offset[s][e];
+                yTo = yFrom + length[s][e];
+            }
+            int i = Arrays.mismatch(x, xFrom, xTo, y, yFrom, yTo);
+            if (i < 0) return 0;
+            if (i == xTo - xFrom || i == yTo - yFrom) return (xTo - xFrom) - (yTo - yFrom);
+            int bx = x[xFrom + i] & 0xFF, by = y[yFrom + i] & 0xFF;
+            // UTF-8 byte order is code point order; String order differs from it only
+            // between U+E000..U+FFFF and supplementary characters (lead bytes EE..F4)
+            if (bx >= 0xEE && by >= 0xEE) {
+                return new String(x, xFrom, xTo - xFrom, StandardCharsets.UTF_8)
+                        .compareTo(new String(y, yFrom, yTo - yFrom, StandardCharsets.UTF_8));
+            }
+            return bx - by;
+        }
+
+        // prefix + decimal digits of number into buffer; returns the length
+        private int spell(long number, byte[] buffer) {
+            System.arraycopy(prefixBytes, 0, buffer, 0, prefixBytes.length);
+            int end = prefixBytes.length + digits(number);
+            for (int i = end - 1; i >= prefixBytes.length; i--, number /= 10) buffer[i] = (byte) ('0' + number % 10);
+            return end;
+        }
+    }
+
+    // Order of the decimal strings of a and b (same prefix): "10" < "9"
+    private static int compareDecimal(long a, long b) {
+        int da = digits(a), db = digits(b);
+        long x = a, y = b;
+        for (int d = da; d < db; d++) x *= 10;
+        for (int d = db; d < da; d++) y *= 10;
+        if (x != y) return x < y ? -1 : 1;
+        return da - db;
+    }
+
+    private static int digits(long number) {
+        int digits = 1;
+        while (number >= 10) {
+            number /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    public String numericPrefix() {
+        return numericPrefix;
+    }
+
+    /** Retained size: locators, shard byte arrays, entry arrays, tables and number maps. */
+    public long footprintBytes() {
+        int locatorSlots;
+        synchronized (this) {
+            locatorSlots = locators.length; // not held below: shard locks are always taken first
+        }
+        long total = MemoryFootprint.align(MemoryFootprint.HEADER + 4 * MemoryFootprint.REF)
+                + MemoryFootprint.primitiveArray(locatorSlots, 8) + MemoryFootprint.refArray(SHARDS);
+        for (int s = 0; s < SHARDS; s++) {
+            Shard shard = shards.get(s);
+            if (shard == null) continue;
+            synchronized (shard) {
+                total += MemoryFootprint.align(MemoryFootprint.HEADER + 8 * MemoryFootprint.REF)
+                        + shard.numbers.footprintBytes()
+                        + MemoryFootprint.primitiveArray(shard.bytes.length, 1)
+                        + 4 * MemoryFootprint.primitiveArray(shard.offset.length, 4)
+                        + MemoryFootprint.primitiveArray(shard.table.length, 4);
+            }
+        }
+        return total;
+    }
+
+    // --- Numeric fast path and hashing ---
+
+    // prefix + decimal number without leading zeros (or "0") below 2^31, else -1
+    private long numberOf(String name) {
+        int p = numericPrefix.length();
+        if (name.length() <= p || name.length() > p + 10 || !name.startsWith(numericPrefix)) return -1;
+        if (name.charAt(p) == '0' && name.length() > p + 1) return -1;
+        long value = 0;
+        for (int i = p; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value <= Integer.MAX_VALUE ? value : -1;
+    }
+
+    private long numberOf(byte[] bytes, int from, int to) {
+        int p = prefixBytes.length;
+        if (to - from <= p || to - from > p + 10) return -1;
+        for (int i = 0; i < p; i++) {
+            if (bytes[from + i] != prefixBytes[i]) return -1;
+        }
+        if (bytes[from + p] == '0' && to - from > p + 1) return -1;
+        long value = 0;
+        for (int i = from + p; i < to; i++) {
+            byte c = bytes[i];
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value <= Integer.MAX_VALUE ? value : -1;
+    }
+
+    // FNV-1a over the bytes, then mixed so the top bits (shard) and low bits (slot) both vary
+    private static int hashBytes(byte[] bytes, int from, int to) {
+        int h = 0x811C9DC5;
+        for (int i = from; i < to; i++) h = (h ^ bytes[i]) * 0x01000193;
+        return mix(h);
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 15);
+    }
+}
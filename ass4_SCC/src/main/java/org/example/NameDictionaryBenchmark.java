@@ -0,0 +1,73 @@
+package org.example;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Retained bytes per name and interning speed of NameDictionary against the
+ * previous HashMap<String, Integer> + ArrayList<String> layout, for numbered
+ * "V<i>" names and for free-form names, plus parallel interning from bytes.
+ * Usage: NameDictionaryBenchmark [names] (default 2,000,000)
+ */
+public class NameDictionaryBenchmark {
+
+    static String freeForm(int i) {
+        return "task-" + Integer.toHexString(i * 0x9E3779B9) + "-" + (i % 97);
+    }
+
+    static void compare(String label, String[] names) {
+        long start = System.nanoTime();
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> list = new ArrayList<>();
+        for (String name : names) {
+            if (!ids.containsKey(name)) {
+                ids.put(name, list.size());
+                list.add(name);
+            }
+        }
+        double mapMillis = (System.nanoTime() - start) / 1_000_000.0;
+        long mapBytes = MemoryFootprint.hashMapShell(ids.size()) + MemoryFootprint.arrayListShell(list.size())
+                + Math.max(0, list.size() - 128) * 16L;
+        for (String name : list) mapBytes += MemoryFootprint.sizeOf(name);
+
+        start = System.nanoTime();
+        NameDictionary dictionary = new NameDictionary();
+        for (String name : names) dictionary.intern(name);
+        double dictionaryMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        boolean same = dictionary.size() == list.size();
+        for (int i = 0; same && i < list.size(); i += Math.max(1, list.size() / 1000)) {
+            same = dictionary.nameOf(i).equals(list.get(i)) && dictionary.idOf(list.get(i)) == i;
+        }
+        System.out.printf("%-10s HashMap %6.1f B/name %8.1f ms | NameDictionary %6.1f B/name %8.1f ms | ids %s\n",
+                label, (double) mapBytes / list.size(), mapMillis,
+                (double) dictionary.footprintBytes() / dictionary.size(), dictionaryMillis, same ? "match" : "DIFFER");
+    }
+
+    public static void main(String[] args) {
+        int n = args.length >= 1 ? Integer.parseInt(args[0]) : 2_000_000;
+        System.out.printf("--- Name Dictionary (%d names, cores=%d) ---\n", n, Runtime.getRuntime().availableProcessors());
+
+        String[] numbered = new String[n], other = new String[n];
+        for (int i = 0; i < n; i++) {
+            numbered[i] = SyntheticGraphs.name(i);
+            other[i] = freeForm(i);
+        }
+        compare("V<i>", numbered);
+        compare("free-form", other);
+
+        // Parallel interning straight from UTF-8 bytes, as EdgeListLoader does
+        byte[][] raw = new byte[n][];
+        for (int i = 0; i < n; i++) raw[i] = other[i].getBytes(StandardCharsets.UTF_8);
+        NameDictionary shared = new NameDictionary();
+        long start = System.nanoTime();
+        IntStream.range(0, n).parallel().forEach(i -> shared.intern(raw[i], 0, raw[i].length));
+        double parallelMillis = (System.nanoTime() - start) / 1_000_000.0;
+        System.out.printf("Parallel intern from bytes: %.1f ms (%.1f M names/s), %d distinct\n",
+                parallelMillis, n / parallelMillis / 1000.0, shared.size());
+    }
+}
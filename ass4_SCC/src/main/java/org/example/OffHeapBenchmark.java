@@ -0,0 +1,60 @@
+package org.example;
+
+import java.lang.foreign.Arena;
+import java.util.Arrays;
+
+/**
+ * Runs the SCC, Kahn and DAG path engines on the on-heap CSR graph and on the
+ * off-heap copy of the same graph, checks that the results agree and prints
+ * the time and memory of each backend.
+ * Usage: OffHeapBenchmark [vertices edges] (default 1,000,000 x 5,000,000)
+ */
+public class OffHeapBenchmark {
+
+    private static final String[] DATASETS = {"small1.json", "medium2.json", "large2.json", "large3.json"};
+
+    // SCC + condensation + Kahn + longest path from the first component
+    private static long[] runEngines(Graph g, String label) {
+        long start = System.nanoTime();
+        SccEngine scc = new SccEngine().run(g);
+        CsrGraph dag = Condensation.build(g, scc);
+        KahnEngine kahn = new KahnEngine();
+        int[] order = kahn.sort(dag);
+        DagPathEngine paths = new DagPathEngine();
+        DagPathEngine.Result longest = paths.pathInDAG(dag, order, order[0], false);
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+        System.out.printf("  %-9s SCCs: %d, DAG edges: %d, order: %d, relaxations: %d, time: %.3f ms\n",
+                label, scc.componentCount(), dag.edgeCount(), order.length, paths.relaxationCount(), millis);
+        long checksum = Arrays.hashCode(scc.compOf()) * 31L + Arrays.hashCode(order);
+        return new long[] {checksum, Double.doubleToLongBits(Arrays.stream(longest.dist).max().orElse(0))};
+    }
+
+    private static void compare(CsrGraph onHeap, String label) {
+        System.out.printf("\n%s (n=%d, m=%d)\n", label, onHeap.vertexCount(), onHeap.edgeCount());
+        try (Arena arena = Arena.ofShared()) {
+            OffHeapCsrGraph offHeap = OffHeapCsrGraph.copyOf(onHeap, arena);
+            long[] heapResult = runEngines(onHeap, "on-heap");
+            long[] offHeapResult = runEngines(offHeap, "off-heap");
+            System.out.printf("  CSR on heap: %,d bytes, off heap: %,d bytes, results %s\n",
+                    onHeap.footprintBytes(), offHeap.offHeapBytes(),
+                    Arrays.equals(heapResult, offHeapResult) ? "match" : "DIFFER");
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- On-heap vs Off-heap CSR Graph ---");
+        try {
+            for (String dataset : DATASETS) compare(GraphLoader.loadJson(dataset), dataset);
+
+            int n = args.length >= 2 ? Integer.parseInt(args[0]) : 1_000_000;
+            int m = args.length >= 2 ? Integer.parseInt(args[1]) : 5_000_000;
+            compare(GraphLoader.fromEdges(n, SyntheticGraphs.randomEdges(n, m, false, 42)), "random");
+        } catch (RuntimeException e) {
+            System.err.println("\nA critical error occurred: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("\nAn unexpected error occurred during execution.");
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package org.example;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * CSR graph whose offsets, targets and weights live off-heap in MemorySegments
+ * allocated from an Arena. Offsets are longs, so the edge count may exceed 2^31,
+ * and the GC never scans or copies the edge arrays.
+ * The graph is valid until its arena is closed.
+ */
+public class OffHeapCsrGraph implements Graph {
+
+    // Below this many edges transpose() stays sequential
+    private static final long PARALLEL_EDGES = 1 << 16;
+
+    // Never started: stands for "any other thread" when asking a segment who may access it
+    private static final Thread OTHER_THREAD = new Thread(() -> {});
+
+    private final Arena arena;
+    private final VertexNames names;
+    private final int vertexCount;
+    private final MemorySegment offsets; // vertexCount + 1 longs
+    private final MemorySegment targets; // edgeCount ints
+    private final MemorySegment weights; // edgeCount ints
+    private final boolean shared; // false for a confined arena, whose segments only its owner may touch
+
+    private OffHeapCsrGraph(Arena arena, VertexNames names, MemorySegment offsets,
+                            MemorySegment targets, MemorySegment weights) {
+        this.arena = arena;
+        this.names = names;
+        this.vertexCount = names.size();
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.shared = offsets.isAccessibleBy(OTHER_THREAD);
+    }
+
+    /** Counting-sort build straight into off-heap memory; no edge is buffered on the heap. */
+    public static OffHeapCsrGraph build(Arena arena, VertexNames names, EdgeSource edges) {
+        int n = names.size();
+        MemorySegment offsets = arena.allocate((n + 1L) * Long.BYTES, Long.BYTES).fill((byte) 0);
+        edges.forEachEdge((u, v, w) -> {
+            long index = u + 1L;
+            offsets.setAtIndex(ValueLayout.JAVA_LONG, index, offsets.getAtIndex(ValueLayout.JAVA_LONG, index) + 1);
+        });
+        for (long u = 0; u < n; u++) {
+            offsets.setAtIndex(ValueLayout.JAVA_LONG, u + 1,
+                    offsets.getAtIndex(ValueLayout.JAVA_LONG, u + 1) + offsets.getAtIndex(ValueLayout.JAVA_LONG, u));
+        }
+
+        long m = offsets.getAtIndex(ValueLayout.JAVA_LONG, n);
+        MemorySegment targets = arena.allocate(Math.max(m, 1) * Integer.BYTES, Integer.BYTES);
+        MemorySegment weights = arena.allocate(Math.max(m, 1) * Integer.BYTES, Integer.BYTES);
+        try (Arena scratch = Arena.ofConfined()) {
+            MemorySegment cursor = scratch.allocate(Math.max(n, 1) * (long) Long.BYTES, Long.BYTES);
+            MemorySegment.copy(offsets, 0, cursor, 0, n * (long) Long.BYTES);
+            edges.forEachEdge((u, v, w) -> {
+                long pos = cursor.getAtIndex(ValueLayout.JAVA_LONG, u);
+                cursor.setAtIndex(ValueLayout.JAVA_LONG, u, pos + 1);
+                targets.setAtIndex(ValueLayout.JAVA_INT, pos, v);
+                weights.setAtIndex(ValueLayout.JAVA_INT, pos, w);
+            });
+        }
+        return new OffHeapCsrGraph(arena, names, offsets, targets, weights);
+    }
+
+    /**
+     * View over existing segments (e.g. a mapped ResultSnapshot): offsets holds
+     * names.size() + 1 longs, targets and weights one int per edge. Nothing is copied.
+     */
+    public static OffHeapCsrGraph wrap(Arena arena, VertexNames names, MemorySegment offsets,
+                                       MemorySegment targets, MemorySegment weights) {
+        if (offsets.byteSize() != (names.size() + 1L) * Long.BYTES) {
+            throw new IllegalArgumentException("Error: offsets do not match " + names.size() + " vertices");
+        }
+        return new OffHeapCsrGraph(arena, names, offsets, targets, weights);
+    }
+
+    public static OffHeapCsrGraph copyOf(Graph g, Arena arena) {
+        return build(arena, g.names(), g.edges());
+    }
+
+    @Override
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public long edgeCount() {
+        return offsets.getAtIndex(ValueLayout.JAVA_LONG, vertexCount);
+    }
+
+    @Override
+    public long edgeStart(int u) {
+        return offsets.getAtIndex(ValueLayout.JAVA_LONG, u);
+    }
+
+    @Override
+    public long edgeEnd(int u) {
+        return offsets.getAtIndex(ValueLayout.JAVA_LONG, u + 1L);
+    }
+
+    @Override
+    public int target(long edge) {
+        return targets.getAtIndex(ValueLayout.JAVA_INT, edge);
+    }
+
+    @Override
+    public int weight(long edge) {
+        return weights.getAtIndex(ValueLayout.JAVA_INT, edge);
+    }
+
+    @Override
+    public VertexNames names() {
+        return names;
+    }
+
+    /**
+     * The transpose is allocated from the same arena. With a shared arena it is built
+     * in parallel like CsrGraph.transpose (per-block histograms, prefix sum over
+     * (vertex, block), atomic-free scatter), with the block cursors in a scratch
+     * off-heap segment, so the heap stays free of per-edge data.
+     */
+    @Override
+    public OffHeapCsrGraph transpose() {
+        int n = vertexCount;
+        long m = edgeCount();
+        int blocks = (int) Math.min(ForkJoinPool.getCommonPoolParallelism(), m / Math.max(n, 1));
+        if (m < PARALLEL_EDGES || blocks < 2 || !shared) return build(arena, names, edges().reversed());
+
+        int[] blockStart = new int[blocks + 1];
+        for (int b = 1; b < blocks; b++) blockStart[b] = rowOfEdge(m / blocks * b);
+        blockStart[blocks] = n;
+        MemorySegment reversedOffsets = arena.allocate((n + 1L) * Long.BYTES, Long.BYTES);
+        MemorySegment reversedTargets = arena.allocate(m * Integer.BYTES, Integer.BYTES);
+        MemorySegment reversedWeights = arena.allocate(m * Integer.BYTES, Integer.BYTES);
+        try (Arena scratch = Arena.ofShared()) {
+            // cursor[b * n + v]: in-degree of v from block b, then the next slot of block b in row v
+            MemorySegment cursor = scratch.allocate((long) blocks * n * Long.BYTES, Long.BYTES).fill((byte) 0);
+            IntStream.range(0, blocks).parallel().forEach(b -> {
+                long base = (long) b * n;
+                for (long e = edgeStart(blockStart[b]), end = edgeStart(blockStart[b + 1]); e < end; e++) {
+                    long index = base + target(e);
+                    cursor.setAtIndex(ValueLayout.JAVA_LONG, index, cursor.getAtIndex(ValueLayout.JAVA_LONG, index) + 1);
+                }
+            });
+
+            long position = 0;
+            for (int v = 0; v < n; v++) {
+                reversedOffsets.setAtIndex(ValueLayout.JAVA_LONG, v, position);
+                for (int b = 0; b < blocks; b++) {
+                    long index = (long) b * n + v;
+                    long count = cursor.getAtIndex(ValueLayout.JAVA_LONG, index);
+                    cursor.setAtIndex(ValueLayout.JAVA_LONG, index, position);
+                    position += count;
+                }
+            }
+            reversedOffsets.setAtIndex(ValueLayout.JAVA_LONG, n, position);
+
+            IntStream.range(0, blocks).parallel().forEach(b -> {
+                long base = (long) b * n;
+                for (int u = blockStart[b]; u < blockStart[b + 1]; u++) {
+                    for (long e = edgeStart(u), end = edgeEnd(u); e < end; e++) {
+                        long index = base + target(e);
+                        long pos = cursor.getAtIndex(ValueLayout.JAVA_LONG, index);
+                        cursor.setAtIndex(ValueLayout.JAVA_LONG, index, pos + 1);
+                        reversedTargets.setAtIndex(ValueLayout.JAVA_INT, pos, u);
+                        reversedWeights.setAtIndex(ValueLayout.JAVA_INT, pos, weight(e));
+                    }
+                }
+            });
+        }
+        return new OffHeapCsrGraph(arena, names, reversedOffsets, reversedTargets, reversedWeights);
+    }
+
+    // Row that holds edge: the last u with edgeStart(u) <= edge
+    private int rowOfEdge(long edge) {
+        int lo = 0, hi = vertexCount - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (edgeStart(mid) <= edge) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    /** Off-heap bytes held by this graph. */
+    public long offHeapBytes() {
+        return offsets.byteSize() + targets.byteSize() + weights.byteSize();
+    }
+}
@@ -0,0 +1,114 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk-synchronous parallel version of DagPathEngine.pathInDAG.
+ * Vertices are grouped by topological level (longest distance from a source
+ * vertex of the DAG); every vertex of a level depends only on earlier levels,
+ * so a whole level is relaxed in parallel. Relaxation is pull-based: each
+ * vertex reads its predecessors over the reverse CSR and writes only its own
+ * dist/pred slot, so no atomics or locks are needed.
+ * Distances equal the sequential engine's; on equal-length alternatives the
+ * chosen predecessor can differ.
+ */
+public class ParallelDagPathEngine {
+
+    /** Levels smaller than this are relaxed on the calling thread. */
+    private static final int PARALLEL_THRESHOLD = 2_048;
+
+    private final Graph reverse;
+    private final int[] levelOffsets; // level L holds levelVertices[levelOffsets[L] .. levelOffsets[L+1])
+    private final int[] levelVertices;
+    private final int[] levelOf;
+    private long relaxationCount = 0;
+
+    /** Precomputes the levels of g once; queries from any source can then reuse them. */
+    public ParallelDagPathEngine(Graph g, int[] topoOrder) {
+        if (topoOrder.length != g.vertexCount()) {
+            throw new IllegalArgumentException("Error: parallel DAG paths need a DAG, the graph has a cycle");
+        }
+        int n = g.vertexCount();
+        this.reverse = g.transpose();
+        this.levelOf = new int[n];
+        int levels = n == 0 ? 0 : 1;
+        for (int u : topoOrder) {
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                int v = g.target(e);
+                if (levelOf[v] < levelOf[u] + 1) {
+                    levelOf[v] = levelOf[u] + 1;
+                    levels = Math.max(levels, levelOf[v] + 1);
+                }
+            }
+        }
+        levelOffsets = new int[levels + 1];
+        for (int v = 0; v < n; v++) levelOffsets[levelOf[v] + 1]++;
+        for (int l = 0; l < levels; l++) levelOffsets[l + 1] += levelOffsets[l];
+        int[] cursor = Arrays.copyOf(levelOffsets, levels);
+        levelVertices = new int[n];
+        for (int v = 0; v < n; v++) levelVertices[cursor[levelOf[v]]++] = v;
+    }
+
+    public int levelCount() {
+        return levelOffsets.length - 1;
+    }
+
+    public DagPathEngine.Result pathInDAG(int source, boolean findShortest) {
+        int n = levelOf.length;
+        double initialDist = findShortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        double[] dist = new double[n];
+        int[] pred = new int[n];
+        Arrays.fill(dist, initialDist);
+        Arrays.fill(pred, -1);
+        dist[source] = 0.0;
+
+        // Levels before the source's cannot be reached from it
+        for (int level = levelOf[source] + 1; level < levelCount(); level++) {
+            int from = levelOffsets[level], to = levelOffsets[level + 1];
+            if (to - from < PARALLEL_THRESHOLD) {
+                relaxationCount += pull(from, to, dist, pred, findShortest, initialDist);
+            } else {
+                int chunks = Math.min((to - from) / (PARALLEL_THRESHOLD / 4), Runtime.getRuntime().availableProcessors() * 4);
+                int chunkSize = (to - from + chunks - 1) / chunks;
+                relaxationCount += IntStream.range(0, chunks).parallel()
+                        .mapToLong(c -> pull(from + c * chunkSize, Math.min(to, from + (c + 1) * chunkSize),
+                                dist, pred, findShortest, initialDist))
+                        .sum();
+            }
+        }
+        return new DagPathEngine.Result(source, findShortest, dist, pred);
+    }
+
+    // Each vertex of levelVertices[from..to) pulls from its predecessors; returns the relaxations done
+    private long pull(int from, int to, double[] dist, int[] pred, boolean findShortest, double initialDist) {
+        long relaxations = 0;
+        for (int i = from; i < to; i++) {
+            int v = levelVertices[i];
+            double best = initialDist;
+            int bestPred = -1;
+            for (long e = reverse.edgeStart(v), end = reverse.edgeEnd(v); e < end; e++) {
+                int u = reverse.target(e);
+                double du = dist[u];
+                if (du == initialDist) continue;
+                relaxations++;
+                double candidate = du + reverse.weight(e);
+                if (findShortest ? candidate < best : candidate > best) {
+                    best = candidate;
+                    bestPred = u;
+                }
+            }
+            dist[v] = best;
+            pred[v] = bestPred;
+        }
+        return relaxations;
+    }
+
+    public long relaxationCount() {
+        return relaxationCount;
+    }
+
+    public void resetRelaxationCount() {
+        relaxationCount = 0;
+    }
+}
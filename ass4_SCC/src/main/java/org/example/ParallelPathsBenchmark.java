@@ -0,0 +1,50 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Sequential pathInDAG vs level-synchronous parallel relaxation on a wide,
+ * shallow layered DAG, for shortest and longest paths from a super-source
+ * feeding the first layer.
+ * Usage: ParallelPathsBenchmark [layers width degree] (default 20 x 200,000 x 8)
+ */
+public class ParallelPathsBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int layers = args.length >= 3 ? Integer.parseInt(args[0]) : 20;
+        int width = args.length >= 3 ? Integer.parseInt(args[1]) : 200_000;
+        int degree = args.length >= 3 ? Integer.parseInt(args[2]) : 8;
+
+        // Vertex layers * width is a super-source with an edge to every first-layer vertex
+        int n = layers * width + 1;
+        int[][] layered = SyntheticGraphs.layeredDag(layers, width, degree, 21);
+        int[][] edges = Arrays.copyOf(layered, layered.length + width);
+        for (int i = 0; i < width; i++) edges[layered.length + i] = new int[] {n - 1, i, 1};
+        CsrGraph g = GraphLoader.fromEdges(n, edges);
+        int source = n - 1;
+
+        int[] topoOrder = new KahnEngine().sort(g);
+        ParallelDagPathEngine parallel = new ParallelDagPathEngine(g, topoOrder);
+        DagPathEngine sequential = new DagPathEngine();
+        System.out.printf("--- Parallel DAG Paths (n=%d, m=%d, levels=%d, cores=%d) ---\n",
+                n, g.edgeCount(), parallel.levelCount(), Runtime.getRuntime().availableProcessors());
+
+        for (boolean shortest : new boolean[] {true, false}) {
+            double sequentialMillis = Double.MAX_VALUE, parallelMillis = Double.MAX_VALUE;
+            DagPathEngine.Result a = null, b = null;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                a = sequential.pathInDAG(g, topoOrder, source, shortest);
+                sequentialMillis = Math.min(sequentialMillis, (System.nanoTime() - start) / 1_000_000.0);
+                start = System.nanoTime();
+                b = parallel.pathInDAG(source, shortest);
+                parallelMillis = Math.min(parallelMillis, (System.nanoTime() - start) / 1_000_000.0);
+            }
+            System.out.printf("%-8s sequential %.1f ms, parallel %.1f ms, speedup %.2fx, distances %s\n",
+                    shortest ? "SSSP" : "LPSP", sequentialMillis, parallelMillis, sequentialMillis / parallelMillis,
+                    Arrays.equals(a.dist, b.dist) ? "match" : "DIFFER");
+        }
+    }
+}
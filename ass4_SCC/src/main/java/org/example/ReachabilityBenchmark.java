@@ -0,0 +1,80 @@
+package org.example;
+
+import java.util.Random;
+
+/**
+ * Builds a ReachabilityIndex, checks it against plain BFS on a sample of
+ * queries, then measures query throughput on random (u, v) pairs.
+ * Usage: ReachabilityBenchmark [vertices edges queries] (default 1,000,000 x 1,500,000 x 5,000,000)
+ */
+public class ReachabilityBenchmark {
+
+    private static final int CHECKED_QUERIES = 2_000;
+
+    // Reference answer: BFS over the original graph
+    private static boolean bfs(Graph g, int u, int v, int[] seen, int mark, int[] queue) {
+        int head = 0, tail = 0;
+        queue[tail++] = u;
+        seen[u] = mark;
+        while (head < tail) {
+            int x = queue[head++];
+            if (x == v) return true;
+            for (long e = g.edgeStart(x), end = g.edgeEnd(x); e < end; e++) {
+                int y = g.target(e);
+                if (seen[y] != mark) {
+                    seen[y] = mark;
+                    queue[tail++] = y;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void run(String label, CsrGraph g, int queries) {
+        System.out.printf("\n%s (n=%d, m=%d)\n", label, g.vertexCount(), g.edgeCount());
+        ReachabilityIndex index = ReachabilityIndex.build(g);
+        int n = g.vertexCount();
+        Random random = new Random(5);
+
+        int[] seen = new int[n];
+        int[] queue = new int[n];
+        int checked = (int) Math.min(CHECKED_QUERIES, (long) n * n);
+        int wrong = 0;
+        for (int i = 1; i <= checked; i++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            if (index.reachable(u, v) != bfs(g, u, v, seen, i, queue)) wrong++;
+        }
+
+        int[] us = new int[queries], vs = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            us[i] = random.nextInt(n);
+            vs[i] = random.nextInt(n);
+        }
+        long start = System.nanoTime();
+        int positive = 0;
+        for (int i = 0; i < queries; i++) if (index.reachable(us[i], vs[i])) positive++;
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("  %d checked against BFS, %d wrong\n", checked, wrong);
+        System.out.printf("  %,d queries in %.3f s: %,.0f queries/s (%d reachable)\n",
+                queries, seconds, queries / seconds, positive);
+        index.printReport();
+    }
+
+    public static void main(String[] args) {
+        int n = args.length >= 3 ? Integer.parseInt(args[0]) : 1_000_000;
+        int m = args.length >= 3 ? Integer.parseInt(args[1]) : 1_500_000;
+        int queries = args.length >= 3 ? Integer.parseInt(args[2]) : 5_000_000;
+        System.out.println("--- Reachability Index Benchmark ---");
+        try {
+            run("large1.json", GraphLoader.loadJson("large1.json"), 100_000);
+            run("random sparse", GraphLoader.fromEdges(10_000, SyntheticGraphs.randomEdges(10_000, 12_000, false, 3)), queries);
+            run("random large", GraphLoader.fromEdges(n, SyntheticGraphs.randomEdges(n, m, false, 4)), queries);
+        } catch (RuntimeException e) {
+            System.err.println("\nA critical error occurred: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("\nAn unexpected error occurred during execution.");
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Answers "does u (transitively) reach v?" in the original graph from an index
+ * over the SCC condensation DAG.
+ *   - same SCC: true at once (compOf lookup);
+ *   - up to BITSET_LIMIT components: full transitive closure as bitsets,
+ *     built bit-parallel (64 components per word) in reverse topological order;
+ *   - larger DAGs: interval labels. A DFS-tree interval proves reachability,
+ *     GRAIL-style min-post intervals and the topological position disprove it,
+ *     and only the remaining queries fall back to a DFS pruned by the same labels.
+ */
+public class ReachabilityIndex {
+
+    /** Largest condensation that gets a full bitset closure (k^2 / 8 bytes, 32 MB at the limit). */
+    public static final int BITSET_LIMIT = 16_384;
+    private static final int LABELINGS = 3;
+
+    private final int[] compOf;
+    private final Graph dag;
+    private final int k;
+    private final int[] topoPos;
+
+    // Bitset mode
+    private long[][] closure;
+
+    // Interval mode
+    private int[] treePre, treeEnd;  // DFS-tree interval: v in [pre(u), end(u)] implies u reaches v
+    private int[][] low, post;       // GRAIL labels: u reaches v implies [low(v), post(v)] inside [low(u), post(u)]
+    private int[] visitStamp;
+    private int[] stack;
+    private int stamp;
+
+    private long buildNanos;
+    private long sameSccHits, labelAnswers, fallbackSearches;
+
+    /**
+     * @param compOf   component of every original vertex (SccEngine.compOf())
+     * @param dag      condensation DAG (Condensation.build)
+     * @param topoOrder topological order of dag (KahnEngine.sort)
+     */
+    public ReachabilityIndex(int[] compOf, Graph dag, int[] topoOrder) {
+        long start = System.nanoTime();
+        this.compOf = compOf;
+        this.dag = dag;
+        this.k = dag.vertexCount();
+        this.topoPos = new int[k];
+        for (int i = 0; i < topoOrder.length; i++) topoPos[topoOrder[i]] = i;
+
+        if (k <= BITSET_LIMIT) {
+            buildClosure(topoOrder);
+        } else {
+            buildIntervals(topoOrder);
+        }
+        buildNanos = System.nanoTime() - start;
+    }
+
+    public static ReachabilityIndex build(Graph g) {
+        SccEngine scc = new SccEngine().run(g);
+        CsrGraph dag = Condensation.build(g, scc);
+        return new ReachabilityIndex(scc.compOf(), dag, new KahnEngine().sort(dag));
+    }
+
+    private void buildClosure(int[] topoOrder) {
+        int words = (k + 63) >>> 6;
+        closure = new long[k][words];
+        for (int i = topoOrder.length - 1; i >= 0; i--) {
+            int c = topoOrder[i];
+            long[] row = closure[c];
+            row[c >>> 6] |= 1L << c;
+            for (long e = dag.edgeStart(c), end = dag.edgeEnd(c); e < end; e++) {
+                long[] successor = closure[dag.target(e)];
+                for (int w = 0; w < words; w++) row[w] |= successor[w];
+            }
+        }
+    }
+
+    private void buildIntervals(int[] topoOrder) {
+        treePre = new int[k];
+        treeEnd = new int[k];
+        low = new int[LABELINGS][k];
+        post = new int[LABELINGS][k];
+        visitStamp = new int[k];
+        stack = new int[k];
+        long[] cursor = new long[k];
+        int[] rotation = new int[k];
+        Random random = new Random(17);
+
+        for (int labeling = 0; labeling < LABELINGS; labeling++) {
+            int[] lo = low[labeling], po = post[labeling];
+            boolean[] visited = new boolean[k];
+            // Sources first in topological order for the tree labels, random roots otherwise
+            int[] roots = topoOrder.clone();
+            if (labeling > 0) {
+                for (int i = k - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int t = roots[i]; roots[i] = roots[j]; roots[j] = t;
+                }
+            }
+            int preCounter = 0, postCounter = 0;
+            for (int root : roots) {
+                if (visited[root]) continue;
+                int top = 0;
+                visited[root] = true;
+                stack[top++] = root;
+                cursor[root] = 0;
+                rotation[root] = labeling == 0 ? 0 : random.nextInt(Math.max(1, dag.outDegree(root)));
+                if (labeling == 0) treePre[root] = preCounter++;
+                lo[root] = Integer.MAX_VALUE;
+                while (top > 0) {
+                    int u = stack[top - 1];
+                    int degree = dag.outDegree(u);
+                    if (cursor[u] < degree) {
+                        // Children in rotated order so each labeling explores differently
+                        long e = dag.edgeStart(u) + (cursor[u]++ + rotation[u]) % degree;
+                        int v = dag.target(e);
+                        if (!visited[v]) {
+                            visited[v] = true;
+                            stack[top++] = v;
+                            cursor[v] = 0;
+                            rotation[v] = labeling == 0 ? 0 : random.nextInt(Math.max(1, dag.outDegree(v)));
+                            if (labeling == 0) treePre[v] = preCounter++;
+                            lo[v] = Integer.MAX_VALUE;
+                        } else {
+                            lo[u] = Math.min(lo[u], lo[v]);
+                        }
+                    } else {
+                        top--;
+                        po[u] = postCounter++;
+                        lo[u] = Math.min(lo[u], po[u]);
+                        if (labeling == 0) treeEnd[u] = preCounter - 1;
+                        if (top > 0) {
+                            int parent = stack[top - 1];
+                            lo[parent] = Math.min(lo[parent], lo[u]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** True if original vertex u reaches original vertex v (every vertex reaches itself). */
+    public boolean reachable(int u, int v) {
+        int cu = compOf[u], cv = compOf[v];
+        if (cu == cv) {
+            sameSccHits++;
+            return true;
+        }
+        return componentReachable(cu, cv);
+    }
+
+    /** Reachability between two components of the condensation. */
+    public boolean componentReachable(int cu, int cv) {
+        if (closure != null) {
+            labelAnswers++;
+            return (closure[cu][cv >>> 6] & (1L << cv)) != 0;
+        }
+        Boolean answer = byLabels(cu, cv);
+        if (answer != null) {
+            labelAnswers++;
+            return answer;
+        }
+        fallbackSearches++;
+        return prunedSearch(cu, cv);
+    }
+
+    // TRUE / FALSE when the labels decide, null when a search is needed
+    private Boolean byLabels(int cu, int cv) {
+        if (cu == cv) return Boolean.TRUE;
+        if (topoPos[cu] > topoPos[cv]) return Boolean.FALSE;
+        if (treePre[cu] <= treePre[cv] && treePre[cv] <= treeEnd[cu]) return Boolean.TRUE;
+        for (int i = 0; i < LABELINGS; i++) {
+            if (low[i][cv] < low[i][cu] || post[i][cv] > post[i][cu]) return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    private boolean prunedSearch(int cu, int cv) {
+        if (++stamp == 0) {
+            Arrays.fill(visitStamp, 0);
+            stamp = 1;
+        }
+        int top = 0;
+        stack[top++] = cu;
+        visitStamp[cu] = stamp;
+        while (top > 0) {
+            int c = stack[--top];
+            for (long e = dag.edgeStart(c), end = dag.edgeEnd(c); e < end; e++) {
+                int d = dag.target(e);
+                if (visitStamp[d] == stamp) continue;
+                visitStamp[d] = stamp;
+                Boolean answer = byLabels(d, cv);
+                if (answer == Boolean.TRUE) return true;
+                if (answer == null) stack[top++] = d;
+            }
+        }
+        return false;
+    }
+
+    public String mode() {
+        return closure != null ? "bitset closure" : "interval labels";
+    }
+
+    public double buildMillis() {
+        return buildNanos / 1_000_000.0;
+    }
+
+    /** Bytes held by the index itself (compOf and the DAG are owned by the caller). */
+    public long footprintBytes() {
+        long total = MemoryFootprint.primitiveArray(k, 4); // topoPos
+        if (closure != null) {
+            total += MemoryFootprint.refArray(k) + k * MemoryFootprint.primitiveArray(closure.length == 0 ? 0 : closure[0].length, 8);
+        } else {
+            total += (4 + 2L * LABELINGS) * MemoryFootprint.primitiveArray(k, 4);
+        }
+        return total;
+    }
+
+    public void printReport() {
+        System.out.println("\n--- Reachability Index Report ---");
+        System.out.printf("Mode: %s over %d components\n", mode(), k);
+        System.out.printf("Build Time: %.3f milliseconds\n", buildMillis());
+        System.out.printf("Index Memory: %,d bytes\n", footprintBytes());
+        System.out.printf("Queries: same-SCC %d, answered by index %d, pruned searches %d\n",
+                sameSccHits, labelAnswers, fallbackSearches);
+        System.out.println("------------------------------");
+    }
+}
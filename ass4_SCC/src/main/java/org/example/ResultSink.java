@@ -0,0 +1,60 @@
+package org.example;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streaming destination for pipeline results. Records are written as they are
+ * produced (one component, one order entry, one distance at a time), so output
+ * never needs the whole result as a List or a joined String.
+ * Vertices and components are passed as ids; the sink resolves names itself.
+ */
+public interface ResultSink extends Closeable {
+
+    enum Format { TEXT, CSV, JSONL, BINARY }
+
+    /** Free-form heading; only the text format prints it. */
+    void section(String title) throws IOException;
+
+    /** One SCC: members[from..to) are its vertex ids. */
+    void component(int c, int[] members, int from, int to) throws IOException;
+
+    /** Successors of component c in the condensation DAG. */
+    void componentEdges(int c, Graph dag) throws IOException;
+
+    /** Component at the given position of the topological order. */
+    void componentOrder(int position, int c) throws IOException;
+
+    /** Original task at the given position of the derived task order. */
+    void taskOrder(int position, int v) throws IOException;
+
+    /** Distance of v in a path run ("shortest", "longest"); infinite means unreachable. */
+    void distance(String run, int v, double dist) throws IOException;
+
+    /** A reconstructed path of a run, from source to target. */
+    void path(String run, int[] vertices) throws IOException;
+
+    /**
+     * Opens a sink. A null file writes to standard output through its own
+     * buffer (bypassing the synchronized System.out); close() then only flushes.
+     * The binary format always needs a file.
+     */
+    static ResultSink open(Format format, String file, VertexNames vertices, VertexNames components) throws IOException {
+        if (format == Format.BINARY) {
+            if (file == null) throw new IllegalArgumentException("Error: binary output needs a file");
+            return new BinaryResultSink(Path.of(file), vertices, components);
+        }
+        boolean console = file == null;
+        Writer out = console
+                ? new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8);
+        return switch (format) {
+            case TEXT -> new TextResultSink(out, console, vertices, components);
+            case CSV -> new CsvResultSink(out, console, vertices, components);
+            case JSONL -> new JsonLinesResultSink(out, console, vertices, components);
+            case BINARY -> throw new IllegalStateException();
+        };
+    }
+}
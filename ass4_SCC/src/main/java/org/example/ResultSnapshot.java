@@ -0,0 +1,355 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * On-disk snapshot of computed results (component ids, condensation CSR,
+ * topological order, path tables), keyed by a content hash of the input file,
+ * the settings that shape the results and the engine revision that computed them.
+ *
+ * File layout: a header (magic, version, byte order, key, total length, section
+ * directory), then every section as a raw, 8-byte aligned array. A snapshot is
+ * written to a temporary file and renamed into place, so a crashed run never
+ * leaves a half-written snapshot. Reading memory-maps the file: arrays are
+ * either copied out in bulk or, for CSR sections, used in place as an
+ * OffHeapCsrGraph. A snapshot whose key, version, byte order or length does not
+ * match is stale and is ignored.
+ */
+public class ResultSnapshot implements AutoCloseable {
+
+    private static final long MAGIC = 0x3150414E53414144L; // "DAASNAP1" read as a little-endian long
+    private static final int VERSION = 1;
+    // Revision of the engines behind the stored results: VERSION covers only the file layout, so bump
+    // this whenever an engine computes different results for the same input and settings
+    // (e.g. another witness cycle), and every older snapshot stops matching
+    public static final int ENGINE_REVISION = 2;
+    private static final int HASH_CHUNK = 64 << 20;
+
+    private static final byte INTS = 1, LONGS = 2, DOUBLES = 3, BYTES = 4;
+
+    private final Arena arena;
+    private final MemorySegment data;
+    private final Map<String, MemorySegment> sections;
+
+    private ResultSnapshot(Arena arena, MemorySegment data, Map<String, MemorySegment> sections) {
+        this.arena = arena;
+        this.data = data;
+        this.sections = sections;
+    }
+
+    // --- Keys ---
+
+    /**
+     * SHA-256 of the input file combined with ENGINE_REVISION and the settings. The file is hashed in
+     * 64 MB chunks in parallel and the chunk digests are hashed again, so the key
+     * depends on every byte and still reads the input at full speed.
+     * The file is resolved like GraphLoader.load: edge lists by path, JSON as a resource.
+     */
+    public static String key(String fileName, String... settings) throws IOException {
+        byte[][] chunkDigests;
+        String lower = fileName.toLowerCase();
+        if (lower.endsWith(".csv") || lower.endsWith(".tsv") || lower.endsWith(".txt")) {
+            try (Arena arena = Arena.ofShared();
+                 FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+                MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+                int chunks = (int) Math.max(1, (file.byteSize() + HASH_CHUNK - 1) / HASH_CHUNK);
+                chunkDigests = IntStream.range(0, chunks).parallel().mapToObj(c -> {
+                    long from = (long) c * HASH_CHUNK;
+                    MessageDigest digest = sha256();
+                    digest.update(file.asSlice(from, Math.min(HASH_CHUNK, file.byteSize() - from)).asByteBuffer());
+                    return digest.digest();
+                }).toArray(byte[][]::new);
+            }
+        } else {
+            InputStream is = ResultSnapshot.class.getClassLoader().getResourceAsStream(fileName);
+            if (is == null) throw new RuntimeException("Error: File not found in resources: " + fileName);
+            try (is) {
+                chunkDigests = new byte[][] {sha256().digest(is.readAllBytes())};
+            }
+        }
+        MessageDigest combined = sha256();
+        for (byte[] chunkDigest : chunkDigests) combined.update(chunkDigest);
+        combined.update(("\0engine=" + ENGINE_REVISION).getBytes(StandardCharsets.UTF_8));
+        for (String setting : settings) combined.update(("\0" + setting).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(combined.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Error: SHA-256 is not available", e);
+        }
+    }
+
+    private static Path fileOf(Path directory, String pipeline, String key) {
+        return directory.resolve(pipeline + "-" + key.substring(0, 32) + ".snap");
+    }
+
+    // --- Writing ---
+
+    /** Collects sections in memory and writes them as one snapshot file. */
+    public static class Builder {
+        private final Map<String, Object> arrays = new LinkedHashMap<>();
+
+        public Builder put(String name, int[] values) {
+            arrays.put(name, values);
+            return this;
+        }
+
+        public Builder put(String name, long[] values) {
+            arrays.put(name, values);
+            return this;
+        }
+
+        public Builder put(String name, double[] values) {
+            arrays.put(name, values);
+            return this;
+        }
+
+        /** Vertex names as one block of length-prefixed UTF-8 strings, in id order. */
+        public Builder put(String name, VertexNames names) {
+            byte[][] encoded = new byte[names.size()][];
+            int total = 0;
+            for (int v = 0; v < encoded.length; v++) {
+                encoded[v] = names.nameOf(v).getBytes(StandardCharsets.UTF_8);
+                total += 4 + encoded[v].length;
+            }
+            byte[] block = new byte[total];
+            MemorySegment out = MemorySegment.ofArray(block);
+            long pos = 0;
+            for (byte[] bytes : encoded) {
+                out.set(ValueLayout.JAVA_INT_UNALIGNED, pos, bytes.length);
+                MemorySegment.copy(bytes, 0, out, ValueLayout.JAVA_BYTE, pos + 4, bytes.length);
+                pos += 4 + bytes.length;
+            }
+            arrays.put(name, block);
+            return this;
+        }
+
+        /** Condensation or any CSR graph as name.offsets (longs), name.targets and name.weights. */
+        public Builder put(String name, Graph g) {
+            long[] offsets = new long[g.vertexCount() + 1];
+            for (int u = 0; u < g.vertexCount(); u++) offsets[u + 1] = g.edgeEnd(u);
+            int[] targets = new int[(int) g.edgeCount()];
+            int[] weights = new int[targets.length];
+            for (int e = 0; e < targets.length; e++) {
+                targets[e] = g.target(e);
+                weights[e] = g.weight(e);
+            }
+            return put(name + ".offsets", offsets).put(name + ".targets", targets).put(name + ".weights", weights);
+        }
+
+        /** Writes the snapshot for (pipeline, key) into directory and returns its path. */
+        public Path save(Path directory, String pipeline, String key) throws IOException {
+            Files.createDirectories(directory);
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+
+            // Header size first: fixed fields, key, and one directory entry per section
+            long headerBytes = 8 + 4 + 4 + 4 + keyBytes.length + 8 + 4;
+            for (String name : arrays.keySet()) headerBytes += 4 + name.getBytes(StandardCharsets.UTF_8).length + 1 + 8 + 8;
+            long pos = align(headerBytes);
+            Map<String, Long> offsets = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : arrays.entrySet()) {
+                offsets.put(entry.getKey(), pos);
+                pos = align(pos + byteSize(entry.getValue()));
+            }
+            long totalBytes = pos;
+
+            Path target = fileOf(directory, pipeline, key);
+            Path temporary = Files.createTempFile(directory, pipeline, ".tmp");
+            try (Arena arena = Arena.ofConfined();
+                 FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MemorySegment out = channel.map(FileChannel.MapMode.READ_WRITE, 0, totalBytes, arena);
+                long h = 0;
+                out.set(ValueLayout.JAVA_LONG_UNALIGNED, h, MAGIC);
+                out.set(ValueLayout.JAVA_INT_UNALIGNED, h + 8, VERSION);
+                out.set(ValueLayout.JAVA_INT_UNALIGNED, h + 12, ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 1 : 2);
+                out.set(ValueLayout.JAVA_INT_UNALIGNED, h + 16, keyBytes.length);
+                MemorySegment.copy(keyBytes, 0, out, ValueLayout.JAVA_BYTE, h + 20, keyBytes.length);
+                h += 20 + keyBytes.length;
+                out.set(ValueLayout.JAVA_LONG_UNALIGNED, h, totalBytes);
+                out.set(ValueLayout.JAVA_INT_UNALIGNED, h + 8, arrays.size());
+                h += 12;
+                for (Map.Entry<String, Object> entry : arrays.entrySet()) {
+                    byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                    Object values = entry.getValue();
+                    out.set(ValueLayout.JAVA_INT_UNALIGNED, h, name.length);
+                    MemorySegment.copy(name, 0, out, ValueLayout.JAVA_BYTE, h + 4, name.length);
+                    h += 4 + name.length;
+                    out.set(ValueLayout.JAVA_BYTE, h, typeOf(values));
+                    out.set(ValueLayout.JAVA_LONG_UNALIGNED, h + 1, length(values));
+                    out.set(ValueLayout.JAVA_LONG_UNALIGNED, h + 9, offsets.get(entry.getKey()));
+                    h += 17;
+                    MemorySegment.copy(segmentOf(values), 0, out, offsets.get(entry.getKey()), byteSize(values));
+                }
+                out.force();
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return target;
+        }
+
+        private static long align(long bytes) {
+            return (bytes + 7) & ~7L;
+        }
+
+        private static byte typeOf(Object values) {
+            if (values instanceof int[]) return INTS;
+            if (values instanceof long[]) return LONGS;
+            if (values instanceof double[]) return DOUBLES;
+            return BYTES;
+        }
+
+        private static long length(Object values) {
+            if (values instanceof int[] a) return a.length;
+            if (values instanceof long[] a) return a.length;
+            if (values instanceof double[] a) return a.length;
+            return ((byte[]) values).length;
+        }
+
+        private static long byteSize(Object values) {
+            return length(values) * switch (typeOf(values)) {
+                case INTS -> 4;
+                case LONGS, DOUBLES -> 8;
+                default -> 1;
+            };
+        }
+
+        // Heap arrays are viewed as segments for one bulk copy each
+        private static MemorySegment segmentOf(Object values) {
+            if (values instanceof int[] a) return MemorySegment.ofArray(a);
+            if (values instanceof long[] a) return MemorySegment.ofArray(a);
+            if (values instanceof double[] a) return MemorySegment.ofArray(a);
+            return MemorySegment.ofArray((byte[]) values);
+        }
+    }
+
+    // --- Reading ---
+
+    /**
+     * Maps the snapshot for (pipeline, key), or returns null if there is none or it
+     * is stale or damaged (wrong magic, version, byte order, key or length).
+     */
+    public static ResultSnapshot open(Path directory, String pipeline, String key) throws IOException {
+        Path file = fileOf(directory, pipeline, key);
+        if (!Files.isRegularFile(file)) return null;
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MemorySegment data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            Map<String, MemorySegment> sections = readHeader(data, key);
+            if (sections == null) {
+                arena.close();
+                return null;
+            }
+            return new ResultSnapshot(arena, data, sections);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    private static Map<String, MemorySegment> readHeader(MemorySegment data, String key) {
+        long size = data.byteSize();
+        if (size < 32 || data.get(ValueLayout.JAVA_LONG_UNALIGNED, 0) != MAGIC) return null;
+        if (data.get(ValueLayout.JAVA_INT_UNALIGNED, 8) != VERSION) return null;
+        int order = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 1 : 2;
+        if (data.get(ValueLayout.JAVA_INT_UNALIGNED, 12) != order) return null;
+        int keyLength = data.get(ValueLayout.JAVA_INT_UNALIGNED, 16);
+        if (keyLength < 0 || 20L + keyLength + 12 > size) return null;
+        String storedKey = new String(data.asSlice(20, keyLength).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+        if (!storedKey.equals(key)) return null;
+        long h = 20 + keyLength;
+        if (data.get(ValueLayout.JAVA_LONG_UNALIGNED, h) != size) return null; // truncated or padded
+        int count = data.get(ValueLayout.JAVA_INT_UNALIGNED, h + 8);
+        h += 12;
+        Map<String, MemorySegment> sections = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            if (h + 4 > size) return null;
+            int nameLength = data.get(ValueLayout.JAVA_INT_UNALIGNED, h);
+            if (nameLength < 0 || h + 4 + nameLength + 17 > size) return null;
+            String name = new String(data.asSlice(h + 4, nameLength).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+            h += 4 + nameLength;
+            byte type = data.get(ValueLayout.JAVA_BYTE, h);
+            long length = data.get(ValueLayout.JAVA_LONG_UNALIGNED, h + 1);
+            long offset = data.get(ValueLayout.JAVA_LONG_UNALIGNED, h + 9);
+            h += 17;
+            long elementBytes = type == INTS ? 4 : type == BYTES ? 1 : 8;
+            if (length < 0 || offset < h || offset + length * elementBytes > size) return null;
+            sections.put(name, data.asSlice(offset, length * elementBytes));
+        }
+        return sections;
+    }
+
+    public boolean has(String name) {
+        return sections.containsKey(name);
+    }
+
+    private MemorySegment section(String name) {
+        MemorySegment segment = sections.get(name);
+        if (segment == null) throw new RuntimeException("Error: snapshot has no section " + name);
+        return segment;
+    }
+
+    public int[] ints(String name) {
+        return section(name).toArray(ValueLayout.JAVA_INT);
+    }
+
+    public long[] longs(String name) {
+        return section(name).toArray(ValueLayout.JAVA_LONG);
+    }
+
+    public double[] doubles(String name) {
+        return section(name).toArray(ValueLayout.JAVA_DOUBLE);
+    }
+
+    public VertexNames names(String name) {
+        MemorySegment block = section(name);
+        byte[] bytes = block.toArray(ValueLayout.JAVA_BYTE);
+        VertexNames names = new VertexNames();
+        MemorySegment in = MemorySegment.ofArray(bytes);
+        for (int pos = 0; pos < bytes.length; ) {
+            int length = in.get(ValueLayout.JAVA_INT_UNALIGNED, pos);
+            names.intern(bytes, pos + 4, pos + 4 + length);
+            pos += 4 + length;
+        }
+        return names;
+    }
+
+    /** CSR saved with Builder.put(name, graph), used in place from the mapping (no copy). */
+    public OffHeapCsrGraph graph(String name, VertexNames names) {
+        return OffHeapCsrGraph.wrap(arena, names, section(name + ".offsets"),
+                section(name + ".targets"), section(name + ".weights"));
+    }
+
+    /** Bytes of the mapped snapshot file. */
+    public long byteSize() {
+        return data.byteSize();
+    }
+
+    /** Unmaps the file; graphs returned by graph() become invalid. */
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
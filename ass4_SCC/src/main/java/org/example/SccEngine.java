@@ -0,0 +1,295 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Kosaraju's algorithm over the int-indexed Graph interface.
+ * Both DFS passes are iterative (explicit vertex and edge-cursor stacks), so
+ * deep graphs cannot overflow the thread stack. Components are numbered in
+ * the order pass 2 discovers them, which is a topological order of the
+ * condensation DAG.
+ */
+public class SccEngine {
+
+    private long dfsVisits = 0;
+    private long dfsEdges = 0;
+
+    private int[] compOf;
+    private int componentCount;
+    private int[] componentOffsets;
+    private int[] componentMembers;
+    private int[] byRank; // vertices in rank order once canonicalized, else null
+
+    /**
+     * Computes the SCCs of g; transpose is g.transpose() (passed in so callers can reuse it).
+     * Edges are read through EdgeCursors, whose states are the per-vertex DFS positions.
+     */
+    public SccEngine run(Graph g, Graph transpose) {
+        int n = g.vertexCount();
+        int[] order = new int[n];
+        int orderSize = 0;
+        int[] stackV = new int[n];
+        long[] stackE = new long[n];
+        boolean[] visited = new boolean[n];
+        EdgeCursor cursor = g.cursor();
+
+        // DFS Pass 1: finish order on G
+        for (int s = 0; s < n; s++) {
+            if (visited[s]) continue;
+            int top = 0;
+            visited[s] = true;
+            dfsVisits++;
+            stackV[top] = s;
+            cursor.reset(s);
+            stackE[top++] = cursor.state();
+            while (top > 0) {
+                int u = stackV[top - 1];
+                cursor.restore(u, stackE[top - 1]);
+                if (cursor.next()) {
+                    stackE[top - 1] = cursor.state();
+                    dfsEdges++;
+                    int v = cursor.target();
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        dfsVisits++;
+                        stackV[top] = v;
+                        cursor.reset(v);
+                        stackE[top++] = cursor.state();
+                    }
+                } else {
+                    top--;
+                    order[orderSize++] = u;
+                }
+            }
+        }
+
+        // DFS Pass 2: reverse finish order on G^T, compOf doubles as the visited set
+        compOf = new int[n];
+        Arrays.fill(compOf, -1);
+        componentCount = 0;
+        cursor = transpose.cursor();
+        for (int i = n - 1; i >= 0; i--) {
+            int s = order[i];
+            if (compOf[s] != -1) continue;
+            int c = componentCount++;
+            int top = 0;
+            compOf[s] = c;
+            dfsVisits++;
+            stackV[top] = s;
+            cursor.reset(s);
+            stackE[top++] = cursor.state();
+            while (top > 0) {
+                int u = stackV[top - 1];
+                cursor.restore(u, stackE[top - 1]);
+                if (cursor.next()) {
+                    stackE[top - 1] = cursor.state();
+                    dfsEdges++;
+                    int v = cursor.target();
+                    if (compOf[v] == -1) {
+                        compOf[v] = c;
+                        dfsVisits++;
+                        stackV[top] = v;
+                        cursor.reset(v);
+                        stackE[top++] = cursor.state();
+                    }
+                } else {
+                    top--;
+                }
+            }
+        }
+        componentOffsets = null;
+        componentMembers = null;
+        byRank = null;
+        return this;
+    }
+
+    /** Engine holding results computed earlier (e.g. restored from a ResultSnapshot). */
+    public static SccEngine restore(int[] compOf, int[] componentOffsets, int[] componentMembers) {
+        SccEngine scc = new SccEngine();
+        scc.compOf = compOf;
+        scc.componentCount = componentOffsets.length - 1;
+        scc.componentOffsets = componentOffsets;
+        scc.componentMembers = componentMembers;
+        return scc;
+    }
+
+    public SccEngine run(Graph g) {
+        return run(g, g.transpose());
+    }
+
+    /** Engine over components found elsewhere (e.g. DenseGraph.scc), ids 0..componentCount-1 in any order. */
+    static SccEngine fromComponents(int[] compOf, int componentCount) {
+        SccEngine scc = new SccEngine();
+        scc.compOf = compOf;
+        scc.componentCount = componentCount;
+        return scc;
+    }
+
+    /**
+     * Components of a DAG: every vertex is its own component, numbered by its
+     * position in order (a topological order of all vertices, e.g. from KahnEngine).
+     */
+    public static SccEngine singletons(int[] order) {
+        int[] compOf = new int[order.length];
+        int[] offsets = new int[order.length + 1];
+        for (int i = 0; i < order.length; i++) {
+            compOf[order[i]] = i;
+            offsets[i + 1] = i + 1;
+        }
+        return restore(compOf, offsets, order.clone());
+    }
+
+    /**
+     * Computes the SCCs of g when settled is a Kahn prefix of it (vertices reached
+     * before Kahn stalled, so none lies on a cycle): those become singleton
+     * components 0..settled.length-1 in that order, and Kosaraju runs only on the
+     * subgraph induced by the remaining vertices. Components still come out in a
+     * topological order of the condensation, since no edge leads back into the prefix.
+     * When the prefix is under half the graph, copying the residual costs more than it
+     * saves, so Kosaraju runs on all of g instead (same components, Kosaraju numbering).
+     */
+    public SccEngine runResidual(Graph g, int[] settled) {
+        int n = g.vertexCount();
+        if (2L * settled.length < n) return run(g);
+        int[] local = new int[n];
+        Arrays.fill(local, -1);
+        for (int v : settled) local[v] = -2;
+        int[] residual = new int[n - settled.length];
+        int r = 0;
+        for (int v = 0; v < n; v++) {
+            if (local[v] == -1) {
+                local[v] = r;
+                residual[r++] = v;
+            }
+        }
+
+        SccEngine inner = new SccEngine().run(induced(g, local, residual, false), induced(g, local, residual, true));
+        dfsVisits += inner.dfsVisits;
+        dfsEdges += inner.dfsEdges;
+        compOf = new int[n];
+        for (int i = 0; i < settled.length; i++) compOf[settled[i]] = i;
+        for (int i = 0; i < r; i++) compOf[residual[i]] = settled.length + inner.compOf[i];
+        componentCount = settled.length + inner.componentCount;
+        componentOffsets = null;
+        componentMembers = null;
+        byRank = null;
+        return this;
+    }
+
+    // Subgraph on the vertices with local[v] >= 0, renumbered to local ids (or its transpose); no names
+    private static CsrGraph induced(Graph g, int[] local, int[] vertices, boolean reversed) {
+        int r = vertices.length;
+        int[] offsets = new int[r + 1];
+        EdgeCursor edges = g.cursor();
+        for (int i = 0; i < r; i++) {
+            int u = vertices[i];
+            for (edges.reset(u); edges.next(); ) {
+                int v = local[edges.target()];
+                if (v >= 0) offsets[(reversed ? v : i) + 1]++;
+            }
+        }
+        for (int i = 0; i < r; i++) offsets[i + 1] += offsets[i];
+        int[] targets = new int[offsets[r]];
+        int[] weights = new int[offsets[r]];
+        int[] cursor = Arrays.copyOf(offsets, r);
+        for (int i = 0; i < r; i++) {
+            int u = vertices[i];
+            for (edges.reset(u); edges.next(); ) {
+                int v = local[edges.target()];
+                if (v < 0) continue;
+                int pos = reversed ? cursor[v]++ : cursor[i]++;
+                targets[pos] = reversed ? i : v;
+                weights[pos] = edges.weight();
+            }
+        }
+        return new CsrGraph(null, offsets, targets, weights);
+    }
+
+    /**
+     * Renumbers the components canonically: component ids follow the priority-aware
+     * Kahn order of the condensation, where each component is keyed by the lowest
+     * rank among its members, and members are listed by rank. With
+     * TieBreak.LEXICOGRAPHIC ranks the numbering depends only on the graph itself.
+     */
+    public SccEngine canonicalize(Graph g, int[] rank) {
+        return canonicalizeWith(Condensation.build(g, this), rank);
+    }
+
+    /**
+     * canonicalize given the condensation under the current component ids, for
+     * callers that never hold g in one piece (ShardCoordinator merges it from the
+     * shards); only its edges are read, and parallel edges are allowed.
+     */
+    public SccEngine canonicalizeWith(Graph condensation, int[] rank) {
+        int n = compOf.length;
+        int[] key = new int[componentCount];
+        Arrays.fill(key, Integer.MAX_VALUE);
+        for (int v = 0; v < n; v++) key[compOf[v]] = Math.min(key[compOf[v]], rank[v]);
+
+        int[] order = new KahnEngine().sort(condensation, key);
+        int[] renumber = new int[componentCount];
+        for (int i = 0; i < componentCount; i++) renumber[order[i]] = i;
+        for (int v = 0; v < n; v++) compOf[v] = renumber[compOf[v]];
+
+        byRank = new int[n];
+        for (int v = 0; v < n; v++) byRank[rank[v]] = v;
+        componentOffsets = null;
+        componentMembers = null;
+        return this;
+    }
+
+    /** Component id of every vertex. */
+    public int[] compOf() {
+        return compOf;
+    }
+
+    public int componentCount() {
+        return componentCount;
+    }
+
+    /** Vertices of component c, by rank once canonicalized, else by increasing id. */
+    public int[] members(int c) {
+        groupMembers();
+        return Arrays.copyOfRange(componentMembers, componentOffsets[c], componentOffsets[c + 1]);
+    }
+
+    public int componentSize(int c) {
+        groupMembers();
+        return componentOffsets[c + 1] - componentOffsets[c];
+    }
+
+    /** Members of all components as one CSR: offsets has componentCount + 1 entries. */
+    public int[] componentOffsets() {
+        groupMembers();
+        return componentOffsets;
+    }
+
+    public int[] componentMembers() {
+        groupMembers();
+        return componentMembers;
+    }
+
+    // Counting sort of vertices by component id (stable, so rank or id order is kept)
+    private void groupMembers() {
+        if (componentOffsets != null) return;
+        int[] offsets = new int[componentCount + 1];
+        for (int c : compOf) offsets[c + 1]++;
+        for (int c = 0; c < componentCount; c++) offsets[c + 1] += offsets[c];
+        int[] cursor = Arrays.copyOf(offsets, componentCount);
+        int[] members = new int[compOf.length];
+        for (int i = 0; i < compOf.length; i++) {
+            int v = byRank == null ? i : byRank[i];
+            members[cursor[compOf[v]]++] = v;
+        }
+        componentOffsets = offsets;
+        componentMembers = members;
+    }
+
+    public long dfsVisits() {
+        return dfsVisits;
+    }
+
+    public long dfsEdges() {
+        return dfsEdges;
+    }
+}
@@ -0,0 +1,525 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * SCCs and DAG paths over a graph split across worker JVMs on one machine.
+ * Vertices are partitioned into shards. One pass over the edges appends each
+ * edge to bucket files of the shards that own its ends; then every shard's out-
+ * and in-edges are built from its buckets, one shard at a time, and written to a
+ * ResultSnapshot file that its ShardWorker maps in place. With a streaming
+ * EdgeSource (EdgeListLoader.stream) no process holds more than one shard's
+ * edges; a source over an in-memory graph of course keeps that graph.
+ * The workers then run in bulk-synchronous supersteps: compute on local vertices
+ * until nothing changes, send one combined batch of messages per destination
+ * shard, wait for the others. Batches travel over loopback sockets through the
+ * coordinator (star routing), which forwards them chunk by chunk as it reads
+ * them and sums the per-superstep aggregates that decide termination.
+ * The coordinator keeps only O(vertices) results and the condensation, which it
+ * needs for the canonical component ids of SccEngine.canonicalize.
+ */
+public class ShardCoordinator {
+
+    public enum Partition {
+        /** Contiguous id ranges: keeps the locality of input or BFS ordered ids, so fewer edges cross shards. */
+        BLOCK,
+        /** Vertex id modulo the shard count: balanced whatever the id order, but most edges cross shards. */
+        HASH;
+
+        int owner(int v, int n, int shards) {
+            return this == BLOCK ? v / blockSize(n, shards) : v % shards;
+        }
+
+        int local(int v, int n, int shards) {
+            return this == BLOCK ? v % blockSize(n, shards) : v / shards;
+        }
+
+        int global(int shard, int local, int n, int shards) {
+            return this == BLOCK ? shard * blockSize(n, shards) + local : local * shards + shard;
+        }
+
+        int size(int shard, int n, int shards) {
+            if (this == HASH) return shard < n ? (n - shard + shards - 1) / shards : 0;
+            return Math.max(0, Math.min(blockSize(n, shards), n - shard * blockSize(n, shards)));
+        }
+
+        private static int blockSize(int n, int shards) {
+            return Math.max(1, (n + shards - 1) / shards);
+        }
+    }
+
+    // Commands from the coordinator to its workers
+    static final int SCC = 1, CONDENSE = 2, PATHS = 3, STATS = 4, EXIT = 5;
+
+    // Aggregates every worker sends each superstep; the coordinator returns their sums
+    static final int SENT = 0, REMAINING = 1, DONE = 2, AGGREGATES = 3;
+
+    // Sections of a shard file: rows are the shard's local vertices, targets global ids
+    static final String OUT_EDGES = "out", IN_EDGES = "in";
+
+    private static final int ACCEPT_TIMEOUT_MILLIS = 60_000;
+    private static final int SOCKET_BUFFER = 1 << 16;
+    private static final int BUCKET_BUFFER = 12 << 16; // whole (row, other end, weight) records
+
+    private final int shards;
+    private final Partition partition;
+
+    // Connections of the current run, indexed by shard
+    private DataInputStream[] in;
+    private DataOutputStream[] out;
+    private long routedBytes, resultBytes;
+    private final byte[] relay = new byte[SOCKET_BUFFER];
+
+    public ShardCoordinator(int shards, Partition partition) {
+        if (shards < 1) throw new IllegalArgumentException("Error: at least one shard is needed, got " + shards);
+        this.shards = shards;
+        this.partition = partition;
+    }
+
+    /** Partition and traffic figures of one shard; times in milliseconds. */
+    public static class ShardStats {
+        public int vertices;
+        public long edges;
+        public long cutEdges;        // out-edges to vertices of other shards
+        public long messages;        // records sent after combining
+        public long bytesSent;
+        public long bytesReceived;
+        public double computeMillis;
+        public double exchangeMillis; // combining, sending, and waiting for the slowest shard
+    }
+
+    public static class Result {
+        public final SccEngine scc;                  // canonical ids, as SccEngine.canonicalize
+        public final DagPathEngine.Result shortest;  // null without a source or if the graph is not a DAG
+        public final DagPathEngine.Result longest;
+        public final Partition partition;
+        public final ShardStats[] shards;
+        public final int sccSupersteps, pathSupersteps;
+        public final long routedBytes;               // superstep batches, all through the coordinator
+        public final long resultBytes;               // result gathering and the component broadcast
+        public final double partitionMillis, startupMillis, sccMillis, pathMillis;
+
+        Result(SccEngine scc, DagPathEngine.Result shortest, DagPathEngine.Result longest, Partition partition,
+               ShardStats[] shards, int sccSupersteps, int pathSupersteps, long routedBytes, long resultBytes,
+               double partitionMillis, double startupMillis, double sccMillis, double pathMillis) {
+            this.scc = scc;
+            this.shortest = shortest;
+            this.longest = longest;
+            this.partition = partition;
+            this.shards = shards;
+            this.sccSupersteps = sccSupersteps;
+            this.pathSupersteps = pathSupersteps;
+            this.routedBytes = routedBytes;
+            this.resultBytes = resultBytes;
+            this.partitionMillis = partitionMillis;
+            this.startupMillis = startupMillis;
+            this.sccMillis = sccMillis;
+            this.pathMillis = pathMillis;
+        }
+
+        public long edgeCount() {
+            return Arrays.stream(shards).mapToLong(s -> s.edges).sum();
+        }
+
+        public long cutEdges() {
+            return Arrays.stream(shards).mapToLong(s -> s.cutEdges).sum();
+        }
+
+        public long messages() {
+            return Arrays.stream(shards).mapToLong(s -> s.messages).sum();
+        }
+
+        public void print() {
+            System.out.printf("\n--- Sharded Run (%d shards, %s partition) ---\n", shards.length, partition);
+            System.out.printf("Partitioning: %.3f ms, Worker Start-up: %.3f ms\n", partitionMillis, startupMillis);
+            System.out.printf("SCC: %.3f ms in %d supersteps, Paths: %.3f ms in %d supersteps\n",
+                    sccMillis, sccSupersteps, pathMillis, pathSupersteps);
+            long m = edgeCount();
+            System.out.printf("Edge Cut: %d of %d edges cross shards (%.1f%%)\n",
+                    cutEdges(), m, m == 0 ? 0 : 100.0 * cutEdges() / m);
+            System.out.printf("Communication: %d messages, %.1f KB of batches, %.1f KB of results and broadcasts\n",
+                    messages(), routedBytes / 1024.0, resultBytes / 1024.0);
+            System.out.printf("%5s | %9s | %10s | %10s | %10s | %10s | %10s | %10s | %10s\n", "shard", "vertices",
+                    "edges", "cut", "messages", "sent KB", "recv KB", "compute ms", "exch. ms");
+            for (int s = 0; s < shards.length; s++) {
+                ShardStats stats = shards[s];
+                System.out.printf("%5d | %9d | %10d | %10d | %10d | %10.1f | %10.1f | %10.3f | %10.3f\n", s,
+                        stats.vertices, stats.edges, stats.cutEdges, stats.messages, stats.bytesSent / 1024.0,
+                        stats.bytesReceived / 1024.0, stats.computeMillis, stats.exchangeMillis);
+            }
+        }
+    }
+
+    /**
+     * Components of the graph (ids canonical under rank) and, for a source >= 0 on
+     * a DAG, shortest and longest distances from it. edges is read once.
+     */
+    public Result run(VertexNames names, EdgeSource edges, int[] rank, int source) throws IOException {
+        int n = names.size();
+        ShardStats[] stats = new ShardStats[shards];
+        for (int s = 0; s < shards; s++) stats[s] = new ShardStats();
+        Path directory = Files.createTempDirectory("shards");
+        String key = String.format("%016x%016x", ProcessHandle.current().pid(), System.nanoTime()); // hex, like content keys
+        Process[] workers = new Process[shards];
+        Socket[] sockets = new Socket[shards];
+        in = new DataInputStream[shards];
+        out = new DataOutputStream[shards];
+        routedBytes = 0;
+        resultBytes = 0;
+        try {
+            long start = System.nanoTime();
+            writeShards(n, edges, directory, key, stats);
+            long partitioned = System.nanoTime();
+            connect(workers, sockets, n, directory, key);
+            long connected = System.nanoTime();
+
+            // SCC: supersteps until every worker reports done, then the roots and condensation edges
+            broadcast(SCC);
+            int sccSupersteps = 0;
+            while (superstep()[DONE] < shards) sccSupersteps++;
+            int[] roots = new int[n];
+            for (int s = 0; s < shards; s++) {
+                int[] local = readInts(in[s], partition.size(s, n, shards));
+                resultBytes += (long) local.length * Integer.BYTES;
+                for (int l = 0; l < local.length; l++) roots[partition.global(s, l, n, shards)] = local[l];
+            }
+            SccEngine scc = components(roots, rank);
+            long sccDone = System.nanoTime();
+
+            // Paths: a level-synchronous Kahn sweep, only meaningful on a DAG
+            DagPathEngine.Result shortest = null, longest = null;
+            int pathSupersteps = 0;
+            if (source >= 0 && scc.componentCount() == n) {
+                for (DataOutputStream output : out) {
+                    output.writeInt(PATHS);
+                    output.writeInt(source);
+                    output.flush();
+                }
+                while (superstep()[DONE] < shards) pathSupersteps++;
+                double[] shortDist = new double[n], longDist = new double[n];
+                int[] shortPred = new int[n], longPred = new int[n];
+                long unsettled = 0;
+                for (int s = 0; s < shards; s++) {
+                    int size = partition.size(s, n, shards);
+                    double[] ds = readDoubles(in[s], size), dl = readDoubles(in[s], size);
+                    int[] ps = readInts(in[s], size), pl = readInts(in[s], size);
+                    unsettled += in[s].readLong();
+                    resultBytes += (long) size * (2 * Double.BYTES + 2 * Integer.BYTES) + Long.BYTES;
+                    for (int l = 0; l < size; l++) {
+                        int v = partition.global(s, l, n, shards);
+                        shortDist[v] = ds[l];
+                        longDist[v] = dl[l];
+                        shortPred[v] = ps[l];
+                        longPred[v] = pl[l];
+                    }
+                }
+                // Only self-loops keep vertices unsettled once every component is a singleton
+                if (unsettled == 0) {
+                    shortest = new DagPathEngine.Result(source, true, shortDist, shortPred);
+                    longest = new DagPathEngine.Result(source, false, longDist, longPred);
+                }
+            }
+            long pathsDone = System.nanoTime();
+
+            broadcast(STATS);
+            for (int s = 0; s < shards; s++) {
+                stats[s].messages = in[s].readLong();
+                stats[s].bytesSent = in[s].readLong();
+                stats[s].bytesReceived = in[s].readLong();
+                stats[s].computeMillis = in[s].readLong() / 1e6;
+                stats[s].exchangeMillis = in[s].readLong() / 1e6;
+            }
+            broadcast(EXIT);
+            for (Process worker : workers) worker.waitFor(10, TimeUnit.SECONDS);
+            return new Result(scc, shortest, longest, partition, stats, sccSupersteps, pathSupersteps, routedBytes,
+                    resultBytes, (partitioned - start) / 1e6, (connected - partitioned) / 1e6,
+                    (sccDone - connected) / 1e6, (pathsDone - sccDone) / 1e6);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Error: interrupted while waiting for the shard workers");
+        } finally {
+            for (Socket socket : sockets) {
+                if (socket != null) socket.close();
+            }
+            for (Process worker : workers) {
+                if (worker != null) worker.destroy();
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Edges of one shard in one direction as (local row, other end, weight) records
+     * in a file, appended during the single pass over the input and read back by
+     * CsrGraph.build, which reads a source twice.
+     */
+    private static class Bucket implements EdgeSource {
+        private final Path file;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUCKET_BUFFER);
+
+        Bucket(Path file) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+
+        void add(int row, int other, int weight) {
+            if (!buffer.hasRemaining()) flush();
+            buffer.putInt(row).putInt(other).putInt(weight);
+        }
+
+        void flush() {
+            try {
+                buffer.flip();
+                while (buffer.hasRemaining()) channel.write(buffer);
+                buffer.clear();
+            } catch (IOException e) {
+                throw new RuntimeException("Error: cannot write " + file + ": " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void forEachEdge(EdgeConsumer consumer) {
+            ByteBuffer records = ByteBuffer.allocate(BUCKET_BUFFER);
+            try {
+                long position = 0;
+                for (int read = 0; read != -1; ) {
+                    read = channel.read(records, position);
+                    if (read > 0) position += read;
+                    records.flip();
+                    while (records.remaining() >= 3 * Integer.BYTES) {
+                        consumer.accept(records.getInt(), records.getInt(), records.getInt());
+                    }
+                    records.compact();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Error: cannot read " + file + ": " + e.getMessage());
+            }
+        }
+
+        void delete() throws IOException {
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // One pass over the edges fills the buckets; then one snapshot file per shard,
+    // built from its two buckets, so only that shard's CSR pair is in memory at a time
+    private void writeShards(int n, EdgeSource edges, Path directory, String key, ShardStats[] stats)
+            throws IOException {
+        Bucket[] outBuckets = new Bucket[shards], inBuckets = new Bucket[shards];
+        try {
+            for (int s = 0; s < shards; s++) {
+                outBuckets[s] = new Bucket(directory.resolve("out" + s + ".bucket"));
+                inBuckets[s] = new Bucket(directory.resolve("in" + s + ".bucket"));
+            }
+            edges.forEachEdge((u, v, w) -> {
+                int su = partition.owner(u, n, shards), sv = partition.owner(v, n, shards);
+                outBuckets[su].add(partition.local(u, n, shards), v, w);
+                inBuckets[sv].add(partition.local(v, n, shards), u, w);
+                if (su != sv) stats[su].cutEdges++;
+            });
+            for (int s = 0; s < shards; s++) {
+                outBuckets[s].flush();
+                inBuckets[s].flush();
+                VertexNames local = VertexNames.numbered("v", partition.size(s, n, shards));
+                CsrGraph outEdges = CsrGraph.build(local, outBuckets[s]);
+                CsrGraph inEdges = CsrGraph.build(local, inBuckets[s]);
+                outBuckets[s].delete();
+                inBuckets[s].delete();
+                stats[s].vertices = local.size();
+                stats[s].edges = outEdges.edgeCount();
+                new ResultSnapshot.Builder().put(OUT_EDGES, outEdges).put(IN_EDGES, inEdges)
+                        .save(directory, "shard" + s, key);
+            }
+        } finally {
+            for (Bucket bucket : outBuckets) {
+                if (bucket != null) bucket.delete();
+            }
+            for (Bucket bucket : inBuckets) {
+                if (bucket != null) bucket.delete();
+            }
+        }
+    }
+
+    // Starts the workers with this JVM's options and class path; each connects back and names its shard
+    private void connect(Process[] workers, Socket[] sockets, int n, Path directory, String key) throws IOException {
+        try (ServerSocket server = new ServerSocket(0, shards, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(ACCEPT_TIMEOUT_MILLIS);
+            List<String> command = new ArrayList<>();
+            command.add(ProcessHandle.current().info().command().orElse("java"));
+            command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+            command.addAll(List.of("-cp", System.getProperty("java.class.path"), ShardWorker.class.getName()));
+            for (int s = 0; s < shards; s++) {
+                List<String> args = new ArrayList<>(command);
+                args.addAll(List.of(String.valueOf(server.getLocalPort()), String.valueOf(s), String.valueOf(shards),
+                        String.valueOf(n), partition.name(), directory.toString(), key));
+                workers[s] = new ProcessBuilder(args).inheritIO().start();
+            }
+            for (int i = 0; i < shards; i++) {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream(), SOCKET_BUFFER));
+                int s = input.readInt();
+                if (s < 0 || s >= shards || sockets[s] != null) {
+                    socket.close();
+                    throw new RuntimeException("Error: unexpected shard worker handshake " + s);
+                }
+                sockets[s] = socket;
+                in[s] = input;
+                out[s] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), SOCKET_BUFFER));
+            }
+        } catch (java.net.SocketTimeoutException e) {
+            throw new RuntimeException("Error: shard workers did not connect within " + ACCEPT_TIMEOUT_MILLIS + " ms");
+        }
+    }
+
+    private void broadcast(int command) throws IOException {
+        for (DataOutputStream output : out) {
+            output.writeInt(command);
+            output.flush();
+        }
+    }
+
+    /**
+     * One superstep barrier: reads every worker's batches, one per destination and
+     * each a run of length-prefixed chunks ending with an empty one, forwarding
+     * every chunk to its destination as it is read, and then the worker's
+     * aggregates. Ends each worker's superstep with an empty chunk and the
+     * aggregate sums, which it returns.
+     */
+    private long[] superstep() throws IOException {
+        long[] global = new long[AGGREGATES];
+        for (int s = 0; s < shards; s++) {
+            for (int d = 0; d < shards; d++) {
+                for (int length; (length = in[s].readInt()) > 0; ) {
+                    out[d].writeInt(length);
+                    for (int left = length; left > 0; ) {
+                        int part = Math.min(left, relay.length);
+                        in[s].readFully(relay, 0, part);
+                        out[d].write(relay, 0, part);
+                        left -= part;
+                    }
+                    routedBytes += length;
+                }
+            }
+            for (int i = 0; i < AGGREGATES; i++) global[i] += in[s].readLong();
+        }
+        for (DataOutputStream output : out) {
+            output.writeInt(0);
+            for (long value : global) output.writeLong(value);
+            output.flush();
+        }
+        return global;
+    }
+
+    // Dense component ids from the roots, then canonical ids from the condensation the shards report
+    private SccEngine components(int[] roots, int[] rank) throws IOException {
+        int n = roots.length;
+        int[] idOfRoot = new int[n];
+        Arrays.fill(idOfRoot, -1);
+        int[] compOf = new int[n];
+        int k = 0;
+        for (int v = 0; v < n; v++) {
+            if (idOfRoot[roots[v]] == -1) idOfRoot[roots[v]] = k++;
+            compOf[v] = idOfRoot[roots[v]];
+        }
+
+        for (DataOutputStream output : out) {
+            output.writeInt(CONDENSE);
+            writeInts(output, compOf, n);
+            resultBytes += (long) n * Integer.BYTES;
+            output.flush();
+        }
+        long[][] parts = new long[shards][];
+        long total = 0;
+        for (int s = 0; s < shards; s++) {
+            parts[s] = readLongs(in[s], in[s].readInt());
+            resultBytes += (long) parts[s].length * Long.BYTES;
+            total += parts[s].length;
+        }
+        long[] pairs = new long[Math.toIntExact(total)];
+        int count = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, pairs, count, part.length);
+            count += part.length;
+        }
+        Arrays.sort(pairs);
+        int unique = 0;
+        for (int i = 0; i < pairs.length; i++) {
+            if (i == 0 || pairs[i] != pairs[i - 1]) pairs[unique++] = pairs[i];
+        }
+        int edgeCount = unique;
+        CsrGraph condensation = CsrGraph.build(VertexNames.numbered("SCC ", k), consumer -> {
+            for (int i = 0; i < edgeCount; i++) consumer.accept((int) (pairs[i] >>> 32), (int) pairs[i], 1);
+        });
+        return SccEngine.fromComponents(compOf, k).canonicalizeWith(condensation, rank);
+    }
+
+    // --- Bulk array transfer, shared with ShardWorker ---
+
+    static byte[] readBytes(DataInputStream input, int length) throws IOException {
+        byte[] bytes = input.readNBytes(length);
+        if (bytes.length != length) throw new EOFException("Error: the shard connection closed mid-message");
+        return bytes;
+    }
+
+    static int[] readInts(DataInputStream input, int count) throws IOException {
+        int[] values = new int[count];
+        ByteBuffer.wrap(readBytes(input, count * Integer.BYTES)).asIntBuffer().get(values);
+        return values;
+    }
+
+    static long[] readLongs(DataInputStream input, int count) throws IOException {
+        long[] values = new long[count];
+        ByteBuffer.wrap(readBytes(input, count * Long.BYTES)).asLongBuffer().get(values);
+        return values;
+    }
+
+    static double[] readDoubles(DataInputStream input, int count) throws IOException {
+        double[] values = new double[count];
+        ByteBuffer.wrap(readBytes(input, count * Double.BYTES)).asDoubleBuffer().get(values);
+        return values;
+    }
+
+    static void writeInts(DataOutputStream output, int[] values, int count) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(count * Integer.BYTES);
+        buffer.asIntBuffer().put(values, 0, count);
+        output.write(buffer.array());
+    }
+
+    static void writeLongs(DataOutputStream output, long[] values, int count) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(count * Long.BYTES);
+        buffer.asLongBuffer().put(values, 0, count);
+        output.write(buffer.array());
+    }
+
+    static void writeDoubles(DataOutputStream output, double[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Double.BYTES);
+        buffer.asDoubleBuffer().put(values);
+        output.write(buffer.array());
+    }
+}
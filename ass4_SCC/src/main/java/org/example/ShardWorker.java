@@ -0,0 +1,523 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * One shard of a ShardCoordinator job, in its own JVM. It maps its shard file
+ * (out- and in-edges of its vertices, targets as global ids) and answers the
+ * coordinator's commands:
+ * SCC: trimming of vertices without live in- or out-edges, forward propagation
+ * of the largest vertex id (colouring), and a backward closure from every vertex
+ * that kept its own colour, repeated until every vertex has a component; each
+ * phase runs supersteps until no shard sends a message.
+ * PATHS: a Kahn sweep whose ready vertices relax their out-edges for shortest and
+ * longest distances at once; a vertex is ready once the in-degree decrements of
+ * all its predecessors have arrived.
+ * Work cascades inside a shard without waiting for a superstep, and messages to
+ * other shards are combined per target before sending (decrements summed,
+ * colours maximised, distances minimised or maximised). Batches are sent in
+ * chunks from a sender thread while incoming chunks are handled as they arrive,
+ * so neither side of the exchange is held in memory as a whole.
+ * Usage: ShardWorker port shard shards vertices partition directory key (started by ShardCoordinator)
+ */
+public class ShardWorker {
+
+    // Message kinds; a record is the kind, a global target id, a long and an int (17 bytes)
+    static final byte DEC_IN = 0, DEC_OUT = 1, COLOR = 2, ASSIGN = 3, SHORTER = 4, LONGER = 5;
+    private static final int RECORD_BYTES = 1 + 4 + 8 + 4;
+    // Records per chunk of a batch on the wire
+    private static final int CHUNK_RECORDS = 1 << 12;
+
+    private final int shard, shards, n, size;
+    private final ShardCoordinator.Partition partition;
+    private final Graph out, in;
+    private final DataInputStream input;
+    private final DataOutputStream output;
+    private final Outbox[] outboxes;
+    private final EdgeCursor forward, backward;
+    private final IntArrayStack work = new IntArrayStack();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "shard-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private byte[] chunk = new byte[CHUNK_RECORDS * RECORD_BYTES];
+
+    // Statistics of this worker
+    private long messages, bytesSent, bytesReceived, computeNanos, exchangeNanos;
+    private long mark = System.nanoTime();
+
+    private ShardWorker(int shard, int shards, int n, ShardCoordinator.Partition partition, Graph out, Graph in,
+                        DataInputStream input, DataOutputStream output) {
+        this.shard = shard;
+        this.shards = shards;
+        this.n = n;
+        this.size = out.vertexCount();
+        this.partition = partition;
+        this.out = out;
+        this.in = in;
+        this.input = input;
+        this.output = output;
+        this.forward = out.cursor();
+        this.backward = in.cursor();
+        this.outboxes = new Outbox[shards];
+        for (int s = 0; s < shards; s++) outboxes[s] = new Outbox();
+    }
+
+    /** A message addressed to this shard, target already a local id. */
+    @FunctionalInterface
+    private interface Handler {
+        void accept(byte kind, int local, long a, int b);
+    }
+
+    /**
+     * Messages to one shard in the current superstep. drain() sorts them by
+     * (kind, target) and sends one combined record per pair.
+     */
+    private static class Outbox {
+        private static final int INDEX_BITS = 29;
+        private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+        private byte[] kinds = new byte[64];
+        private int[] targets = new int[64];
+        private long[] as = new long[64];
+        private int[] bs = new int[64];
+        private int size;
+        private final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_RECORDS * RECORD_BYTES);
+
+        void add(byte kind, int target, long a, int b) {
+            if (size == kinds.length) {
+                if (size > INDEX_MASK) throw new RuntimeException("Error: more than 2^29 messages to one shard in a superstep");
+                int capacity = (int) Math.min(INDEX_MASK + 1, size * 2L);
+                kinds = Arrays.copyOf(kinds, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                as = Arrays.copyOf(as, capacity);
+                bs = Arrays.copyOf(bs, capacity);
+            }
+            kinds[size] = kind;
+            targets[size] = target;
+            as[size] = a;
+            bs[size] = b;
+            size++;
+        }
+
+        // Writes the combined records in chunks of at most CHUNK_RECORDS, each preceded by its
+        // length, and an empty chunk after the last; returns the number of records
+        long drain(DataOutputStream output) throws IOException {
+            // kind in bits 60..62, target in bits 29..59, index below: one primitive sort groups the pairs
+            long[] order = new long[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = (long) kinds[i] << 60 | (long) targets[i] << INDEX_BITS | i;
+            }
+            Arrays.sort(order);
+            long drained = 0;
+            for (int i = 0; i < size; ) {
+                long group = order[i] >>> INDEX_BITS;
+                int first = (int) (order[i] & INDEX_MASK);
+                byte kind = kinds[first];
+                long a = as[first];
+                int b = bs[first];
+                for (i++; i < size && order[i] >>> INDEX_BITS == group; i++) {
+                    int j = (int) (order[i] & INDEX_MASK);
+                    switch (kind) {
+                        case DEC_IN, DEC_OUT -> a += as[j];
+                        case COLOR -> a = Math.max(a, as[j]);
+                        case SHORTER, LONGER -> {
+                            if (better(kind, Double.longBitsToDouble(as[j]), bs[j], Double.longBitsToDouble(a), b)) {
+                                a = as[j];
+                                b = bs[j];
+                            }
+                        }
+                        default -> { } // ASSIGN: every candidate for a vertex carries the same root
+                    }
+                }
+                chunk.put(kind).putInt(targets[first]).putLong(a).putInt(b);
+                drained++;
+                if (!chunk.hasRemaining()) write(output);
+            }
+            if (chunk.position() > 0) write(output);
+            output.writeInt(0);
+            size = 0;
+            return drained;
+        }
+
+        private void write(DataOutputStream output) throws IOException {
+            output.writeInt(chunk.position());
+            output.write(chunk.array(), 0, chunk.position());
+            chunk.clear();
+        }
+    }
+
+    // Distance candidates: a better distance, or the same one from a smaller predecessor id,
+    // so the result does not depend on the partition or the arrival order
+    static boolean better(byte kind, double dist, int pred, double currentDist, int currentPred) {
+        if (dist != currentDist) return kind == SHORTER ? dist < currentDist : dist > currentDist;
+        return pred < currentPred;
+    }
+
+    private int global(int local) {
+        return partition.global(shard, local, n, shards);
+    }
+
+    private void send(byte kind, int target, long a, int b) {
+        outboxes[partition.owner(target, n, shards)].add(kind, target, a, b);
+    }
+
+    private boolean isLocal(int v) {
+        return partition.owner(v, n, shards) == shard;
+    }
+
+    /**
+     * Superstep barrier: the sender thread writes the combined outboxes, one batch
+     * per destination, and then the aggregates. Meanwhile this thread passes every
+     * record the coordinator forwards to handler until the end of the superstep,
+     * which brings the aggregates summed over all shards; they are returned.
+     * The coordinator forwards chunks as it reads them, so both directions must
+     * flow at once: a worker that only read after sending could block every shard.
+     * Handlers run while the sender owns the outboxes, so they must not send.
+     */
+    private long[] exchange(long remaining, boolean done, Handler handler) throws IOException {
+        long start = System.nanoTime();
+        computeNanos += start - mark;
+        Future<?> sending = sender.submit(() -> {
+            long sent = 0;
+            for (Outbox outbox : outboxes) sent += outbox.drain(output);
+            output.writeLong(sent);
+            output.writeLong(remaining);
+            output.writeLong(done ? 1 : 0);
+            output.flush();
+            messages += sent;
+            bytesSent += sent * RECORD_BYTES;
+            return null;
+        });
+
+        for (int length; (length = input.readInt()) > 0; ) {
+            if (chunk.length < length) chunk = new byte[length];
+            input.readFully(chunk, 0, length);
+            bytesReceived += length;
+            ByteBuffer records = ByteBuffer.wrap(chunk, 0, length);
+            while (records.hasRemaining()) {
+                byte kind = records.get();
+                int l = partition.local(records.getInt(), n, shards);
+                long a = records.getLong();
+                handler.accept(kind, l, a, records.getInt());
+            }
+        }
+        long[] global = new long[ShardCoordinator.AGGREGATES];
+        for (int i = 0; i < global.length; i++) global[i] = input.readLong();
+        try {
+            sending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Error: interrupted while sending a batch");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new RuntimeException("Error: sending a batch failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        mark = System.nanoTime();
+        exchangeNanos += mark - start;
+        return global;
+    }
+
+    // The last exchange of a command: every shard has stopped sending
+    private static void unexpected(byte kind, int local, long a, int b) {
+        throw new RuntimeException("Error: message of kind " + kind + " after the last superstep");
+    }
+
+    // --- SCC ---
+
+    private int[] root, inCount, outCount, color, expanded;
+    private final IntList assigned = new IntList();
+
+    private void scc() throws IOException {
+        root = new int[size];
+        inCount = new int[size];
+        outCount = new int[size];
+        color = new int[size];
+        expanded = new int[size];
+        Arrays.fill(root, -1);
+        for (int l = 0; l < size; l++) {
+            int v = global(l);
+            for (forward.reset(l); forward.next(); ) if (forward.target() != v) outCount[l]++;
+            for (backward.reset(l); backward.next(); ) if (backward.target() != v) inCount[l]++;
+            work.push(l);
+        }
+        long remaining = size;
+
+        while (true) {
+            // Trim: a vertex without live in- or out-edges is a component of its own
+            for (int i = 0; i < assigned.size(); i++) remove(assigned.get(i));
+            assigned.clear();
+            long[] global;
+            do {
+                while (!work.isEmpty()) {
+                    int l = work.pop();
+                    if (root[l] != -1 || (inCount[l] > 0 && outCount[l] > 0)) continue;
+                    root[l] = global(l);
+                    remaining--;
+                    remove(l);
+                }
+                global = exchange(remaining, false, (kind, l, count, b) -> {
+                    if (root[l] != -1) return;
+                    if (kind == DEC_IN ? (inCount[l] -= (int) count) == 0 : (outCount[l] -= (int) count) == 0) work.push(l);
+                });
+            } while (global[ShardCoordinator.SENT] > 0);
+            if (global[ShardCoordinator.REMAINING] == 0) break;
+
+            // Forward: every live vertex takes the largest id that reaches it. A vertex is
+            // pushed on every raise and expanded only with a colour it has not passed on
+            // yet; the largest ids are popped first, so most vertices are expanded once
+            for (int l = 0; l < size; l++) {
+                if (root[l] != -1) continue;
+                color[l] = global(l);
+                expanded[l] = -1;
+                work.push(l);
+            }
+            do {
+                while (!work.isEmpty()) {
+                    int l = work.pop();
+                    if (expanded[l] == color[l]) continue;
+                    expanded[l] = color[l];
+                    int v = global(l), c = color[l];
+                    for (forward.reset(l); forward.next(); ) {
+                        int w = forward.target();
+                        if (w == v) continue;
+                        if (isLocal(w)) recolor(partition.local(w, n, shards), c);
+                        else send(COLOR, w, c, 0);
+                    }
+                }
+                global = exchange(remaining, false, (kind, l, c, b) -> recolor(l, (int) c));
+            } while (global[ShardCoordinator.SENT] > 0);
+
+            // Backward: a vertex that kept its own colour roots the component of the
+            // vertices of that colour that reach it
+            for (int l = 0; l < size; l++) {
+                if (root[l] == -1 && color[l] == global(l)) claim(l, color[l]);
+            }
+            do {
+                while (!work.isEmpty()) {
+                    int l = work.pop();
+                    int v = global(l), r = root[l];
+                    for (backward.reset(l); backward.next(); ) {
+                        int x = backward.target();
+                        if (x == v) continue;
+                        if (isLocal(x)) claim(partition.local(x, n, shards), r);
+                        else send(ASSIGN, x, r, 0);
+                    }
+                }
+                global = exchange(remaining, false, (kind, l, r, b) -> claim(l, (int) r));
+            } while (global[ShardCoordinator.SENT] > 0);
+            remaining -= assigned.size();
+        }
+        exchange(0, true, ShardWorker::unexpected);
+        ShardCoordinator.writeInts(output, root, size);
+        output.flush();
+    }
+
+    // Takes the edges of an assigned vertex out of its live neighbours' counts
+    private void remove(int l) {
+        int v = global(l);
+        for (forward.reset(l); forward.next(); ) {
+            int w = forward.target();
+            if (w == v) continue;
+            if (!isLocal(w)) {
+                send(DEC_IN, w, 1, 0);
+                continue;
+            }
+            int lw = partition.local(w, n, shards);
+            if (root[lw] == -1 && --inCount[lw] == 0) work.push(lw);
+        }
+        for (backward.reset(l); backward.next(); ) {
+            int x = backward.target();
+            if (x == v) continue;
+            if (!isLocal(x)) {
+                send(DEC_OUT, x, 1, 0);
+                continue;
+            }
+            int lx = partition.local(x, n, shards);
+            if (root[lx] == -1 && --outCount[lx] == 0) work.push(lx);
+        }
+    }
+
+    private void recolor(int l, int c) {
+        if (root[l] != -1 || color[l] >= c) return;
+        color[l] = c;
+        work.push(l);
+    }
+
+    private void claim(int l, int r) {
+        if (root[l] != -1 || color[l] != r) return;
+        root[l] = r;
+        assigned.add(l);
+        work.push(l);
+    }
+
+    // --- Paths ---
+
+    private void paths(int source) throws IOException {
+        int[] inDegree = new int[size];
+        double[] shortDist = new double[size], longDist = new double[size];
+        int[] shortPred = new int[size], longPred = new int[size];
+        Arrays.fill(shortDist, Double.POSITIVE_INFINITY);
+        Arrays.fill(longDist, Double.NEGATIVE_INFINITY);
+        Arrays.fill(shortPred, -1);
+        Arrays.fill(longPred, -1);
+        if (isLocal(source)) {
+            shortDist[partition.local(source, n, shards)] = 0.0;
+            longDist[partition.local(source, n, shards)] = 0.0;
+        }
+        for (int l = 0; l < size; l++) {
+            inDegree[l] = in.outDegree(l);
+            if (inDegree[l] == 0) work.push(l);
+        }
+        long unsettled = size;
+
+        long[] global;
+        do {
+            while (!work.isEmpty()) {
+                int l = work.pop();
+                unsettled--;
+                int u = global(l);
+                boolean reachable = shortDist[l] != Double.POSITIVE_INFINITY;
+                for (forward.reset(l); forward.next(); ) {
+                    int w = forward.target();
+                    double shorter = shortDist[l] + forward.weight(), longer = longDist[l] + forward.weight();
+                    if (!isLocal(w)) {
+                        send(DEC_IN, w, 1, 0);
+                        if (reachable) {
+                            send(SHORTER, w, Double.doubleToRawLongBits(shorter), u);
+                            send(LONGER, w, Double.doubleToRawLongBits(longer), u);
+                        }
+                        continue;
+                    }
+                    int lw = partition.local(w, n, shards);
+                    if (reachable) {
+                        if (better(SHORTER, shorter, u, shortDist[lw], shortPred[lw])) {
+                            shortDist[lw] = shorter;
+                            shortPred[lw] = u;
+                        }
+                        if (better(LONGER, longer, u, longDist[lw], longPred[lw])) {
+                            longDist[lw] = longer;
+                            longPred[lw] = u;
+                        }
+                    }
+                    if (--inDegree[lw] == 0) work.push(lw);
+                }
+            }
+            // Every candidate of this superstep is in before any vertex it made ready is expanded
+            global = exchange(unsettled, false, (kind, l, a, pred) -> {
+                if (kind == DEC_IN) {
+                    if ((inDegree[l] -= (int) a) == 0) work.push(l);
+                } else if (kind == SHORTER) {
+                    if (better(SHORTER, Double.longBitsToDouble(a), pred, shortDist[l], shortPred[l])) {
+                        shortDist[l] = Double.longBitsToDouble(a);
+                        shortPred[l] = pred;
+                    }
+                } else if (better(LONGER, Double.longBitsToDouble(a), pred, longDist[l], longPred[l])) {
+                    longDist[l] = Double.longBitsToDouble(a);
+                    longPred[l] = pred;
+                }
+            });
+        } while (global[ShardCoordinator.SENT] > 0);
+        // Vertices on a cycle (here: self-loops) never become ready and stay unsettled
+        exchange(unsettled, true, ShardWorker::unexpected);
+        ShardCoordinator.writeDoubles(output, shortDist);
+        ShardCoordinator.writeDoubles(output, longDist);
+        ShardCoordinator.writeInts(output, shortPred, size);
+        ShardCoordinator.writeInts(output, longPred, size);
+        output.writeLong(unsettled);
+        output.flush();
+    }
+
+    // Component pairs of the out-edges that leave their component, without duplicates
+    private void condense(int[] compOf) throws IOException {
+        long[] pairs = new long[16];
+        int count = 0;
+        for (int l = 0; l < size; l++) {
+            int cu = compOf[global(l)];
+            for (forward.reset(l); forward.next(); ) {
+                int cv = compOf[forward.target()];
+                if (cu == cv) continue;
+                if (count == pairs.length) pairs = Arrays.copyOf(pairs, count * 2);
+                pairs[count++] = (long) cu << 32 | cv;
+            }
+        }
+        Arrays.sort(pairs, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || pairs[i] != pairs[i - 1]) pairs[unique++] = pairs[i];
+        }
+        output.writeInt(unique);
+        ShardCoordinator.writeLongs(output, pairs, unique);
+        output.flush();
+    }
+
+    private void serve() throws IOException {
+        while (true) {
+            int command = input.readInt();
+            mark = System.nanoTime();
+            switch (command) {
+                case ShardCoordinator.SCC -> scc();
+                case ShardCoordinator.CONDENSE -> condense(ShardCoordinator.readInts(input, n));
+                case ShardCoordinator.PATHS -> paths(input.readInt());
+                case ShardCoordinator.STATS -> {
+                    for (long value : new long[] {messages, bytesSent, bytesReceived, computeNanos, exchangeNanos}) {
+                        output.writeLong(value);
+                    }
+                    output.flush();
+                }
+                case ShardCoordinator.EXIT -> {
+                    sender.shutdown();
+                    return;
+                }
+                default -> throw new RuntimeException("Error: unknown shard command " + command);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 7) {
+            System.err.println("Usage: ShardWorker port shard shards vertices partition directory key");
+            System.exit(2);
+        }
+        int port = Integer.parseInt(args[0]);
+        int shard = Integer.parseInt(args[1]);
+        int shards = Integer.parseInt(args[2]);
+        int n = Integer.parseInt(args[3]);
+        ShardCoordinator.Partition partition = ShardCoordinator.Partition.valueOf(args[4]);
+        try (ResultSnapshot snapshot = ResultSnapshot.open(Path.of(args[5]), "shard" + shard, args[6])) {
+            if (snapshot == null) throw new RuntimeException("Error: shard file " + shard + " is missing or damaged");
+            VertexNames local = VertexNames.numbered("v", partition.size(shard, n, shards));
+            Graph out = snapshot.graph(ShardCoordinator.OUT_EDGES, local);
+            Graph in = snapshot.graph(ShardCoordinator.IN_EDGES, local);
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                socket.setTcpNoDelay(true);
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+                DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+                output.writeInt(shard);
+                output.flush();
+                new ShardWorker(shard, shards, n, partition, out, in, input, output).serve();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Shard " + shard + ": " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("Shard " + shard + ": unexpected error");
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * KosarajuSCC and DagPaths over worker JVMs (ShardCoordinator): components and,
+ * on a DAG, shortest and longest distances from SOURCE_NODE, checked against the
+ * single-process engines. An edge-list file is streamed into the shards
+ * (EdgeListLoader.stream), so this JVM holds only the vertex names until the
+ * check, which loads the whole graph (CHECK_SINGLE_PROCESS = false skips it);
+ * JSON resources are loaded first. Predecessors may differ where two paths tie;
+ * the sharded run then takes the predecessor with the smaller id, so every path
+ * is checked for its length instead.
+ * Usage: ShardedPipeline [graph [shards [BLOCK|HASH]]]
+ */
+public class ShardedPipeline {
+
+    private static final String GRAPH_FILE_NAME = "large3.json"; // or the path of a .csv/.tsv edge list
+    private static final String SOURCE_NODE = "V1";
+    private static final TieBreak TIE_BREAK = TieBreak.LEXICOGRAPHIC;
+    private static final int SHARDS = 4;
+    private static final ShardCoordinator.Partition PARTITION = ShardCoordinator.Partition.BLOCK;
+    private static final boolean CHECK_SINGLE_PROCESS = true;
+
+    // Every vertex on the path reached with the distance the path adds up to
+    static boolean consistent(Graph g, DagPathEngine.Result result) {
+        for (int v = 0; v < g.vertexCount(); v++) {
+            if (!result.reachable(v) || v == result.source) continue;
+            int u = result.pred[v];
+            if (u == -1) return false;
+            double best = result.shortest ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+            EdgeCursor cursor = g.cursor();
+            for (cursor.reset(u); cursor.next(); ) {
+                if (cursor.target() != v) continue;
+                double via = result.dist[u] + cursor.weight();
+                best = result.shortest ? Math.min(best, via) : Math.max(best, via);
+            }
+            if (best != result.dist[v]) return false;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        String file = args.length >= 1 ? args[0] : GRAPH_FILE_NAME;
+        int shards = args.length >= 2 ? Integer.parseInt(args[1]) : SHARDS;
+        ShardCoordinator.Partition partition = args.length >= 3 ? ShardCoordinator.Partition.valueOf(args[2]) : PARTITION;
+        System.out.printf("--- Sharded SCC and DAG Paths: %s, %d shards, %s partition ---\n", file, shards, partition);
+        try {
+            CsrGraph G = null;
+            VertexNames names;
+            EdgeSource edges;
+            if (GraphLoader.isEdgeList(file)) {
+                EdgeListLoader.Source stream = EdgeListLoader.stream(GraphLoader.edgeListFile(file));
+                names = stream.names();
+                edges = stream;
+            } else {
+                G = GraphLoader.load(file);
+                names = G.names();
+                edges = G.edges();
+            }
+            int source = names.idOf(SOURCE_NODE);
+            if (source == -1) {
+                System.out.println("Source node " + SOURCE_NODE + " not in graph; paths start at " + names.nameOf(0));
+                source = 0;
+            }
+            int[] rank = TIE_BREAK.ranks(names);
+
+            ShardCoordinator.Result sharded = new ShardCoordinator(shards, partition).run(names, edges, rank, source);
+            sharded.print();
+            if (!CHECK_SINGLE_PROCESS) return;
+
+            // Single process reference
+            if (G == null) G = GraphLoader.load(file);
+            long start = System.nanoTime();
+            SccEngine scc = new SccEngine().run(G).canonicalize(G, rank);
+            int[] topoOrder = new KahnEngine().sort(G, rank);
+            boolean acyclic = topoOrder.length == G.vertexCount();
+            DagPathEngine engine = new DagPathEngine();
+            DagPathEngine.Result shortest = acyclic ? engine.pathInDAG(G, topoOrder, source, true) : null;
+            DagPathEngine.Result longest = acyclic ? engine.pathInDAG(G, topoOrder, source, false) : null;
+            double singleMillis = (System.nanoTime() - start) / 1e6;
+
+            System.out.println("\n--- Check Against a Single Process ---");
+            System.out.printf("Components: %d sharded, %d single process -> %s\n", sharded.scc.componentCount(),
+                    scc.componentCount(), Arrays.equals(sharded.scc.compOf(), scc.compOf()) ? "same ids" : "DIFFERENT");
+            if (!acyclic) {
+                System.out.println("Graph has cycles: paths skipped (longest paths need a DAG).");
+            } else {
+                boolean sameShortest = Arrays.equals(sharded.shortest.dist, shortest.dist);
+                boolean sameLongest = Arrays.equals(sharded.longest.dist, longest.dist);
+                System.out.printf("Shortest distances from %s: %s, paths %s\n", G.names().nameOf(source),
+                        sameShortest ? "same" : "DIFFERENT", consistent(G, sharded.shortest) ? "consistent" : "BROKEN");
+                System.out.printf("Longest distances from %s: %s, paths %s\n", G.names().nameOf(source),
+                        sameLongest ? "same" : "DIFFERENT", consistent(G, sharded.longest) ? "consistent" : "BROKEN");
+            }
+            System.out.printf("Single process: %.3f ms, sharded SCC + paths: %.3f ms (plus %.3f ms partitioning, %.3f ms start-up)\n",
+                    singleMillis, sharded.sccMillis + sharded.pathMillis, sharded.partitionMillis, sharded.startupMillis);
+        } catch (RuntimeException e) {
+            System.err.println("\nA critical error occurred: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("\nAn unexpected error occurred during execution.");
+            e.printStackTrace();
+        }
+    }
+}
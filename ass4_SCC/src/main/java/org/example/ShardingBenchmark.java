@@ -0,0 +1,62 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * ShardCoordinator on synthetic graphs for 1, 2 and 4 shards under both
+ * partitions: edge cut, supersteps, bytes routed between shards, the time of
+ * the SCC and path phases, and the slowest shard's compute and exchange time
+ * (a large gap between the two means the shards wait on each other). BLOCK is
+ * also run on a BFS-relabeled copy, whose neighbouring ids cut fewer edges.
+ * Every run is checked against SccEngine and DagPathEngine in this process.
+ * Usage: ShardingBenchmark [vertices edges] (default 200,000 x 1,000,000)
+ */
+public class ShardingBenchmark {
+
+    private static final int[] SHARD_COUNTS = {1, 2, 4};
+
+    private static void run(String label, CsrGraph g) throws Exception {
+        int[] rank = TieBreak.INPUT_ORDER.ranks(g.names());
+        int[] compOf = new SccEngine().run(g).canonicalize(g, rank).compOf();
+        int[] order = new KahnEngine().sort(g, rank);
+        double[] dist = order.length == g.vertexCount() ? new DagPathEngine().pathInDAG(g, order, 0, true).dist : null;
+
+        for (int shards : SHARD_COUNTS) {
+            for (ShardCoordinator.Partition partition : ShardCoordinator.Partition.values()) {
+                ShardCoordinator.Result result = new ShardCoordinator(shards, partition).run(g.names(), g.edges(), rank, 0);
+                boolean same = Arrays.equals(result.scc.compOf(), compOf)
+                        && (dist == null || Arrays.equals(result.shortest.dist, dist));
+                double compute = 0, exchange = 0;
+                for (ShardCoordinator.ShardStats stats : result.shards) {
+                    compute = Math.max(compute, stats.computeMillis);
+                    exchange = Math.max(exchange, stats.exchangeMillis);
+                }
+                System.out.printf("%-14s %6d %-5s | %5.1f%% | %4d %4d | %8.2f | %8.2f %8.2f | %8.2f %8.2f | %s\n",
+                        label, shards, partition, 100.0 * result.cutEdges() / Math.max(1, result.edgeCount()),
+                        result.sccSupersteps, result.pathSupersteps, result.routedBytes / 1e6, result.sccMillis,
+                        result.pathMillis, compute, exchange, same ? "same" : "DIFFERENT");
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = args.length >= 2 ? Integer.parseInt(args[0]) : 200_000;
+        int m = args.length >= 2 ? Integer.parseInt(args[1]) : 1_000_000;
+        System.out.printf("--- Sharded Runs (%d cores; ms, MB routed through the coordinator) ---\n",
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-14s %6s %-5s | %6s | %9s | %8s | %17s | %17s |\n", "graph", "shards", "part.",
+                "cut", "steps s/p", "MB", "SCC ms / paths", "max compute/exch");
+        try {
+            CsrGraph random = GraphLoader.fromEdges(n, SyntheticGraphs.randomEdges(n, m, false, 47));
+            run("random", random);
+            CsrGraph dag = GraphLoader.fromEdges(n, SyntheticGraphs.layeredDag(100, n / 100, m / n, 47));
+            run("layered DAG", dag);
+            run("layered, BFS", VertexOrdering.relabel(dag, VertexOrdering.Strategy.BFS).graph);
+        } catch (RuntimeException e) {
+            System.err.println("\nA critical error occurred: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("\nAn unexpected error occurred during execution.");
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra vs parallel delta-stepping on a random cyclic graph, the same graph
+ * with a third of the weights set to 0 (zero-weight cycles), and both against
+ * pathInDAG on a random DAG where all three must agree. Every run must also
+ * leave pred as a tree of tight edges rooted at the source.
+ * Usage: ShortestPathBenchmark [vertices edges] (default 1,000,000 x 8,000,000)
+ */
+public class ShortestPathBenchmark {
+
+    private static final int ROUNDS = 3;
+
+    // pred of every reachable vertex is a tight edge, and following pred always ends at the source
+    static boolean predecessorTree(Graph g, DagPathEngine.Result r) {
+        int n = g.vertexCount();
+        boolean[] tight = new boolean[n];
+        for (int u = 0; u < n; u++) {
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                int v = g.target(e);
+                if (r.pred[v] == u && r.dist[u] + g.weight(e) == r.dist[v]) tight[v] = true;
+            }
+        }
+        byte[] state = new byte[n]; // 0 unchecked, 1 on the current walk, 2 reaches the source
+        state[r.source] = 2;
+        IntList walk = new IntList();
+        for (int v = 0; v < n; v++) {
+            if (!r.reachable(v)) continue;
+            if (v != r.source && !tight[v]) return false;
+            walk.clear();
+            int x = v;
+            while (state[x] == 0) {
+                state[x] = 1;
+                walk.add(x);
+                x = r.pred[x];
+                if (x == -1) return false;
+            }
+            if (state[x] == 1) return false; // a predecessor cycle
+            for (int i = 0; i < walk.size(); i++) state[walk.get(i)] = 2;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        int n = args.length >= 2 ? Integer.parseInt(args[0]) : 1_000_000;
+        int m = args.length >= 2 ? Integer.parseInt(args[1]) : 8_000_000;
+        System.out.printf("--- Shortest Paths (n=%d, m=%d, cores=%d) ---\n",
+                n, m, Runtime.getRuntime().availableProcessors());
+
+        for (String kind : new String[] {"Cyclic", "Zero-w", "DAG"}) {
+            boolean dag = kind.equals("DAG");
+            int[][] edges = SyntheticGraphs.randomEdges(n, m, dag, 35);
+            if (kind.equals("Zero-w")) {
+                for (int i = 0; i < edges.length; i += 3) edges[i][2] = 0;
+            }
+            CsrGraph g = GraphLoader.fromEdges(n, edges);
+            // First vertex with an out-edge, so the search (and the pred check) is never empty
+            int source = 0;
+            while (source < n - 1 && g.outDegree(source) == 0) source++;
+            double delta = ShortestPathEngine.defaultDelta(g);
+            ShortestPathEngine engine = new ShortestPathEngine();
+
+            double dijkstraMillis = Double.MAX_VALUE, deltaMillis = Double.MAX_VALUE;
+            long dijkstraRelaxations = 0, deltaRelaxations = 0;
+            DagPathEngine.Result a = null, b = null;
+            for (int round = 0; round < ROUNDS; round++) {
+                engine.resetRelaxationCount();
+                long start = System.nanoTime();
+                a = engine.dijkstra(g, source);
+                dijkstraMillis = Math.min(dijkstraMillis, (System.nanoTime() - start) / 1_000_000.0);
+                dijkstraRelaxations = engine.relaxationCount();
+
+                engine.resetRelaxationCount();
+                start = System.nanoTime();
+                b = engine.deltaStepping(g, source, delta);
+                deltaMillis = Math.min(deltaMillis, (System.nanoTime() - start) / 1_000_000.0);
+                deltaRelaxations = engine.relaxationCount();
+            }
+            System.out.printf("%-7s Dijkstra %.1f ms (%d relaxations), delta-stepping %.1f ms (%d relaxations, delta=%.2f), distances %s, pred %s\n",
+                    kind, dijkstraMillis, dijkstraRelaxations, deltaMillis, deltaRelaxations, delta,
+                    Arrays.equals(a.dist, b.dist) ? "match" : "DIFFER",
+                    predecessorTree(g, a) && predecessorTree(g, b) ? "trees" : "BROKEN");
+
+            if (dag) {
+                int[] topoOrder = new KahnEngine().sort(g);
+                DagPathEngine dagEngine = new DagPathEngine();
+                long start = System.nanoTime();
+                DagPathEngine.Result c = dagEngine.pathInDAG(g, topoOrder, source, true);
+                System.out.printf("%-7s pathInDAG %.1f ms (%d relaxations), distances %s, pred %s\n",
+                        "DAG", (System.nanoTime() - start) / 1_000_000.0, dagEngine.relaxationCount(),
+                        Arrays.equals(a.dist, c.dist) ? "match" : "DIFFER", predecessorTree(g, c) ? "trees" : "BROKEN");
+            }
+        }
+    }
+}
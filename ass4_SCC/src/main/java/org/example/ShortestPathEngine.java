@@ -0,0 +1,213 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Single-source shortest paths for graphs with cycles (non-negative weights),
+ * used when the topological order check fails and pathInDAG does not apply.
+ * Results use the same DagPathEngine.Result (dist / pred arrays) as pathInDAG.
+ *   - dijkstra: sequential, indexed 4-ary heap over int ids;
+ *   - deltaStepping: parallel buckets of width delta; light edges (w <= delta)
+ *     are relaxed phase by phase inside a bucket, heavy edges once per bucket.
+ */
+public class ShortestPathEngine {
+
+    /** Below this many vertices (or on one core) delta-stepping does not pay off. */
+    private static final int PARALLEL_MIN_VERTICES = 100_000;
+    private static final int CHUNK = 1_024;
+
+    private long relaxationCount = 0;
+
+    /** Dijkstra, or delta-stepping for large graphs on a multi-core machine. */
+    public DagPathEngine.Result shortestPaths(Graph g, int source) {
+        if (g.vertexCount() >= PARALLEL_MIN_VERTICES && Runtime.getRuntime().availableProcessors() > 1) {
+            return deltaStepping(g, source, defaultDelta(g));
+        }
+        return dijkstra(g, source);
+    }
+
+    public DagPathEngine.Result dijkstra(Graph g, int source) {
+        int n = g.vertexCount();
+        double[] dist = new double[n];
+        int[] pred = new int[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(pred, -1);
+        dist[source] = 0.0;
+
+        IndexedDaryHeap heap = new IndexedDaryHeap(n);
+        heap.insertOrDecrease(source, 0.0);
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            double du = dist[u];
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                relaxationCount++;
+                int v = g.target(e);
+                double newDist = du + checkedWeight(g, e);
+                if (newDist < dist[v]) {
+                    dist[v] = newDist;
+                    pred[v] = u;
+                    heap.insertOrDecrease(v, newDist);
+                }
+            }
+        }
+        return new DagPathEngine.Result(source, true, dist, pred);
+    }
+
+    /** Average edge weight: a common bucket width when nothing better is known. */
+    public static double defaultDelta(Graph g) {
+        if (g.edgeCount() == 0) return 1.0;
+        double total = 0;
+        for (long e = 0; e < g.edgeCount(); e++) total += g.weight(e);
+        return Math.max(1.0, total / g.edgeCount());
+    }
+
+    public DagPathEngine.Result deltaStepping(Graph g, int source, double delta) {
+        int n = g.vertexCount();
+        // Non-negative doubles order like their bit patterns, so CAS on the bits implements atomic min
+        AtomicLongArray dist = new AtomicLongArray(n);
+        long infinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < n; v++) dist.set(v, infinity);
+        dist.set(source, Double.doubleToRawLongBits(0.0));
+
+        List<IntList> buckets = new ArrayList<>();
+        bucket(buckets, 0).add(source);
+        int[] stamp = new int[n];
+        int phase = 0;
+        LongAdder relaxations = new LongAdder();
+        // Scratch lists reused across phases; an emptied bucket swaps places with spare
+        IntList spare = new IntList(), frontier = new IntList(), settled = new IntList();
+
+        for (int i = 0; i < buckets.size(); i++) {
+            settled.clear();
+            while (!buckets.get(i).isEmpty()) {
+                // Frontier: vertices still belonging to bucket i, each once per phase
+                IntList current = buckets.get(i);
+                spare.clear();
+                buckets.set(i, spare);
+                spare = current;
+                phase++;
+                frontier.clear();
+                for (int j = 0; j < current.size(); j++) {
+                    int v = current.get(j);
+                    if (stamp[v] != phase && bucketIndex(dist, v, delta) == i) {
+                        stamp[v] = phase;
+                        frontier.add(v);
+                        settled.add(v);
+                    }
+                }
+                relaxInParallel(g, frontier, dist, delta, true, buckets, relaxations);
+            }
+            relaxInParallel(g, settled, dist, delta, false, buckets, relaxations);
+        }
+        relaxationCount += relaxations.sum();
+
+        double[] result = new double[n];
+        for (int v = 0; v < n; v++) result[v] = Double.longBitsToDouble(dist.get(v));
+        return new DagPathEngine.Result(source, true, result, predecessors(g, source, result));
+    }
+
+    // Relaxes the light (or heavy) edges of every vertex in the set; improved targets go to their buckets
+    private static void relaxInParallel(Graph g, IntList set, AtomicLongArray dist, double delta, boolean light,
+                                        List<IntList> buckets, LongAdder relaxations) {
+        int chunks = (set.size() + CHUNK - 1) / CHUNK;
+        List<IntList> improved = IntStream.range(0, chunks).parallel().mapToObj(c -> {
+            IntList local = new IntList();
+            long count = 0;
+            for (int j = c * CHUNK; j < Math.min(set.size(), (c + 1) * CHUNK); j++) {
+                int u = set.get(j);
+                double du = Double.longBitsToDouble(dist.get(u));
+                for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                    int w = checkedWeight(g, e);
+                    if ((w <= delta) != light) continue;
+                    count++;
+                    int v = g.target(e);
+                    long candidate = Double.doubleToRawLongBits(du + w);
+                    long old = dist.get(v);
+                    while (candidate < old) {
+                        if (dist.compareAndSet(v, old, candidate)) {
+                            local.add(v);
+                            break;
+                        }
+                        old = dist.get(v);
+                    }
+                }
+            }
+            relaxations.add(count);
+            return local;
+        }).toList();
+
+        for (IntList local : improved) {
+            for (int j = 0; j < local.size(); j++) {
+                int v = local.get(j);
+                bucket(buckets, bucketIndex(dist, v, delta)).add(v);
+            }
+        }
+    }
+
+    // Shortest-path tree: level-synchronous BFS from the source over tight edges
+    // (dist[u] + w == dist[v]). Each vertex is claimed once, by CAS, so zero-weight
+    // cycles cannot close a predecessor cycle. Integer weights sum exactly, so
+    // every reachable vertex has a tight path from the source.
+    private static int[] predecessors(Graph g, int source, double[] dist) {
+        int n = dist.length;
+        int unseen = -2;
+        AtomicIntegerArray pred = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) pred.set(v, unseen);
+        pred.set(source, -1);
+        IntList frontier = new IntList();
+        frontier.add(source);
+        while (!frontier.isEmpty()) {
+            IntList current = frontier;
+            int chunks = (current.size() + CHUNK - 1) / CHUNK;
+            List<IntList> claimed = IntStream.range(0, chunks).parallel().mapToObj(c -> {
+                IntList local = new IntList();
+                for (int j = c * CHUNK; j < Math.min(current.size(), (c + 1) * CHUNK); j++) {
+                    int u = current.get(j);
+                    for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                        int v = g.target(e);
+                        if (pred.get(v) == unseen && dist[u] + g.weight(e) == dist[v] && pred.compareAndSet(v, unseen, u)) {
+                            local.add(v);
+                        }
+                    }
+                }
+                return local;
+            }).toList();
+            frontier = new IntList();
+            for (IntList local : claimed) {
+                for (int j = 0; j < local.size(); j++) frontier.add(local.get(j));
+            }
+        }
+        int[] result = new int[n];
+        for (int v = 0; v < n; v++) result[v] = pred.get(v) == unseen ? -1 : pred.get(v);
+        return result;
+    }
+
+    private static int bucketIndex(AtomicLongArray dist, int v, double delta) {
+        return (int) (Double.longBitsToDouble(dist.get(v)) / delta);
+    }
+
+    private static IntList bucket(List<IntList> buckets, int index) {
+        while (buckets.size() <= index) buckets.add(new IntList());
+        return buckets.get(index);
+    }
+
+    private static int checkedWeight(Graph g, long e) {
+        int w = g.weight(e);
+        if (w < 0) throw new IllegalArgumentException("Error: shortest paths on cyclic graphs need non-negative weights");
+        return w;
+    }
+
+    public long relaxationCount() {
+        return relaxationCount;
+    }
+
+    public void resetRelaxationCount() {
+        relaxationCount = 0;
+    }
+}
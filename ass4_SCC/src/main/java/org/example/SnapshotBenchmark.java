@@ -0,0 +1,86 @@
+package org.example;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Cold run (load, SCC, condensation, Kahn, save) against a warm restart from the
+ * ResultSnapshot of the same edge-list file, and stale detection after the file
+ * changes by one byte.
+ * Usage: SnapshotBenchmark [vertices edges] (default 1,000,000 x 5,000,000)
+ */
+public class SnapshotBenchmark {
+
+    private static final String PIPELINE = "benchmark";
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length >= 2 ? Integer.parseInt(args[0]) : 1_000_000;
+        int m = args.length >= 2 ? Integer.parseInt(args[1]) : 5_000_000;
+
+        Path directory = Files.createTempDirectory("snapshots");
+        Path file = directory.resolve("edges.csv");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                for (int[] e : SyntheticGraphs.randomEdges(n, m, false, 39)) {
+                    writer.write(SyntheticGraphs.name(e[0]) + "," + SyntheticGraphs.name(e[1]) + "," + e[2]);
+                    writer.newLine();
+                }
+            }
+            System.out.printf("--- Result Snapshots (n=%d, m=%d, %.1f MB input) ---\n", n, m, Files.size(file) / 1e6);
+
+            // Cold: full computation, then save
+            long start = System.nanoTime();
+            String key = ResultSnapshot.key(file.toString(), PIPELINE);
+            double hashMillis = (System.nanoTime() - start) / 1_000_000.0;
+            CsrGraph g = GraphLoader.load(file.toString());
+            SccEngine scc = new SccEngine().run(g).canonicalize(g, TieBreak.INPUT_ORDER.ranks(g.names()));
+            CsrGraph condensation = Condensation.build(g, scc);
+            int[] order = new KahnEngine().sort(condensation);
+            double computeMillis = (System.nanoTime() - start) / 1_000_000.0;
+            start = System.nanoTime();
+            Path saved = new ResultSnapshot.Builder()
+                    .put("names", g.names())
+                    .put("compOf", scc.compOf())
+                    .put("componentOffsets", scc.componentOffsets())
+                    .put("componentMembers", scc.componentMembers())
+                    .put("condensation", condensation)
+                    .put("topoOrder", order)
+                    .save(directory, PIPELINE, key);
+            double saveMillis = (System.nanoTime() - start) / 1_000_000.0;
+            System.out.printf("Cold run:  %.1f ms (hash %.1f ms), save %.1f ms, snapshot %.1f MB\n",
+                    computeMillis, hashMillis, saveMillis, Files.size(saved) / 1e6);
+
+            // Warm: hash, map, restore
+            start = System.nanoTime();
+            boolean same;
+            try (ResultSnapshot snapshot = ResultSnapshot.open(directory, PIPELINE, ResultSnapshot.key(file.toString(), PIPELINE))) {
+                if (snapshot == null) throw new RuntimeException("Error: snapshot was not found on the warm run");
+                VertexNames names = snapshot.names("names");
+                int[] compOf = snapshot.ints("compOf");
+                Graph restored = snapshot.graph("condensation", VertexNames.numbered("SCC ", condensation.vertexCount()));
+                int[] restoredOrder = snapshot.ints("topoOrder");
+                double warmMillis = (System.nanoTime() - start) / 1_000_000.0;
+                same = names.size() == g.vertexCount() && Arrays.equals(compOf, scc.compOf()) && Arrays.equals(restoredOrder, order)
+                        && EdgeListBenchmark.sameGraph(condensation, restored);
+                System.out.printf("Warm run:  %.1f ms (%.1fx faster), results %s\n",
+                        warmMillis, computeMillis / warmMillis, same ? "match" : "DIFFER");
+            }
+
+            // One changed weight must make the snapshot stale
+            byte[] bytes = Files.readAllBytes(file);
+            int last = bytes.length - 2;
+            bytes[last] = (byte) (bytes[last] == '1' ? '2' : '1');
+            Files.write(file, bytes);
+            ResultSnapshot stale = ResultSnapshot.open(directory, PIPELINE, ResultSnapshot.key(file.toString(), PIPELINE));
+            System.out.printf("After editing one byte: snapshot %s\n", stale == null ? "detected as stale" : "WRONGLY REUSED");
+            if (stale != null) stale.close();
+        } finally {
+            try (var paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example;
+
+import java.util.*;
+
+/**
+ * Reproducible random graphs for the benchmarks, in the same {nodes, edges}
+ * shape the JSON datasets use (names "V1".."Vn", weights 1..10).
+ */
+public class SyntheticGraphs {
+
+    /**
+     * Returns m edges as {u, v, w} with 0-based vertex indices.
+     * For a DAG every edge goes from a lower to a higher index.
+     */
+    public static int[][] randomEdges(int n, int m, boolean dag, long seed) {
+        Random random = new Random(seed);
+        int[][] edges = new int[m][];
+        for (int i = 0; i < m; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (u == v) v = (v + 1) % n;
+            if (dag && u > v) {
+                int t = u; u = v; v = t;
+            }
+            edges[i] = new int[] {u, v, 1 + random.nextInt(10)};
+        }
+        return edges;
+    }
+
+    /**
+     * Wide, shallow DAG like a build or task schedule: layers of equal width,
+     * each vertex with degree edges into the next layer.
+     */
+    public static int[][] layeredDag(int layers, int width, int degree, long seed) {
+        Random random = new Random(seed);
+        int[][] edges = new int[(layers - 1) * width * degree][];
+        int m = 0;
+        for (int layer = 0; layer < layers - 1; layer++) {
+            for (int i = 0; i < width; i++) {
+                int u = layer * width + i;
+                for (int d = 0; d < degree; d++) {
+                    int v = (layer + 1) * width + random.nextInt(width);
+                    edges[m++] = new int[] {u, v, 1 + random.nextInt(10)};
+                }
+            }
+        }
+        return edges;
+    }
+
+    public static String name(int v) {
+        return "V" + (v + 1);
+    }
+
+    public static KosarajuSCC.GraphData toGraphData(int n, int[][] edges) {
+        KosarajuSCC.GraphData data = new KosarajuSCC.GraphData();
+        data.nodes = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) data.nodes.add(name(v));
+        data.edges = new ArrayList<>(edges.length);
+        for (int[] e : edges) data.edges.add(List.of(name(e[0]), name(e[1]), Integer.toString(e[2])));
+        return data;
+    }
+
+    public static DagPaths.GraphData toWeightedGraphData(int n, int[][] edges) {
+        DagPaths.GraphData data = new DagPaths.GraphData();
+        data.nodes = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) data.nodes.add(name(v));
+        data.edges = new ArrayList<>(edges.length);
+        for (int[] e : edges) data.edges.add(List.of(name(e[0]), name(e[1]), e[2]));
+        return data;
+    }
+}
@@ -0,0 +1,223 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs the tasks of a DAG (the condensation, or an acyclic input) on a fixed
+ * number of worker threads: a task becomes ready the moment its last predecessor
+ * finishes, and an idle worker takes the ready task with the longest remaining
+ * critical path (bottom level, DagPathEngine.longestPathFrom over the task costs).
+ * Priorities are global, so the ready tasks sit in one heap under a lock rather
+ * than in per-worker deques; workers are platform threads or virtual threads
+ * (whose carriers are the JDK's work-stealing ForkJoinPool).
+ * Tasks should be coarse: every dispatch and completion takes the lock once.
+ */
+public class TaskExecutor {
+
+    public enum Workers { PLATFORM, VIRTUAL }
+
+    public enum Priority {
+        /** Longest remaining critical path first (HLFET list scheduling). */
+        CRITICAL_PATH,
+        /** Ready order, like a plain queue. */
+        FIFO
+    }
+
+    private final int workers;
+    private final Workers threads;
+    private final Priority priority;
+
+    // Shared state of one run, guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private IndexedDaryHeap ready;
+    private int[] inDegree;
+    private int finished, running;
+    private long readySequence;
+    private RuntimeException failure;
+
+    public TaskExecutor(int workers, Workers threads, Priority priority) {
+        if (workers < 1) throw new IllegalArgumentException("Error: at least one worker is needed, got " + workers);
+        this.workers = workers;
+        this.threads = threads;
+        this.priority = priority;
+    }
+
+    /** Timeline of one run; times in milliseconds from the start of the run. */
+    public static class Result {
+        public final int workers;
+        public final double[] start;
+        public final double[] finish;
+        public final double makespan;      // first dispatch to last completion
+        public final double startup;       // run start to first dispatch (thread start, warm-up)
+        public final double work;          // sum of task durations
+        public final double criticalPath;  // longest dependency chain of measured durations
+        public final long waits;           // times a worker found no ready task
+
+        Result(int workers, double[] start, double[] finish, double makespan, double startup, double work,
+               double criticalPath, long waits) {
+            this.workers = workers;
+            this.start = start;
+            this.finish = finish;
+            this.makespan = makespan;
+            this.startup = startup;
+            this.work = work;
+            this.criticalPath = criticalPath;
+            this.waits = waits;
+        }
+
+        /** No schedule beats the critical path, nor the work spread evenly over all workers. */
+        public double lowerBound() {
+            return Math.max(criticalPath, work / workers);
+        }
+
+        /** Share of worker time spent running tasks. */
+        public double utilization() {
+            return makespan == 0 ? 0 : work / (workers * makespan);
+        }
+
+        public void print(String tasks) {
+            System.out.printf("\n--- Task Execution (%d %s, %d workers) ---\n", start.length, tasks, workers);
+            System.out.printf("Makespan: %.3f ms (serial work %.3f ms, speedup x%.2f), worker start-up %.3f ms\n",
+                    makespan, work, makespan == 0 ? 0 : work / makespan, startup);
+            System.out.printf("Critical Path Bound: %.3f ms, Work Bound: %.3f ms -> makespan is %.2fx the lower bound\n",
+                    criticalPath, work / workers, lowerBound() == 0 ? 0 : makespan / lowerBound());
+            System.out.printf("Worker Utilization: %.1f%% (%d idle waits)\n", 100 * utilization(), waits);
+        }
+    }
+
+    /**
+     * Executes work(u) for every vertex u of dag once all its predecessors have
+     * finished. cost[u] is the expected duration, used only for priorities.
+     * The first task to throw stops the dispatch, and its exception is rethrown.
+     */
+    public Result run(Graph dag, int[] topoOrder, double[] cost, IntConsumer work) {
+        int n = dag.vertexCount();
+        if (topoOrder.length != n) {
+            throw new IllegalArgumentException("Error: topological order covers " + topoOrder.length + " of " + n + " tasks; the graph is not a DAG");
+        }
+        double[] level = new DagPathEngine().longestPathFrom(dag, topoOrder, cost);
+        ready = new IndexedDaryHeap(Math.max(n, 1));
+        inDegree = new int[n];
+        EdgeCursor cursor = dag.cursor();
+        for (int u = 0; u < n; u++) {
+            for (cursor.reset(u); cursor.next(); ) inDegree[cursor.target()]++;
+        }
+        finished = 0;
+        running = 0;
+        readySequence = 0;
+        failure = null;
+        for (int u : topoOrder) {
+            if (inDegree[u] == 0) offer(u, level);
+        }
+
+        double[] start = new double[n];
+        double[] finish = new double[n];
+        long[] waits = new long[workers];
+        long origin = System.nanoTime();
+        Thread[] pool = new Thread[workers];
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            Runnable loop = () -> waits[worker] = workLoop(dag.cursor(), level, work, origin, start, finish);
+            pool[w] = threads == Workers.VIRTUAL ? Thread.ofVirtual().name("task-worker-" + w).start(loop)
+                    : Thread.ofPlatform().name("task-worker-" + w).start(loop);
+        }
+        try {
+            for (Thread thread : pool) thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Thread thread : pool) thread.interrupt();
+            throw new RuntimeException("Error: interrupted while waiting for the task workers");
+        }
+        if (failure != null) throw failure;
+
+        double[] duration = new double[n];
+        double total = 0, first = n == 0 ? 0 : Double.MAX_VALUE, last = 0;
+        for (int u = 0; u < n; u++) {
+            duration[u] = finish[u] - start[u];
+            total += duration[u];
+            first = Math.min(first, start[u]);
+            last = Math.max(last, finish[u]);
+        }
+        double criticalPath = Arrays.stream(new DagPathEngine().longestPathFrom(dag, topoOrder, duration)).max().orElse(0);
+        return new Result(workers, start, finish, last - first, first, total, criticalPath, Arrays.stream(waits).sum());
+    }
+
+    // Called with the lock held (or before the workers start)
+    private void offer(int u, double[] level) {
+        ready.insertOrDecrease(u, priority == Priority.CRITICAL_PATH ? -level[u] : readySequence++);
+    }
+
+    private long workLoop(EdgeCursor cursor, double[] level, IntConsumer work, long origin, double[] start, double[] finish) {
+        long waits = 0;
+        int n = inDegree.length;
+        while (true) {
+            int u;
+            lock.lock();
+            try {
+                while (ready.isEmpty() && finished + running < n && failure == null) {
+                    waits++;
+                    changed.awaitUninterruptibly();
+                }
+                if (ready.isEmpty() || failure != null) return waits;
+                u = ready.pollMin();
+                running++;
+            } finally {
+                lock.unlock();
+            }
+
+            // start and finish of u are only written here; the lock publishes them to run()
+            start[u] = (System.nanoTime() - origin) / 1e6;
+            // Errors too: a worker that died here would leave running and finished short, and the others waiting
+            Throwable thrown = null;
+            try {
+                work.accept(u);
+            } catch (Throwable e) {
+                thrown = e;
+            }
+            finish[u] = (System.nanoTime() - origin) / 1e6;
+
+            lock.lock();
+            try {
+                running--;
+                finished++;
+                if (thrown != null && failure == null) {
+                    failure = new RuntimeException("Error: task " + u + " failed: " + thrown.getMessage(), thrown);
+                }
+                int released = 0;
+                for (cursor.reset(u); cursor.next(); ) {
+                    int v = cursor.target();
+                    if (--inDegree[v] == 0) {
+                        offer(v, level);
+                        released++;
+                    }
+                }
+                if (released > 1 || finished == n || failure != null) changed.signalAll();
+                else if (released == 1) changed.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Stand-in work of micros[u] microseconds per task: busy-spinning (CPU-bound
+     * tasks, which need a core each) or parked (blocking tasks such as I/O).
+     */
+    public static IntConsumer simulated(double[] micros, boolean blocking) {
+        return u -> {
+            long nanos = (long) (micros[u] * 1_000);
+            if (blocking) {
+                long deadline = System.nanoTime() + nanos;
+                for (long left = nanos; left > 0; left = deadline - System.nanoTime()) LockSupport.parkNanos(left);
+            } else {
+                long deadline = System.nanoTime() + nanos;
+                while (System.nanoTime() < deadline) Thread.onSpinWait();
+            }
+        };
+    }
+}
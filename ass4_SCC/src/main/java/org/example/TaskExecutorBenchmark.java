@@ -0,0 +1,82 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * TaskExecutor on synthetic task DAGs with random durations: makespan against the
+ * serial sum and the lower bound max(critical path, work / workers), for FIFO and
+ * critical-path priority on platform and virtual threads. Tasks are parked by
+ * default (blocking work), so the schedule and not the core count sets the
+ * makespan; pass "spin" for CPU-bound tasks. The chain graph is where priority
+ * matters: FIFO starts the independent tasks first and leaves the chain for last.
+ * Usage: TaskExecutorBenchmark [workers [tasks [spin]]] (default 8 x 2,000, parked)
+ */
+public class TaskExecutorBenchmark {
+
+    private static final int ROUNDS = 3;
+
+    private static void run(String label, Graph dag, double[] micros, int workers, boolean blocking) {
+        int[] order = new KahnEngine().sort(dag);
+        double serial = 0;
+        for (double c : micros) serial += c / 1e3;
+        System.out.printf("%-14s %5d tasks %6d deps, serial %.1f ms\n", label, dag.vertexCount(), dag.edgeCount(), serial);
+        for (TaskExecutor.Workers threads : TaskExecutor.Workers.values()) {
+            for (TaskExecutor.Priority priority : TaskExecutor.Priority.values()) {
+                TaskExecutor executor = new TaskExecutor(workers, threads, priority);
+                TaskExecutor.Result result = null;
+                for (int round = 0; round < ROUNDS; round++) {
+                    TaskExecutor.Result next = executor.run(dag, order, micros, TaskExecutor.simulated(micros, blocking));
+                    if (result == null || next.makespan < result.makespan) result = next;
+                }
+                System.out.printf("  %-8s %-13s makespan %8.2f ms | bound %8.2f ms (x%.2f) | utilization %5.1f%% | speedup x%.2f\n",
+                        threads, priority, result.makespan, result.lowerBound(), result.makespan / result.lowerBound(),
+                        100 * result.utilization(), result.work / result.makespan);
+            }
+        }
+    }
+
+    // Durations from 20 to ~2,000 us, most of them short
+    private static double[] costs(int n, long seed) {
+        Random random = new Random(seed);
+        double[] micros = new double[n];
+        for (int u = 0; u < n; u++) micros[u] = 20 + 2_000 * Math.pow(random.nextDouble(), 4);
+        return micros;
+    }
+
+    public static void main(String[] args) {
+        int workers = args.length >= 1 ? Integer.parseInt(args[0]) : 8;
+        int tasks = args.length >= 2 ? Integer.parseInt(args[1]) : 2_000;
+        boolean blocking = args.length < 3 || !args[2].equals("spin");
+        System.out.printf("--- Task Executor Benchmark (%d workers, %d cores, %s tasks, best of %d) ---\n",
+                workers, Runtime.getRuntime().availableProcessors(), blocking ? "parked" : "spinning", ROUNDS);
+        try {
+            run("layered DAG", GraphLoader.fromEdges(tasks, SyntheticGraphs.layeredDag(20, tasks / 20, 3, 45)),
+                    costs(tasks, 45), workers, blocking);
+            run("random DAG", GraphLoader.fromEdges(tasks, SyntheticGraphs.randomEdges(tasks, 3 * tasks, true, 45)),
+                    costs(tasks, 46), workers, blocking);
+
+            // A chain over the last tenth of the ids, the other tasks independent, all 200 us
+            int[][] chain = new int[tasks / 10 - 1][];
+            for (int i = 0; i < chain.length; i++) chain[i] = new int[] {tasks - tasks / 10 + i, tasks - tasks / 10 + i + 1, 1};
+            double[] flat = new double[tasks];
+            Arrays.fill(flat, 200);
+            run("chain + flat", GraphLoader.fromEdges(tasks, chain), flat, workers, blocking);
+
+            // Condensation of a cyclic graph, a component costing the sum of its members
+            int n = tasks * 4;
+            CsrGraph g = GraphLoader.fromEdges(n, SyntheticGraphs.randomEdges(n, n + n / 4, false, 45));
+            SccEngine scc = new SccEngine().run(g).canonicalize(g, TieBreak.INPUT_ORDER.ranks(g.names()));
+            CsrGraph condensation = Condensation.build(g, scc);
+            double[] member = costs(n, 47);
+            double[] micros = new double[scc.componentCount()];
+            for (int v = 0; v < n; v++) micros[scc.compOf()[v]] += member[v] / 4;
+            run("condensation", condensation, micros, workers, blocking);
+        } catch (RuntimeException e) {
+            System.err.println("\nA critical error occurred: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("\nAn unexpected error occurred during execution.");
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Human-readable output in the format the mains have always printed.
+ * Orders are written entry by entry with their separators, not joined first.
+ */
+class TextResultSink extends WriterResultSink {
+
+    // Order entries share one line; the next section() or close() ends it
+    private boolean openLine;
+
+    TextResultSink(Writer out, boolean console, VertexNames vertices, VertexNames components) {
+        super(out, console, vertices, components);
+    }
+
+    @Override
+    public void section(String title) throws IOException {
+        endLine();
+        out.write(title);
+        out.write('\n');
+    }
+
+    @Override
+    public void component(int c, int[] members, int from, int to) throws IOException {
+        out.write(components.nameOf(c));
+        out.write(" (Size: " + (to - from) + "): [");
+        for (int i = from; i < to; i++) {
+            if (i > from) out.write(", ");
+            out.write(vertices.nameOf(members[i]));
+        }
+        out.write("]\n");
+    }
+
+    @Override
+    public void componentEdges(int c, Graph dag) throws IOException {
+        out.write("  " + components.nameOf(c) + " -> [");
+        long start = dag.edgeStart(c), end = dag.edgeEnd(c);
+        if (start == end) out.write("None");
+        for (long e = start; e < end; e++) {
+            if (e > start) out.write(", ");
+            out.write(components.nameOf(dag.target(e)));
+        }
+        out.write("]\n");
+    }
+
+    @Override
+    public void componentOrder(int position, int c) throws IOException {
+        if (position > 0) out.write(" -> ");
+        out.write(components.nameOf(c));
+        openLine = true;
+    }
+
+    @Override
+    public void taskOrder(int position, int v) throws IOException {
+        if (position > 0) out.write(", ");
+        out.write(vertices.nameOf(v));
+        openLine = true;
+    }
+
+    @Override
+    public void distance(String run, int v, double dist) throws IOException {
+        if (Double.isInfinite(dist)) {
+            out.write("  To " + vertices.nameOf(v) + ": Unreachable\n");
+        } else {
+            out.write(String.format("  To %s: %.2f\n", vertices.nameOf(v), dist));
+        }
+    }
+
+    @Override
+    public void path(String run, int[] path) throws IOException {
+        out.write("  Path: ");
+        for (int i = 0; i < path.length; i++) {
+            if (i > 0) out.write(" -> ");
+            out.write(vertices.nameOf(path[i]));
+        }
+        out.write('\n');
+    }
+
+    private void endLine() throws IOException {
+        if (openLine) {
+            out.write('\n');
+            openLine = false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        endLine();
+        super.close();
+    }
+}
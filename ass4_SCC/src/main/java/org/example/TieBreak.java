@@ -0,0 +1,30 @@
+package org.example;
+
+/**
+ * Tie-break rule for deterministic output: when several vertices are equally
+ * ready (Kahn) or a component needs a canonical representative (SCC ids), the
+ * vertex with the lowest rank wins. Ranks depend only on the names or the input
+ * order, never on hash iteration order.
+ */
+public enum TieBreak {
+
+    /** Order of first appearance in the input (data.nodes, then edges). */
+    INPUT_ORDER,
+
+    /** String order of the vertex names, independent of the input order. */
+    LEXICOGRAPHIC;
+
+    /** rank[v] for every vertex: a permutation of 0..n-1. */
+    public int[] ranks(VertexNames names) {
+        int n = names.size();
+        int[] rank = new int[n];
+        if (this == INPUT_ORDER) {
+            for (int v = 0; v < n; v++) rank[v] = v;
+            return rank;
+        }
+        // Sorted on the dictionary's bytes and numbers, without a String per name
+        int[] sorted = names.dictionary().sortedIds();
+        for (int r = 0; r < n; r++) rank[sorted[r]] = r;
+        return rank;
+    }
+}
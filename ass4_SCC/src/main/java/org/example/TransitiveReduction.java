@@ -0,0 +1,136 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Transitive reduction of a DAG (normally the SCC condensation): drops every
+ * edge u -> v where v is also reachable through another successor of u. The
+ * result has the same reachability, and so the same topological orders, with
+ * the fewest edges.
+ *
+ * Reachability is kept as bitsets over a block of target columns at a time, so
+ * memory stays within MEMORY_BUDGET whatever the DAG size. Per block, the
+ * bitsets are filled level by level from the sinks (all vertices of one level in
+ * parallel), then every vertex reduces its own successor list in parallel.
+ */
+public class TransitiveReduction {
+
+    /** Bytes of reachability bitsets held at once. */
+    public static final long MEMORY_BUDGET = 256L << 20;
+
+    private long removedEdges;
+    private long nanos;
+
+    public CsrGraph reduce(Graph dag, int[] topoOrder) {
+        long start = System.nanoTime();
+        int k = dag.vertexCount();
+        if (topoOrder.length != k) throw new IllegalArgumentException("Error: transitive reduction needs a DAG");
+        int[] topoPos = new int[k];
+        for (int i = 0; i < k; i++) topoPos[topoOrder[i]] = i;
+
+        // Row positions of every vertex's successors in topological order: a successor
+        // can only be implied by one that comes earlier
+        int[] offsets = new int[k + 1];
+        for (int u = 0; u < k; u++) offsets[u + 1] = offsets[u] + dag.outDegree(u);
+        int[] sortedEdges = new int[offsets[k]];
+        IntStream.range(0, k).parallel().forEach(u -> {
+            int degree = dag.outDegree(u);
+            long[] packed = new long[degree];
+            long first = dag.edgeStart(u);
+            for (int i = 0; i < degree; i++) packed[i] = ((long) topoPos[dag.target(first + i)] << 32) | i;
+            Arrays.sort(packed);
+            for (int i = 0; i < degree; i++) sortedEdges[offsets[u] + i] = (int) packed[i];
+        });
+
+        int[][] levels = levelsFromSinks(dag, topoOrder);
+        boolean[] redundant = new boolean[offsets[k]];
+
+        int blockBits = (int) Math.min(k, Math.max(64, MEMORY_BUDGET * 8 / Math.max(1, k)));
+        int words = (blockBits + 63) >>> 6;
+        long[] reach = new long[(int) Math.min((long) k * words, Integer.MAX_VALUE - 8)];
+        for (int blockStart = 0; blockStart < k; blockStart += blockBits) {
+            int lo = blockStart, hi = Math.min(k, blockStart + blockBits);
+            Arrays.fill(reach, 0L);
+
+            // reach[x] restricted to columns lo..hi-1, filled from the sinks upwards
+            for (int[] level : levels) {
+                IntStream.of(level).parallel().forEach(x -> {
+                    int base = x * words;
+                    if (x >= lo && x < hi) reach[base + ((x - lo) >>> 6)] |= 1L << (x - lo);
+                    for (long e = dag.edgeStart(x), end = dag.edgeEnd(x); e < end; e++) {
+                        int s = dag.target(e) * words;
+                        for (int w = 0; w < words; w++) reach[base + w] |= reach[s + w];
+                    }
+                });
+            }
+
+            // Each vertex: a successor already covered by an earlier successor is redundant
+            IntStream.range(0, k).parallel().forEach(u -> {
+                if (offsets[u + 1] - offsets[u] < 2) return;
+                long[] covered = new long[words];
+                long first = dag.edgeStart(u);
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    int rel = sortedEdges[i]; // position within u's row
+                    int v = dag.target(first + rel);
+                    if (v >= lo && v < hi && (covered[(v - lo) >>> 6] & (1L << (v - lo))) != 0) {
+                        redundant[offsets[u] + rel] = true;
+                    }
+                    int s = v * words;
+                    for (int w = 0; w < words; w++) covered[w] |= reach[s + w];
+                }
+            });
+        }
+
+        // Keep the surviving edges in their original row order
+        int[] newOffsets = new int[k + 1];
+        for (int u = 0; u < k; u++) {
+            int kept = 0;
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) if (!redundant[i]) kept++;
+            newOffsets[u + 1] = newOffsets[u] + kept;
+        }
+        int[] targets = new int[newOffsets[k]];
+        int[] weights = new int[newOffsets[k]];
+        for (int u = 0; u < k; u++) {
+            int pos = newOffsets[u];
+            long e = dag.edgeStart(u);
+            for (int i = offsets[u]; i < offsets[u + 1]; i++, e++) {
+                if (redundant[i]) continue;
+                targets[pos] = dag.target(e);
+                weights[pos++] = dag.weight(e);
+            }
+        }
+        removedEdges = dag.edgeCount() - targets.length;
+        nanos = System.nanoTime() - start;
+        return new CsrGraph(dag.names(), newOffsets, targets, weights);
+    }
+
+    // Vertices grouped by height (sinks are level 0), computed in reverse topological order
+    static int[][] levelsFromSinks(Graph dag, int[] topoOrder) {
+        int k = dag.vertexCount();
+        int[] height = new int[k];
+        int maxHeight = 0;
+        for (int i = k - 1; i >= 0; i--) {
+            int u = topoOrder[i];
+            int h = 0;
+            for (long e = dag.edgeStart(u), end = dag.edgeEnd(u); e < end; e++) h = Math.max(h, height[dag.target(e)] + 1);
+            height[u] = h;
+            maxHeight = Math.max(maxHeight, h);
+        }
+        int[] counts = new int[maxHeight + 1];
+        for (int u = 0; u < k; u++) counts[height[u]]++;
+        int[][] levels = new int[k == 0 ? 0 : maxHeight + 1][];
+        for (int h = 0; h < levels.length; h++) levels[h] = new int[counts[h]];
+        int[] fill = new int[levels.length];
+        for (int u = 0; u < k; u++) levels[height[u]][fill[height[u]]++] = u;
+        return levels;
+    }
+
+    public long removedEdges() {
+        return removedEdges;
+    }
+
+    public double millis() {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example;
+
+import java.lang.foreign.Arena;
+import java.util.*;
+
+/**
+ * Transpose construction: the Map/List getTransposeGraph of the reference
+ * pipeline, the sequential CSR build over reversed edges, and the parallel
+ * counting-sort transpose (on heap and off heap). Checks that the parallel
+ * transposes equal the sequential one, edge order and weights included, and
+ * puts the time next to one full Kosaraju run.
+ * Usage: TransposeBenchmark [vertices edges] (default 1,000,000 x 10,000,000)
+ */
+public class TransposeBenchmark {
+
+    private static final int ROUNDS = 3;
+
+    private interface Build {
+        Graph run();
+    }
+
+    private static double best(Build build) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            build.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        return best;
+    }
+
+    public static void main(String[] args) {
+        int n = args.length >= 2 ? Integer.parseInt(args[0]) : 1_000_000;
+        int m = args.length >= 2 ? Integer.parseInt(args[1]) : 10_000_000;
+        System.out.printf("--- Transpose Benchmark (n=%d, m=%d, %d cores, best of %d) ---\n",
+                n, m, Runtime.getRuntime().availableProcessors(), ROUNDS);
+        try {
+            int[][] edges = SyntheticGraphs.randomEdges(n, m, false, 23);
+            CsrGraph g = GraphLoader.fromEdges(n, edges);
+
+            CsrGraph sequential = CsrGraph.build(g.names(), g.edges().reversed());
+            CsrGraph parallel = g.transpose();
+            double sequentialMillis = best(() -> CsrGraph.build(g.names(), g.edges().reversed()));
+            double parallelMillis = best(g::transpose);
+            System.out.printf("CSR sequential build:   %10.3f ms\n", sequentialMillis);
+            System.out.printf("CSR parallel transpose: %10.3f ms (x%.2f), %s\n", parallelMillis,
+                    sequentialMillis / parallelMillis, EdgeListBenchmark.sameGraph(sequential, parallel) ? "identical" : "DIFFERS");
+
+            try (Arena arena = Arena.ofShared()) {
+                OffHeapCsrGraph offHeap = OffHeapCsrGraph.copyOf(g, arena);
+                double offHeapSequential = best(() -> OffHeapCsrGraph.build(arena, offHeap.names(), offHeap.edges().reversed()));
+                double offHeapParallel = best(offHeap::transpose);
+                System.out.printf("Off-heap sequential:    %10.3f ms\n", offHeapSequential);
+                System.out.printf("Off-heap parallel:      %10.3f ms (x%.2f), %s\n", offHeapParallel,
+                        offHeapSequential / offHeapParallel,
+                        EdgeListBenchmark.sameGraph(sequential, offHeap.transpose()) ? "identical" : "DIFFERS");
+            }
+
+            double kosarajuMillis = best(() -> {
+                new SccEngine().run(g, parallel);
+                return g;
+            });
+            System.out.printf("Kosaraju, both passes:  %10.3f ms (transpose is %.0f%% of SCC + transpose)\n",
+                    kosarajuMillis, 100 * parallelMillis / (parallelMillis + kosarajuMillis));
+
+            // Reference pipeline, on a smaller graph: one boxed ArrayList per vertex
+            int smallN = Math.min(n, 100_000);
+            int[][] smallEdges = SyntheticGraphs.randomEdges(smallN, smallN * 10, false, 23);
+            Set<String> allNodes = new HashSet<>();
+            Map<String, List<String>> G = KosarajuSCC.buildGraph(SyntheticGraphs.toGraphData(smallN, smallEdges), allNodes);
+            CsrGraph small = GraphLoader.fromEdges(smallN, smallEdges);
+            double mapMillis = best(() -> {
+                KosarajuSCC.getTransposeGraph(G, allNodes);
+                return small;
+            });
+            System.out.printf("Map/List getTransposeGraph (n=%d, m=%d): %.3f ms, CSR parallel: %.3f ms\n",
+                    smallN, smallN * 10, mapMillis, best(small::transpose));
+        } catch (RuntimeException e) {
+            System.err.println("\nA critical error occurred: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("\nAn unexpected error occurred during execution.");
+            e.printStackTrace();
+        }
+    }
+}
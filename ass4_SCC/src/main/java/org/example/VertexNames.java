@@ -0,0 +1,64 @@
+package org.example;
+
+/**
+ * Mapping between vertex names ("V17") and dense int ids.
+ * Ids follow first appearance, so data.nodes order is kept.
+ * Backed by a NameDictionary: "V<number>" names cost no String or byte storage.
+ */
+public class VertexNames {
+
+    private final NameDictionary dictionary;
+
+    public VertexNames() {
+        this(new NameDictionary());
+    }
+
+    public VertexNames(NameDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /** Returns the id of name, assigning the next id if it is new. */
+    public int intern(String name) {
+        return dictionary.intern(name);
+    }
+
+    /** intern for a UTF-8 name in bytes[from, to), as parsed from a file. */
+    public int intern(byte[] bytes, int from, int to) {
+        return dictionary.intern(bytes, from, to);
+    }
+
+    /** Returns the id of name, or -1 if it is unknown. */
+    public int idOf(String name) {
+        return dictionary.idOf(name);
+    }
+
+    public String nameOf(int id) {
+        return dictionary.nameOf(id);
+    }
+
+    public int size() {
+        return dictionary.size();
+    }
+
+    public NameDictionary dictionary() {
+        return dictionary;
+    }
+
+    public long footprintBytes() {
+        return MemoryFootprint.align(MemoryFootprint.HEADER + MemoryFootprint.REF) + dictionary.footprintBytes();
+    }
+
+    /** Names reordered so that new id i is old id oldIdOf[i]; bytes are copied, no Strings made. */
+    public VertexNames permuted(int[] oldIdOf) {
+        VertexNames result = new VertexNames(new NameDictionary(dictionary.numericPrefix()));
+        for (int oldId : oldIdOf) result.dictionary.internFrom(dictionary, oldId);
+        return result;
+    }
+
+    /** Names with a given prefix and 1-based index, e.g. "SCC 1".."SCC k". */
+    public static VertexNames numbered(String prefix, int count) {
+        VertexNames result = new VertexNames(new NameDictionary(prefix));
+        for (int i = 0; i < count; i++) result.intern(prefix + (i + 1));
+        return result;
+    }
+}
@@ -0,0 +1,191 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Relabels vertices for memory locality before traversal. Ids from the JSON
+ * input are arbitrary, so DFS and relaxation jump through the CSR arrays; after
+ * relabeling, neighbouring vertices get nearby ids and each adjacency row is
+ * sorted by target. VertexNames are permuted along, so results still print
+ * with the original names.
+ */
+public class VertexOrdering {
+
+    public enum Strategy {
+        /** Breadth-first order over out-edges, roots taken in id order. */
+        BFS,
+        /** Reverse Cuthill-McKee on the undirected graph (small bandwidth). */
+        RCM,
+        /** Descending total degree, hubs first. */
+        DEGREE,
+        /** Kahn order; every edge goes from a lower to a higher id (DAGs only). */
+        TOPOLOGICAL
+    }
+
+    /** A graph relabeled by a permutation, with the maps in both directions. */
+    public static class Relabeled {
+        public final CsrGraph graph;
+        public final int[] newIdOf; // old id -> new id
+        public final int[] oldIdOf; // new id -> old id
+
+        Relabeled(CsrGraph graph, int[] newIdOf, int[] oldIdOf) {
+            this.graph = graph;
+            this.newIdOf = newIdOf;
+            this.oldIdOf = oldIdOf;
+        }
+
+        /** Re-indexes a per-vertex array from old to new ids (e.g. ranks taken before relabeling). */
+        public int[] carry(int[] byOldId) {
+            int[] byNewId = new int[oldIdOf.length];
+            for (int v = 0; v < byNewId.length; v++) byNewId[v] = byOldId[oldIdOf[v]];
+            return byNewId;
+        }
+    }
+
+    public static Relabeled relabel(Graph g, Strategy strategy) {
+        int[] oldIdOf = switch (strategy) {
+            case BFS -> bfsOrder(g);
+            case RCM -> reverseCuthillMcKee(g);
+            case DEGREE -> degreeOrder(g);
+            case TOPOLOGICAL -> topologicalOrder(g);
+        };
+        return relabel(g, oldIdOf);
+    }
+
+    /** Builds the relabeled CSR; oldIdOf[newId] lists the vertices in their new order. */
+    public static Relabeled relabel(Graph g, int[] oldIdOf) {
+        int n = g.vertexCount();
+        int[] newIdOf = new int[n];
+        for (int i = 0; i < n; i++) newIdOf[oldIdOf[i]] = i;
+
+        VertexNames names = g.names().permuted(oldIdOf);
+
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) offsets[i + 1] = offsets[i] + g.outDegree(oldIdOf[i]);
+        int m = offsets[n];
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        long[] packed = new long[0];
+        for (int i = 0; i < n; i++) {
+            int u = oldIdOf[i];
+            int degree = g.outDegree(u);
+            if (packed.length < degree) packed = new long[Math.max(degree, packed.length * 2)];
+            // Sort the row by new target id: pack (target, weight) into one long
+            int k = 0;
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                packed[k++] = ((long) newIdOf[g.target(e)] << 32) | (g.weight(e) & 0xFFFFFFFFL);
+            }
+            Arrays.sort(packed, 0, degree);
+            for (int j = 0; j < degree; j++) {
+                targets[offsets[i] + j] = (int) (packed[j] >>> 32);
+                weights[offsets[i] + j] = (int) packed[j];
+            }
+        }
+        return new Relabeled(new CsrGraph(names, offsets, targets, weights), newIdOf, oldIdOf);
+    }
+
+    // --- Orderings (each returns oldIdOf: the vertices listed in their new order) ---
+
+    static int[] bfsOrder(Graph g) {
+        int n = g.vertexCount();
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int head = 0, tail = 0;
+        for (int s = 0; s < n; s++) {
+            if (visited[s]) continue;
+            visited[s] = true;
+            order[tail++] = s;
+            while (head < tail) {
+                int u = order[head++];
+                for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                    int v = g.target(e);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        order[tail++] = v;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    static int[] reverseCuthillMcKee(Graph g) {
+        int n = g.vertexCount();
+        Graph gt = g.transpose();
+        int[] degree = new int[n];
+        for (int u = 0; u < n; u++) degree[u] = g.outDegree(u) + gt.outDegree(u);
+
+        // Start vertices are tried from the lowest degree up (peripheral vertices first)
+        int[] starts = degreeSorted(degree, true);
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        long[] frontier = new long[0];
+        int head = 0, tail = 0;
+        for (int s : starts) {
+            if (visited[s]) continue;
+            visited[s] = true;
+            order[tail++] = s;
+            while (head < tail) {
+                int u = order[head++];
+                // Unvisited undirected neighbours, enqueued by increasing degree
+                int k = 0;
+                for (Graph side : new Graph[] {g, gt}) {
+                    for (long e = side.edgeStart(u), end = side.edgeEnd(u); e < end; e++) {
+                        int v = side.target(e);
+                        if (visited[v]) continue;
+                        visited[v] = true;
+                        if (k == frontier.length) frontier = Arrays.copyOf(frontier, Math.max(16, k * 2));
+                        frontier[k++] = ((long) degree[v] << 32) | v;
+                    }
+                }
+                Arrays.sort(frontier, 0, k);
+                for (int j = 0; j < k; j++) order[tail++] = (int) frontier[j];
+            }
+        }
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            int t = order[i]; order[i] = order[j]; order[j] = t;
+        }
+        return order;
+    }
+
+    static int[] degreeOrder(Graph g) {
+        int n = g.vertexCount();
+        int[] degree = new int[n];
+        for (int u = 0; u < n; u++) {
+            degree[u] += g.outDegree(u);
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) degree[g.target(e)]++;
+        }
+        return degreeSorted(degree, false);
+    }
+
+    static int[] topologicalOrder(Graph g) {
+        int[] order = new KahnEngine().sort(g);
+        if (order.length != g.vertexCount()) {
+            throw new IllegalArgumentException("Error: topological relabeling needs a DAG, the graph has a cycle");
+        }
+        return order;
+    }
+
+    // Vertices sorted by degree (ties by id), via packed longs to avoid boxing
+    private static int[] degreeSorted(int[] degree, boolean ascending) {
+        int n = degree.length;
+        long[] packed = new long[n];
+        for (int v = 0; v < n; v++) {
+            long key = ascending ? degree[v] : Integer.MAX_VALUE - degree[v];
+            packed[v] = (key << 32) | v;
+        }
+        Arrays.sort(packed);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = (int) packed[i];
+        return order;
+    }
+
+    /** Mean |u - v| over all edges: a locality proxy for how far each edge jumps in memory. */
+    public static double meanEdgeSpan(Graph g) {
+        long total = 0;
+        for (int u = 0; u < g.vertexCount(); u++) {
+            for (long e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) total += Math.abs(g.target(e) - u);
+        }
+        return g.edgeCount() == 0 ? 0 : (double) total / g.edgeCount();
+    }
+}
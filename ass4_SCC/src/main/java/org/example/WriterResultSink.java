@@ -0,0 +1,34 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/** Common part of the character sinks: a buffered Writer plus the name tables. */
+abstract class WriterResultSink implements ResultSink {
+
+    protected final Writer out;
+    protected final VertexNames vertices;
+    protected final VertexNames components;
+    private final boolean console;
+
+    WriterResultSink(Writer out, boolean console, VertexNames vertices, VertexNames components) {
+        this.out = out;
+        this.console = console;
+        this.vertices = vertices;
+        this.components = components;
+    }
+
+    @Override
+    public void section(String title) throws IOException {
+        // headings are text-only
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (console) {
+            out.flush(); // standard output stays open for the instrumentation report
+        } else {
+            out.close();
+        }
+    }
+}
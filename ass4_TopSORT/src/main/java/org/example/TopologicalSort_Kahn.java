@@ -3,20 +3,58 @@ package org.example;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.InputStreamReader;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Task 1.2: Topological Sort using Kahn's Algorithm on the Condensation DAG.
  * Integrates graph loading, SCC finding, DAG construction, and instrumented Topological Sort.
+ * main runs the int-indexed engines with a priority-aware Kahn, so the order is
+ * deterministic; the Map/List methods are the original reference pipeline.
+ * Kahn runs on the input first: a DAG is done after that single pass, and
+ * otherwise SCCs are only searched among the vertices Kahn could not reach.
+ * The derived order is then executed by TaskExecutor, components in parallel.
  */
 public class TopologicalSort_Kahn {
 
     // Change the JSON file name HERE HERE HERE HERE
-    private static final String GRAPH_FILE_NAME = "large3.json"; // Assumes file is in src/main/resources
+    private static final String GRAPH_FILE_NAME = "large3.json"; // Assumes file is in src/main/resources (a .csv/.tsv edge list is read by path)
     // HERE
 
-    // Global Instrumentation Counters
+    // Order of equally ready components and of tasks within a component (LEXICOGRAPHIC or INPUT_ORDER)
+    private static final TieBreak TIE_BREAK = TieBreak.LEXICOGRAPHIC;
+
+    // Drop implied condensation edges before sorting (same orders, fewer edges to process)
+    private static final boolean REDUCE_CONDENSATION = true;
+
+    // Bitset matrix engines when the graph is dense enough (DenseGraph.preferred); false always uses CSR
+    private static final boolean AUTO_DENSE = true;
+
+    // Relabel vertex ids for locality before the passes (BFS, RCM, DEGREE, TOPOLOGICAL); null keeps the input ids.
+    // Names travel with the ids and the tie-break ranks are taken before relabeling, so the output is unchanged.
+    private static final VertexOrdering.Strategy REORDER = null;
+
+    // Witness cycles of cyclic components: ANY (one BFS each) or SHORTEST over CYCLE_STARTS start vertices
+    private static final CycleDetector.Mode CYCLE_MODE = CycleDetector.Mode.SHORTEST;
+    private static final int CYCLE_STARTS = 8;
+    private static final int CYCLE_REPORT_LIMIT = 10;
+
+    // Results of an unchanged input (same content hash and settings) are restored from here; null disables
+    private static final String SNAPSHOT_DIR = "snapshots";
+    private static final String SNAPSHOT_PIPELINE = "kahn";
+
+    // Tasks executed in dependency order on EXECUTOR_WORKERS threads (0, the default, skips it), longest
+    // critical path first; every original task stands for TASK_MICROS of work, spinning or (BLOCKING_TASKS) parked
+    private static final int EXECUTOR_WORKERS = 0;
+    private static final TaskExecutor.Workers EXECUTOR_THREADS = TaskExecutor.Workers.VIRTUAL;
+    private static final double TASK_MICROS = 100;
+    private static final boolean BLOCKING_TASKS = false;
+
+    // Result output: TEXT, CSV, JSONL or BINARY; a null file means the console (BINARY needs a file)
+    private static final ResultSink.Format OUTPUT_FORMAT = ResultSink.Format.TEXT;
+    private static final String OUTPUT_FILE = null;
+
+    // Instrumentation Counters of the Map/List reference pipeline below
     private static long kahnPops = 0;
     private static long kahnPushes = 0;
 
@@ -43,7 +81,7 @@ public class TopologicalSort_Kahn {
             allNodes.add(node);
         }
         for (List<String> edge : data.edges) {
-            if (edge.size() == 2) {
+            if (edge.size() >= 2) { // [u, v] or weighted [u, v, w]
                 String u = edge.get(0);
                 String v = edge.get(1);
                 G.computeIfAbsent(u, k -> new ArrayList<>()).add(v);
@@ -202,52 +240,212 @@ public class TopologicalSort_Kahn {
         System.out.println("--- Task 1.2: Topological Sort of Condensation DAG (Kahn's Algorithm) ---");
 
         try {
+            MemoryFootprint footprint = new MemoryFootprint("Kahn Topological Sort");
             startTime = System.nanoTime();
 
-            // Reused preparation logic
-            Set<String> allNodes = new HashSet<>();
-            GraphData[] dataHolder = new GraphData[1];
-            Map<String, List<String>> G = loadGraph(GRAPH_FILE_NAME, allNodes, dataHolder);
-
-            // 1. Find SCCs and build Condensation DAG
-            List<List<String>> sccs = findSCCs(G, allNodes);
-            Map<List<String>, String> sccIdMap = new HashMap<>();
-            Map<List<String>, Set<List<String>>> condAdj = buildCondensationGraph(G, sccs, sccIdMap);
-
-            // 2. Compute Topological Sort
-            List<List<String>> componentOrder = topologicalSortKahn(condAdj, sccs);
-
-            long endTime = System.nanoTime();
-            double durationMillis = (endTime - startTime) / 1_000_000.0;
+            // 0. Snapshot of an earlier run on the same input and settings
+            footprint.beginPhase("Snapshot Lookup");
+            String snapshotKey = SNAPSHOT_DIR == null ? null
+                    : ResultSnapshot.key(GRAPH_FILE_NAME, SNAPSHOT_PIPELINE, TIE_BREAK.name(), "reduce=" + REDUCE_CONDENSATION,
+                            "cycles=" + CYCLE_MODE + "/" + CYCLE_STARTS, "reorder=" + REORDER);
+            ResultSnapshot snapshot = snapshotKey == null ? null
+                    : ResultSnapshot.open(Path.of(SNAPSHOT_DIR), SNAPSHOT_PIPELINE, snapshotKey);
+            // The mapping stays open for the whole run (restored graphs live in it) and is unmapped on any exit
+            try (snapshot) {
+                CsrGraph G = null;
+                VertexNames names;
+                SccEngine scc;
+                Graph condAdj; // null when the input was a DAG and no condensation was built
+                VertexNames componentNames;
+                int prefixVertices = -1;
+                DenseGraph matrix = null;
+                int[] componentOrder;
+                CycleDetector.Report cycles;
+                long condensationEdges, removedEdges, inputEdges;
+                KahnEngine kahn = new KahnEngine();
+                TransitiveReduction reduction = new TransitiveReduction();
+                if (snapshot != null) {
+                    names = snapshot.names("names");
+                    scc = SccEngine.restore(snapshot.ints("compOf"), snapshot.ints("componentOffsets"),
+                            snapshot.ints("componentMembers"));
+                    componentNames = VertexNames.numbered("SCC ", scc.componentCount());
+                    condAdj = snapshot.has("condensation.offsets") ? snapshot.graph("condensation", componentNames) : null;
+                    componentOrder = snapshot.ints("topoOrder");
+                    cycles = new CycleDetector.Report(snapshot.ints("cycles.components"), snapshot.ints("cycles.sizes"),
+                            snapshot.longs("cycles.internalEdges"), snapshot.ints("cycles.offsets"),
+                            snapshot.ints("cycles.vertices"));
+                    long[] stats = snapshot.longs("stats");
+                    condensationEdges = stats[0];
+                    removedEdges = stats[1];
+                    inputEdges = stats[2];
+                } else {
+                    footprint.beginPhase("Load");
+                    G = GraphLoader.load(GRAPH_FILE_NAME);
+                    int[] rank = TIE_BREAK.ranks(G.names());
+                    if (REORDER != null) {
+                        footprint.beginPhase("Reorder");
+                        VertexOrdering.Relabeled relabeled = VertexOrdering.relabel(G, REORDER);
+                        G = relabeled.graph;
+                        rank = relabeled.carry(rank);
+                    }
+                    names = G.names();
+                    inputEdges = G.edgeCount();
+
+                    // 1. Kahn pass on the input itself: a DAG needs no SCC work and no condensation
+                    footprint.beginPhase("Kahn Pre-pass");
+                    if (AUTO_DENSE && DenseGraph.preferred(G)) matrix = DenseGraph.of(G);
+                    int[] prefix = matrix != null ? matrix.topologicalOrder(rank) : kahn.sort(G, rank);
+                    prefixVertices = prefix.length;
+                    if (prefix.length == G.vertexCount()) {
+                        // Singleton components numbered in Kahn order: what canonicalize would give
+                        scc = SccEngine.singletons(prefix);
+                        cycles = CycleDetector.Report.none();
+                        condAdj = null;
+                        condensationEdges = -1;
+                        componentOrder = new int[prefix.length];
+                        for (int c = 0; c < componentOrder.length; c++) componentOrder[c] = c;
+                    } else {
+                        // 2. SCCs of the residual only (canonical ids) and the Condensation DAG
+                        footprint.beginPhase(matrix != null ? "SCC (forward/backward)" : "SCC (Kosaraju, residual)");
+                        scc = (matrix != null ? matrix.scc() : new SccEngine().runResidual(G, prefix)).canonicalize(G, rank);
+                        footprint.beginPhase("Cycle Witnesses");
+                        cycles = CycleDetector.find(G, scc, CYCLE_MODE, CYCLE_STARTS);
+                        footprint.beginPhase("Condensation");
+                        CsrGraph condensation = Condensation.build(G, scc);
+                        condensationEdges = condensation.edgeCount();
+                        if (REDUCE_CONDENSATION) {
+                            // Canonical component ids are already a topological order
+                            footprint.beginPhase("Transitive Reduction");
+                            int[] idOrder = new int[condensation.vertexCount()];
+                            for (int c = 0; c < idOrder.length; c++) idOrder[c] = c;
+                            condensation = reduction.reduce(condensation, idOrder);
+                        }
+                        condAdj = condensation;
+
+                        // 3. Compute Topological Sort; canonical ids are the tie-break priority
+                        footprint.beginPhase("Kahn Sort");
+                        int[] priority = new int[condAdj.vertexCount()];
+                        for (int c = 0; c < priority.length; c++) priority[c] = c;
+                        componentOrder = kahn.sort(condAdj, priority);
+                    }
+                    removedEdges = reduction.removedEdges();
+                    componentNames = condAdj != null ? condAdj.names() : VertexNames.numbered("SCC ", scc.componentCount());
+
+                    if (snapshotKey != null) {
+                        footprint.beginPhase("Snapshot Save");
+                        ResultSnapshot.Builder builder = new ResultSnapshot.Builder();
+                        if (condAdj != null) builder.put("condensation", condAdj);
+                        builder.put("names", names)
+                                .put("compOf", scc.compOf())
+                                .put("componentOffsets", scc.componentOffsets())
+                                .put("componentMembers", scc.componentMembers())
+                                .put("topoOrder", componentOrder)
+                                .put("cycles.components", cycles.components)
+                                .put("cycles.sizes", cycles.sizes)
+                                .put("cycles.internalEdges", cycles.internalEdges)
+                                .put("cycles.offsets", cycles.cycleOffsets)
+                                .put("cycles.vertices", cycles.cycleVertices)
+                                .put("stats", new long[] {condensationEdges, removedEdges, inputEdges})
+                                .save(Path.of(SNAPSHOT_DIR), SNAPSHOT_PIPELINE, snapshotKey);
+                    }
+                }
+                footprint.endPhase();
 
-            //  Results
+                long endTime = System.nanoTime();
+                double durationMillis = (endTime - startTime) / 1_000_000.0;
 
+                //  Results
 
-            String orderString = componentOrder.stream()
-                    .map(sccIdMap::get)
-                    .collect(Collectors.joining(" -> "));
 
-            System.out.println("\nValid Topological Order of Components:");
-            System.out.println(orderString);
+                // Orders are streamed to the sink entry by entry
+                System.out.flush();
+                int[] componentOffsets = scc.componentOffsets();
+                int[] componentMembers = scc.componentMembers();
+                try (ResultSink sink = ResultSink.open(OUTPUT_FORMAT, OUTPUT_FILE, names, componentNames)) {
+                    sink.section("\nValid Topological Order of Components:");
+                    for (int i = 0; i < componentOrder.length; i++) sink.componentOrder(i, componentOrder[i]);
 
+                    sink.section("\n Derived Order of Original Tasks (Tasks ordered within components by " + TIE_BREAK + "):");
+                    int position = 0;
+                    for (int c : componentOrder) {
+                        for (int i = componentOffsets[c]; i < componentOffsets[c + 1]; i++) {
+                            sink.taskOrder(position++, componentMembers[i]);
+                        }
+                    }
+                }
 
-            System.out.println("\n Derived Order of Original Tasks (Tasks sorted within components for clarity):");
-            List<String> taskOrder = new ArrayList<>();
-            for (List<String> scc : componentOrder) {
+                // Cyclic components: why the input graph itself has no topological order
+                if (cycles.cycleCount() > 0) cycles.print(names, CYCLE_REPORT_LIMIT);
+
+                // --- Instrumentation Report ---
+                System.out.println("\n--- Instrumentation Report ---");
+                if (snapshot != null) {
+                    System.out.printf("Restored from snapshot (%d bytes mapped); SCC, condensation and sort were not rerun\n",
+                            snapshot.byteSize());
+                } else {
+                    System.out.printf("Kahn Pre-pass: %d of %d vertices sorted%s\n", prefixVertices, names.size(),
+                            condAdj == null ? " (input is a DAG: SCC and condensation skipped)"
+                                    : matrix != null ? ", SCC by bitset closures" : ", SCC run on the rest");
+                    if (matrix != null) {
+                        System.out.printf("Adjacency Mode: dense bitset matrix (density %.3f), %d word operations\n",
+                                DenseGraph.density(G), matrix.wordOps());
+                    }
+                    // The dense pre-pass keeps its own ready heap; the condensation sort still uses kahn
+                    long pushes = kahn.pushes() + (matrix != null ? matrix.pushes() : 0);
+                    long pops = kahn.pops() + (matrix != null ? matrix.pops() : 0);
+                    System.out.printf("Core Kahn Operations (Pushes/Pops): %d\n", pushes + pops);
+                    System.out.printf("Total Queue Pushes: %d\n", pushes);
+                    System.out.printf("Total Queue Pops: %d\n", pops);
+                }
+                if (REDUCE_CONDENSATION && condAdj != null) {
+                    System.out.printf("Transitive Reduction: removed %d of %d condensation edges%s\n", removedEdges,
+                            condensationEdges, snapshot != null ? "" : String.format(" (%.3f ms)", reduction.millis()));
+                }
+                System.out.printf("Total Execution Time (Load, SCC, DAG, Sort): %.3f milliseconds\n", durationMillis);
+                System.out.println("------------------------------");
+
+                // Execution: a component starts once every component it depends on has finished
+                if (EXECUTOR_WORKERS > 0 && condAdj == null && G == null) {
+                    // A restored DAG keeps only its order, not the task edges the executor would need
+                    System.out.println("Execution skipped: the input DAG was restored from a snapshot without its edges.");
+                } else if (EXECUTOR_WORKERS > 0) {
+                    Graph taskGraph = condAdj;
+                    int[] taskOrder = componentOrder;
+                    if (condAdj == null) {
+                        // Acyclic input: the tasks themselves are the DAG, in the derived order
+                        taskGraph = G;
+                        taskOrder = new int[componentMembers.length];
+                        for (int i = 0; i < componentOrder.length; i++) taskOrder[i] = componentMembers[componentOffsets[componentOrder[i]]];
+                    }
+                    double[] micros = new double[taskGraph.vertexCount()];
+                    for (int c = 0; c < micros.length; c++) {
+                        micros[c] = TASK_MICROS * (condAdj != null ? componentOffsets[c + 1] - componentOffsets[c] : 1);
+                    }
+                    new TaskExecutor(EXECUTOR_WORKERS, EXECUTOR_THREADS, TaskExecutor.Priority.CRITICAL_PATH)
+                            .run(taskGraph, taskOrder, micros, TaskExecutor.simulated(micros, BLOCKING_TASKS))
+                            .print(condAdj != null ? "components" : "tasks");
+                }
 
-                List<String> sortedScc = new ArrayList<>(scc);
-                Collections.sort(sortedScc);
-                taskOrder.addAll(sortedScc);
+                int n = names.size();
+                int k = scc.componentCount();
+                footprint.setEdgeCount(inputEdges);
+                footprint.record("Vertex names", names.footprintBytes());
+                if (G != null) {
+                    footprint.record("Adjacency (G, CSR)", G.footprintBytes());
+                    footprint.record("Pre-pass degrees+heap+order", 3 * MemoryFootprint.primitiveArray(n, 4));
+                    if (matrix != null) footprint.record("Bitset rows + columns", matrix.footprintBytes());
+                    footprint.record("compOf + members + ranks", 3 * MemoryFootprint.primitiveArray(n, 4));
+                    if (condAdj != null) {
+                        if (matrix == null) footprint.record("Residual + transpose (max)", 2 * G.footprintBytes());
+                        footprint.record("Condensation graph (CSR)", ((CsrGraph) condAdj).footprintBytes() + componentNames.footprintBytes());
+                        footprint.record("In-degrees + heap + order", 3 * MemoryFootprint.primitiveArray(k, 4));
+                    }
+                } else {
+                    footprint.record("compOf + members", 2 * MemoryFootprint.primitiveArray(n, 4));
+                    footprint.record("Topological order", MemoryFootprint.primitiveArray(k, 4));
+                }
+                footprint.print();
             }
-            System.out.println(String.join(", ", taskOrder));
-
-            // --- Instrumentation Report ---
-            System.out.println("\n--- Instrumentation Report ---");
-            System.out.printf("Core Kahn Operations (Pushes/Pops): %d\n", kahnPushes + kahnPops);
-            System.out.printf("Total Queue Pushes: %d\n", kahnPushes);
-            System.out.printf("Total Queue Pops: %d\n", kahnPops);
-            System.out.printf("Total Execution Time (Load, SCC, DAG, Sort): %.3f milliseconds\n", durationMillis);
-            System.out.println("------------------------------");
 
         } catch (RuntimeException e) {
             System.err.println("\n❌ A critical error occurred: " + e.getMessage());